@@ -0,0 +1,66 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * メモリ上の executor に対する getListedInfo の複数スレッドでのスループット。
+ *
+ * <p>同じ検索条件の同時呼び出しは 1 回のリクエストにまとめられるため、スレッドごとに異なる銘柄コードを問い合わせ、リクエストの組み立てからデコードまでを各スレッドで実行させます。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@Threads(4)
+public class GetListedInfoThroughputBenchmark {
+    @Param({"1", "100"})
+    int pageSize;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private JQuantsClient client;
+
+    @Setup
+    public void setUp() {
+        client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        new InMemoryHttpRequestExecutor(ListedInfoJson.page(pageSize)));
+    }
+
+    /** スレッドごとの検索条件。 */
+    @State(Scope.Thread)
+    public static class ThreadQuery {
+        private ListedInfoQuery query;
+
+        @Setup
+        public void setUp(GetListedInfoThroughputBenchmark benchmark) {
+            int thread = benchmark.threadCount.incrementAndGet();
+            query = ListedInfoQuery.builder().code(String.valueOf(10000 + thread * 10)).build();
+        }
+    }
+
+    @Benchmark
+    public ListedInfoResponse getListedInfo(ThreadQuery thread)
+            throws IOException, InterruptedException {
+        return client.getListedInfo(thread.query);
+    }
+}
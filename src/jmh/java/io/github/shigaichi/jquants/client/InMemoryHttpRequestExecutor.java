@@ -0,0 +1,34 @@
+package io.github.shigaichi.jquants.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/** すべてのリクエストに同じボディの 200 応答を返す、ネットワークを使わない executor。 */
+final class InMemoryHttpRequestExecutor implements HttpRequestExecutor {
+    private final String body;
+    private final byte[] bytes;
+
+    InMemoryHttpRequestExecutor(String body) {
+        this.body = body;
+        this.bytes = body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public HttpResponse<String> send(HttpRequest request) {
+        return new StubHttpResponse<>(request, 200, body);
+    }
+
+    @Override
+    public HttpResponse<InputStream> sendStreaming(HttpRequest request) {
+        return new StubHttpResponse<>(request, 200, new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        return CompletableFuture.completedFuture(send(request));
+    }
+}
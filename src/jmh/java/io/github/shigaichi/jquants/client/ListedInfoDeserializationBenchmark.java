@@ -0,0 +1,59 @@
+package io.github.shigaichi.jquants.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** /listed/info の 1 ページ分のデコード。 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ListedInfoDeserializationBenchmark {
+    @Param({"100", "1000", "4000"})
+    int pageSize;
+
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private String body;
+    private JQuantsClient client;
+
+    @Setup
+    public void setUp() {
+        body = ListedInfoJson.page(pageSize);
+        client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        new InMemoryHttpRequestExecutor(body));
+    }
+
+    /** ボディ全体を {@link ListedInfoResponse} にデコードします（getListedInfo の経路）。 */
+    @Benchmark
+    public ListedInfoResponse readResponse() throws IOException {
+        return objectMapper.readValue(body, ListedInfoResponse.class);
+    }
+
+    /** ストリーミングで 1 件ずつデコードします（forEachListedInfo の経路）。 */
+    @Benchmark
+    public void streamRecords(Blackhole blackhole) throws IOException, InterruptedException {
+        client.forEachListedInfo(ListedInfoQuery.builder().build(), blackhole::consume);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.shigaichi.jquants.client;
+
+/** 実際の /listed/info に近い内容のレスポンスボディを生成します。 */
+final class ListedInfoJson {
+    private static final String[][] SECTORS = {
+        {"1", "食品", "3050", "食料品"},
+        {"6", "自動車・輸送機", "3700", "輸送用機器"},
+        {"10", "情報通信・サービスその他", "5250", "情報・通信業"},
+        {"15", "銀行", "7050", "銀行業"},
+        {"16", "金融（除く銀行）", "7200", "その他金融業"},
+    };
+    private static final String[][] MARKETS = {
+        {"0111", "プライム"}, {"0112", "スタンダード"}, {"0113", "グロース"},
+    };
+
+    private ListedInfoJson() {}
+
+    /**
+     * 指定した銘柄数の /listed/info のレスポンスボディを生成します。
+     *
+     * @param size 銘柄数
+     * @return レスポンスボディ
+     */
+    static String page(int size) {
+        StringBuilder json = new StringBuilder(size * 420).append("{\"info\":[");
+        for (int i = 0; i < size; i++) {
+            String[] sector = SECTORS[i % SECTORS.length];
+            String[] market = MARKETS[i % MARKETS.length];
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"Date\":\"2024-01-04\",\"Code\":\"")
+                    .append(String.format("%04d0", 1300 + i))
+                    .append("\",\"CompanyName\":\"サンプル株式会社")
+                    .append(i)
+                    .append("\",\"CompanyNameEnglish\":\"Sample Corporation ")
+                    .append(i)
+                    .append("\",\"Sector17Code\":\"")
+                    .append(sector[0])
+                    .append("\",\"Sector17CodeName\":\"")
+                    .append(sector[1])
+                    .append("\",\"Sector33Code\":\"")
+                    .append(sector[2])
+                    .append("\",\"Sector33CodeName\":\"")
+                    .append(sector[3])
+                    .append("\",\"ScaleCategory\":\"TOPIX Small 1\",\"MarketCode\":\"")
+                    .append(market[0])
+                    .append("\",\"MarketCodeName\":\"")
+                    .append(market[1])
+                    .append("\",\"MarginCode\":\"2\",\"MarginCodeName\":\"貸借\",\"BasePrice\":")
+                    .append(1000 + i)
+                    .append(".5}");
+        }
+        return json.append("]}").toString();
+    }
+}
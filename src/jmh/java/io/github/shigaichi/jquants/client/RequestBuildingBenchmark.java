@@ -0,0 +1,59 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** URI の組み立てとエラー応答の変換。 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class RequestBuildingBenchmark {
+    private static final String ERROR_BODY = "{\"message\":\"The incoming token is invalid.\"}";
+
+    private final JQuantsClient client =
+            new JQuantsClient(
+                    "dummy-token",
+                    JQuantsClient.DEFAULT_BASE_URI,
+                    new InMemoryHttpRequestExecutor("{}"));
+    private final ListedInfoQuery query =
+            ListedInfoQuery.builder()
+                    .code("86970")
+                    .date("2024-01-04")
+                    .paginationKey("20240104-86970/+=next page")
+                    .build();
+    private final HttpResponse<String> errorResponse =
+            new StubHttpResponse<>(null, 400, ERROR_BODY);
+
+    /** クエリのエンコードを含む URI の組み立て。 */
+    @Benchmark
+    public URI buildUri() {
+        return client.buildUri("/listed/info", query);
+    }
+
+    /** JSON のエラー応答から例外を組み立てます。 */
+    @Benchmark
+    public JQuantsApiException buildException() {
+        return JQuantsClient.buildException(errorResponse, ERROR_BODY);
+    }
+
+    /** JSON でないエラー応答の解析（JsonProcessingException の経路）。 */
+    @Benchmark
+    public Optional<String> parseNonJsonErrorMessage() {
+        return JQuantsClient.parseErrorMessage("<html>Bad Gateway</html>");
+    }
+}
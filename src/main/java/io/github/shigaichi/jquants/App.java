@@ -1,11 +1,16 @@
 package io.github.shigaichi.jquants;
 
 import io.github.shigaichi.jquants.client.JQuantsClient;
+import io.github.shigaichi.jquants.client.JQuantsSession;
 import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
 import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import io.github.shigaichi.jquants.client.token.FileTokenStore;
+import io.github.shigaichi.jquants.client.token.IdTokenProvider;
 import io.github.shigaichi.jquants.client.token.IdTokenResponse;
+import io.github.shigaichi.jquants.client.token.RefreshingIdTokenProvider;
+import io.github.shigaichi.jquants.client.token.TokenAuthenticator;
 import java.net.URI;
-import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.util.Optional;
 
 public class App {
@@ -26,15 +31,39 @@ public class App {
                         .map(URI::create)
                         .orElse(JQuantsClient.DEFAULT_BASE_URI);
 
-        IdTokenResponse tokenResponse =
-                JQuantsClient.authenticateUser(mailAddress, password, baseUri);
-        JQuantsClient client =
-                new JQuantsClient(tokenResponse.getIdToken(), HttpClient.newHttpClient(), baseUri);
-        ListedInfoResponse response = client.getListedInfo(ListedInfoQuery.builder().build());
+        try (JQuantsSession session = JQuantsSession.builder().baseUri(baseUri).build()) {
+            session.warmUp();
+            JQuantsClient client =
+                    session.newClient(createTokenProvider(session, mailAddress, password));
+            ListedInfoResponse response = client.getListedInfo(ListedInfoQuery.builder().build());
 
-        response.getInfo().stream()
-                .limit(10)
-                .forEach(info -> System.out.println(info.getCode() + " " + info.getCompanyName()));
-        response.getPaginationKey().ifPresent(key -> System.out.println("次ページキー: " + key));
+            response.getInfo().stream()
+                    .limit(10)
+                    .forEach(
+                            info ->
+                                    System.out.println(
+                                            info.getCode() + " " + info.getCompanyName()));
+            response.getPaginationKey().ifPresent(key -> System.out.println("次ページキー: " + key));
+        }
+    }
+
+    /**
+     * 環境変数 JQUANTS_TOKEN_FILE が設定されている場合は保存済みのトークンを再利用し、ログインを省略します。
+     */
+    private static IdTokenProvider createTokenProvider(
+            JQuantsSession session, String mailAddress, String password) throws Exception {
+        TokenAuthenticator authenticator = () -> session.authenticateUser(mailAddress, password);
+        RefreshingIdTokenProvider.Builder builder = session.tokenProviderBuilder();
+
+        String tokenFile = System.getenv("JQUANTS_TOKEN_FILE");
+        if (tokenFile != null && !tokenFile.isBlank()) {
+            return builder.tokenStore(new FileTokenStore(Path.of(tokenFile)))
+                    .buildFromStore(authenticator);
+        }
+
+        IdTokenResponse tokenResponse = authenticator.authenticate();
+        return builder.refreshToken(tokenResponse.getRefreshToken())
+                .idToken(tokenResponse.getIdToken(), null)
+                .build();
     }
 }
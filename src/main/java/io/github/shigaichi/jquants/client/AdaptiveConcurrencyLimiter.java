@@ -0,0 +1,331 @@
+package io.github.shigaichi.jquants.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * 観測したレイテンシと 429 応答から同時実行数の上限を調整するリミッタ（AIMD）。
+ *
+ * <p>応答が正常でレイテンシが基準値の {@code latencyTolerance} 倍以内であれば上限を 1 ずつ増やし、429 や 503、通信失敗、
+ * またはレイテンシの悪化を観測した場合は上限に {@code backoffRatio} を掛けて減らします。上限を超えた呼び出しは到着順に待機します。
+ *
+ * <p>レイテンシの基準値はエンドポイントごとに直近 {@code baselineWindow} 件の正常な応答の最小値です。古い観測値は窓から外れるため、
+ * 応答時間の水準が変わっても基準値が追従します。上限を減らした後は、減らす前に開始したリクエストの結果では再び減らしません
+ * （1 回の過負荷で実行中のリクエストの数だけ減らし続けないため）。
+ *
+ * <p>{@link JQuantsSession.Builder#concurrencyLimiter(AdaptiveConcurrencyLimiter)} で指定します。
+ */
+public final class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final int baselineWindow;
+    private final LongSupplier nanoTime;
+
+    private final Object lock = new Object();
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private final Map<String, LatencyWindow> baselines = new HashMap<>();
+    private boolean decreased;
+    private long decreasedAtNanos;
+
+    private AdaptiveConcurrencyLimiter(Builder builder) {
+        if (builder.minLimit <= 0 || builder.maxLimit < builder.minLimit) {
+            throw new IllegalArgumentException("minLimitは1以上、maxLimitはminLimit以上で指定してください。");
+        }
+        if (builder.initialLimit < builder.minLimit || builder.initialLimit > builder.maxLimit) {
+            throw new IllegalArgumentException("initialLimitはminLimitからmaxLimitの範囲で指定してください。");
+        }
+        if (builder.latencyTolerance < 1.0) {
+            throw new IllegalArgumentException("latencyToleranceは1以上で指定してください。");
+        }
+        if (!(builder.backoffRatio > 0.0 && builder.backoffRatio < 1.0)) {
+            throw new IllegalArgumentException("backoffRatioは0より大きく1未満で指定してください。");
+        }
+        if (builder.baselineWindow <= 0) {
+            throw new IllegalArgumentException("baselineWindowは1以上で指定してください。");
+        }
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.backoffRatio = builder.backoffRatio;
+        this.baselineWindow = builder.baselineWindow;
+        this.nanoTime = builder.nanoTime;
+        this.limit = builder.initialLimit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** 現在の同時実行数の上限を返します。 */
+    public int getLimit() {
+        synchronized (lock) {
+            return (int) limit;
+        }
+    }
+
+    /** 実行中のリクエスト数を返します。 */
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    /** 上限を超えたため待機しているリクエスト数を返します。 */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    /**
+     * 実行枠を要求します。
+     *
+     * @return 実行枠を得た時点で完了する Future。完了後は必ず {@link #release(String, long, Outcome)} を呼び出してください。
+     */
+    CompletableFuture<Void> acquire() {
+        synchronized (lock) {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * 実行枠を要求し、得られるまで呼び出しスレッドで待機します。
+     *
+     * @throws InterruptedException 待機中に割り込まれた場合
+     */
+    void acquireInterruptibly() throws InterruptedException {
+        CompletableFuture<Void> waiter = acquire();
+        try {
+            waiter.get();
+        } catch (InterruptedException e) {
+            if (!waiter.cancel(false)) {
+                // 割り込みと同時に実行枠を得ていた場合は返却する
+                release();
+            } else {
+                synchronized (lock) {
+                    waiters.remove(waiter);
+                }
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** 計測の開始時刻（ナノ秒）を返します。 */
+    long startTime() {
+        return nanoTime.getAsLong();
+    }
+
+    /**
+     * 実行枠を返却し、結果に応じて上限を調整します。
+     *
+     * @param endpoint レイテンシの基準値を分けるエンドポイント
+     * @param startNanos {@link #startTime()} で得た開始時刻
+     * @param outcome 結果
+     */
+    void release(String endpoint, long startNanos, Outcome outcome) {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (lock) {
+            if (outcome != Outcome.IGNORED) {
+                adjust(endpoint, startNanos, outcome);
+            }
+            releaseLocked(granted);
+        }
+        grant(granted);
+    }
+
+    /** 上限を調整せずに実行枠を返却します。 */
+    void release() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (lock) {
+            releaseLocked(granted);
+        }
+        grant(granted);
+    }
+
+    private void releaseLocked(List<CompletableFuture<Void>> granted) {
+        inFlight--;
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            CompletableFuture<Void> waiter = waiters.poll();
+            if (!waiter.isDone()) {
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+    }
+
+    // 待機していた呼び出しの後続処理をロックの外で実行する
+    private void grant(List<CompletableFuture<Void>> granted) {
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                release();
+            }
+        }
+    }
+
+    private void adjust(String endpoint, long startNanos, Outcome outcome) {
+        long now = nanoTime.getAsLong();
+        if (outcome == Outcome.SUCCESS) {
+            long latencyNanos = Math.max(1, now - startNanos);
+            long baselineNanos =
+                    baselines
+                            .computeIfAbsent(endpoint, key -> new LatencyWindow(baselineWindow))
+                            .add(latencyNanos);
+            if (latencyNanos <= baselineNanos * latencyTolerance) {
+                // 上限近くまで使っている場合だけ増やす（使われていない上限を増やし続けない）
+                if (inFlight * 2 >= (int) limit) {
+                    limit = Math.min(maxLimit, limit + 1.0);
+                }
+                return;
+            }
+        }
+        if (decreased && startNanos - decreasedAtNanos < 0) {
+            // 前回減らす前に送ったリクエストの結果は、その減少で既に反映済みとみなす
+            return;
+        }
+        limit = Math.max(minLimit, Math.floor(limit * backoffRatio));
+        decreased = true;
+        decreasedAtNanos = now;
+    }
+
+    /** 直近の観測値の最小値を求めるための固定長のリングバッファ。 */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        /**
+         * 観測値を追加し、窓から最も古い値を押し出します。
+         *
+         * @param latencyNanos 観測したレイテンシ
+         * @return 追加後の窓内の最小値
+         */
+        private long add(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, samples[i]);
+            }
+            return min;
+        }
+    }
+
+    /** リクエストの結果。 */
+    enum Outcome {
+        /** 正常に応答した。 */
+        SUCCESS,
+        /** 429 や 503、通信失敗など過負荷を示す結果。 */
+        OVERLOAD,
+        /** 上限の調整に用いない結果。 */
+        IGNORED
+    }
+
+    public static final class Builder {
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 64;
+        private double latencyTolerance = 2.0;
+        private double backoffRatio = 0.9;
+        private int baselineWindow = 100;
+        private LongSupplier nanoTime = System::nanoTime;
+
+        /**
+         * 上限の初期値を設定します。
+         *
+         * @param initialLimit 上限の初期値
+         * @return this
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * 上限の最小値を設定します。
+         *
+         * @param minLimit 上限の最小値
+         * @return this
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * 上限の最大値を設定します。
+         *
+         * @param maxLimit 上限の最大値
+         * @return this
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * 正常とみなすレイテンシの基準値に対する倍率を設定します。
+         *
+         * @param latencyTolerance レイテンシの基準値の何倍までを正常とみなすか
+         * @return this
+         */
+        public Builder latencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * 過負荷を観測した際に上限に掛ける比率を設定します。
+         *
+         * @param backoffRatio 過負荷を観測した際に上限に掛ける比率
+         * @return this
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * レイテンシの基準値を求める観測値の件数を設定します。
+         *
+         * @param baselineWindow エンドポイントごとに最小値をとる直近の正常な応答の件数
+         * @return this
+         */
+        public Builder baselineWindow(int baselineWindow) {
+            this.baselineWindow = baselineWindow;
+            return this;
+        }
+
+        Builder nanoTime(LongSupplier nanoTime) {
+            this.nanoTime = nanoTime;
+            return this;
+        }
+
+        public AdaptiveConcurrencyLimiter build() {
+            return new AdaptiveConcurrencyLimiter(this);
+        }
+    }
+}
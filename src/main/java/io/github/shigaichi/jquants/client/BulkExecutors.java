@@ -0,0 +1,34 @@
+package io.github.shigaichi.jquants.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 複数銘柄の一括取得で用いる Executor を生成します。
+ *
+ * <p>JDK 21 以降では META-INF/versions/21 の実装に置き換わり、仮想スレッドを用います。
+ */
+final class BulkExecutors {
+    private BulkExecutors() {}
+
+    /**
+     * 一括取得のタスクを実行する Executor を生成します。
+     *
+     * <p>スレッド数を parallelism に固定するため、この Executor だけで同時実行数が制限されます。呼び出し側の Semaphore は、
+     * スレッド数を制限しない JDK 21 以降の仮想スレッド版のためのものです。
+     *
+     * @param parallelism 同時に実行する最大数
+     * @return 呼び出し側で shutdown する Executor
+     */
+    static ExecutorService newExecutor(int parallelism) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(
+                parallelism,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "jquants-bulk-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
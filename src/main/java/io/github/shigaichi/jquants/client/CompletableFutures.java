@@ -0,0 +1,116 @@
+package io.github.shigaichi.jquants.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * cancel を元の Future に伝える CompletableFuture の合成。
+ *
+ * <p>CompletableFuture の thenCompose などで得た Future を cancel しても、元の Future は取り消されません。
+ * ここで合成した Future を cancel すると、その時点で待っている Future も cancel します。
+ */
+final class CompletableFutures {
+    private CompletableFutures() {}
+
+    /**
+     * dependent が cancel された場合に source も cancel します。
+     *
+     * @param dependent source から派生した Future
+     * @param source 取り消す Future
+     * @return dependent
+     */
+    static <T> CompletableFuture<T> propagateCancel(
+            CompletableFuture<T> dependent, Future<?> source) {
+        onComplete(
+                dependent,
+                (result, error) -> {
+                    if (dependent.isCancelled()) {
+                        source.cancel(true);
+                    }
+                });
+        return dependent;
+    }
+
+    /**
+     * source が正常に完了した場合に fn の Future の結果で完了する Future を返します。
+     *
+     * @param source 元の Future
+     * @param fn source の結果から次の Future を得る関数
+     * @return 返した Future を cancel すると、source または fn の Future のうち待っている方も cancel します
+     */
+    static <T, U> CompletableFuture<U> thenCompose(
+            CompletableFuture<T> source, Function<? super T, CompletableFuture<U>> fn) {
+        return handleCompose(
+                source,
+                (result, error) ->
+                        error == null ? fn.apply(result) : CompletableFuture.failedFuture(error));
+    }
+
+    /**
+     * source の完了後に fn の Future の結果で完了する Future を返します。
+     *
+     * <p>返した Future が cancel 済みでも fn は呼び出し、得た Future を直ちに cancel します。fn の中で確保した資源は
+     * fn の Future の完了時に解放してください。
+     *
+     * @param source 元の Future
+     * @param fn source の結果または例外から次の Future を得る関数
+     * @return 返した Future を cancel すると、source または fn の Future のうち待っている方も cancel します
+     */
+    static <T, U> CompletableFuture<U> handleCompose(
+            CompletableFuture<T> source,
+            BiFunction<? super T, Throwable, CompletableFuture<U>> fn) {
+        CompletableFuture<U> composed = new CompletableFuture<>();
+        AtomicReference<Future<?>> waiting = new AtomicReference<>(source);
+        onComplete(
+                composed,
+                (value, failure) -> {
+                    if (composed.isCancelled()) {
+                        waiting.get().cancel(true);
+                    }
+                });
+        onComplete(
+                source,
+                (result, error) -> {
+                    CompletableFuture<U> next;
+                    try {
+                        next = fn.apply(result, error);
+                    } catch (RuntimeException e) {
+                        composed.completeExceptionally(e);
+                        return;
+                    }
+                    waiting.set(next);
+                    if (composed.isCancelled()) {
+                        next.cancel(true);
+                    }
+                    onComplete(
+                            next,
+                            (value, failure) -> {
+                                if (failure != null) {
+                                    composed.completeExceptionally(failure);
+                                } else {
+                                    composed.complete(value);
+                                }
+                            });
+                });
+        return composed;
+    }
+
+    /**
+     * future の完了時に action を呼び出します。
+     *
+     * <p>whenComplete と異なり Future を返しません。action の結果は action 自身が他の Future の完了や状態の更新で伝えるため、
+     * whenComplete が返す Future を待つ必要がない場合に用います。
+     *
+     * @param future 完了を待つ Future
+     * @param action future の結果または例外を受け取る処理
+     */
+    @SuppressWarnings("FutureReturnValueIgnored")
+    static <T> void onComplete(
+            CompletableFuture<T> future, BiConsumer<? super T, ? super Throwable> action) {
+        future.whenComplete(action);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.AdaptiveConcurrencyLimiter.Outcome;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link AdaptiveConcurrencyLimiter} の上限を超えないよう同時実行数を制限する HttpRequestExecutor。
+ *
+ * <p>レイテンシはレスポンスヘッダを受信するまでの時間で計測します。sendStreaming のボディの読み込みは計測に含みません。
+ */
+final class ConcurrencyLimitingRequestExecutor implements HttpRequestExecutor {
+    private final HttpRequestExecutor delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    ConcurrencyLimitingRequestExecutor(
+            HttpRequestExecutor delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.limiter = Objects.requireNonNull(limiter, "limiter");
+    }
+
+    @Override
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return sendLimited(request, delegate::send);
+    }
+
+    @Override
+    public HttpResponse<InputStream> sendStreaming(HttpRequest request)
+            throws IOException, InterruptedException {
+        return sendLimited(request, delegate::sendStreaming);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        return CompletableFutures.thenCompose(
+                limiter.acquire(),
+                granted -> {
+                    long start = limiter.startTime();
+                    CompletableFuture<HttpResponse<String>> response;
+                    try {
+                        response = delegate.sendAsync(request);
+                    } catch (RuntimeException e) {
+                        limiter.release();
+                        throw e;
+                    }
+                    return CompletableFutures.propagateCancel(
+                            response.whenComplete(
+                                    (result, error) ->
+                                            limiter.release(
+                                                    endpointOf(request),
+                                                    start,
+                                                    outcomeOf(result, error))),
+                            response);
+                });
+    }
+
+    private <T> HttpResponse<T> sendLimited(HttpRequest request, Sender<T> sender)
+            throws IOException, InterruptedException {
+        limiter.acquireInterruptibly();
+        long start = limiter.startTime();
+        Outcome outcome = Outcome.IGNORED;
+        try {
+            HttpResponse<T> response = sender.send(request);
+            outcome = outcomeOf(response, null);
+            return response;
+        } catch (IOException e) {
+            outcome = Outcome.OVERLOAD;
+            throw e;
+        } finally {
+            limiter.release(endpointOf(request), start, outcome);
+        }
+    }
+
+    // レイテンシの基準値はパスごとに分ける（クエリ文字列は含めない）
+    private static String endpointOf(HttpRequest request) {
+        return request.uri().getPath();
+    }
+
+    private static Outcome outcomeOf(HttpResponse<?> response, Throwable error) {
+        if (error != null) {
+            return error instanceof IOException || error.getCause() instanceof IOException
+                    ? Outcome.OVERLOAD
+                    : Outcome.IGNORED;
+        }
+        int statusCode = response.statusCode();
+        return statusCode == 429 || statusCode == 503 ? Outcome.OVERLOAD : Outcome.SUCCESS;
+    }
+
+    @FunctionalInterface
+    private interface Sender<T> {
+        HttpResponse<T> send(HttpRequest request) throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.shigaichi.jquants.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.net.http.HttpHeaders;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-Encoding が gzip または deflate のレスポンスボディを展開します。
+ */
+final class ContentDecoding {
+    /** リクエストに付与する Accept-Encoding ヘッダの値。 */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentDecoding() {}
+
+    /**
+     * 展開に対応している Content-Encoding（小文字）を返します。
+     *
+     * @param headers レスポンスヘッダ
+     * @return 展開に対応している Content-Encoding（小文字）。圧縮されていないか未対応の場合は null
+     */
+    static String supportedEncoding(HttpHeaders headers) {
+        String encoding =
+                headers.firstValue("Content-Encoding")
+                        .map(value -> value.strip().toLowerCase(Locale.ROOT))
+                        .orElse("");
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+            case "deflate":
+                return encoding;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Content-Type の charset を返します。
+     *
+     * @param headers レスポンスヘッダ
+     * @return Content-Type の charset。指定がないか解釈できない場合は UTF-8
+     */
+    static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";", -1)) {
+            String[] pair = parameter.strip().split("=", 2);
+            if (pair.length == 2 && pair[0].strip().equalsIgnoreCase("charset")) {
+                try {
+                    return Charset.forName(pair[1].strip().replace("\"", ""));
+                } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 圧縮されたボディを読みながら展開する InputStream を返します。close すると in も close します。
+     *
+     * <p>deflate は zlib 形式を想定し、zlib ヘッダがない場合は raw deflate として展開します。ボディが空の場合は展開せずに空のまま返します。
+     *
+     * @param in 圧縮されたボディ
+     * @param encoding {@link #supportedEncoding(HttpHeaders)} が返した Content-Encoding
+     * @return 展開したボディ
+     * @throws IOException gzip ヘッダの読み込みに失敗した場合
+     */
+    static InputStream decode(InputStream in, String encoding) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[] header = new byte[2];
+        int read = pushback.readNBytes(header, 0, 2);
+        if (read == 0) {
+            // 204 や空のエラー応答には Content-Encoding が付いていても展開するデータがない
+            return pushback;
+        }
+        pushback.unread(header, 0, read);
+        if (!encoding.equals("deflate")) {
+            return new GZIPInputStream(pushback, BUFFER_SIZE);
+        }
+        boolean zlib =
+                read == 2
+                        && (header[0] & 0x0f) == 8
+                        && (((header[0] & 0xff) << 8) | (header[1] & 0xff)) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(pushback, inflater, BUFFER_SIZE) {
+            private boolean ended;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!ended) {
+                        ended = true;
+                        inflater.end();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * 圧縮されたボディを展開しながら文字列に変換します。展開後のバイト列全体は保持しません。
+     *
+     * @param body 圧縮されたボディ
+     * @param encoding {@link #supportedEncoding(HttpHeaders)} が返した Content-Encoding
+     * @param charset 展開後のボディの文字コード
+     * @param decompressedBytes 展開後のバイト数を受け取る処理
+     * @return 展開したボディ
+     * @throws IOException 展開に失敗した場合
+     */
+    static String decodeToString(
+            byte[] body, String encoding, Charset charset, LongConsumer decompressedBytes)
+            throws IOException {
+        InputStream decoded =
+                new CountingInputStream(
+                        decode(new ByteArrayInputStream(body), encoding), decompressedBytes);
+        StringBuilder text = new StringBuilder(body.length * 2);
+        char[] buffer = new char[BUFFER_SIZE];
+        try (Reader reader = new InputStreamReader(decoded, charset)) {
+            for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer)) {
+                text.append(buffer, 0, read);
+            }
+        }
+        return text.toString();
+    }
+}
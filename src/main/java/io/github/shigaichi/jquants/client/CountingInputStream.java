@@ -0,0 +1,62 @@
+package io.github.shigaichi.jquants.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * 読み込んだバイト数を数え、最初の close 時に onClose へ渡す InputStream。
+ */
+final class CountingInputStream extends FilterInputStream {
+    private final LongConsumer onClose;
+    private long bytesRead;
+    private boolean closed;
+
+    CountingInputStream(InputStream in, LongConsumer onClose) {
+        super(in);
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            bytesRead++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            bytesRead += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        bytesRead += Math.max(0, skipped);
+        return skipped;
+    }
+
+    /** これまでに読み込んだバイト数を返します。 */
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (!closed) {
+                closed = true;
+                onClose.accept(bytesRead);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.shigaichi.jquants.client;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import javax.net.ssl.SSLSession;
+
+/**
+ * 圧縮されて届いたボディを展開したレスポンスと、展開前後のバイト数を保持します。
+ *
+ * <p>ボディを InputStream で受け取る場合、バイト数はそれまでに読み込んだ分です。
+ *
+ * @param <T> ボディの型
+ */
+final class DecompressedHttpResponse<T> implements HttpResponse<T> {
+    private final HttpResponse<?> delegate;
+    private final T body;
+    private final String contentEncoding;
+    private final LongSupplier compressedBytes;
+    private final LongSupplier decompressedBytes;
+
+    private DecompressedHttpResponse(
+            HttpResponse<?> delegate,
+            T body,
+            String contentEncoding,
+            LongSupplier compressedBytes,
+            LongSupplier decompressedBytes) {
+        this.delegate = delegate;
+        this.body = body;
+        this.contentEncoding = contentEncoding;
+        this.compressedBytes = compressedBytes;
+        this.decompressedBytes = decompressedBytes;
+    }
+
+    /**
+     * 展開したボディと展開前後のバイト数を保持するレスポンスを返します。
+     *
+     * @param response 元のレスポンス。ボディ以外はこのレスポンスに委譲します
+     * @param body 展開したボディ
+     * @param contentEncoding Content-Encoding
+     * @param compressedBytes 受信した（展開前の）バイト数
+     * @param decompressedBytes 展開後のバイト数
+     * @return レスポンス
+     */
+    static <T> DecompressedHttpResponse<T> of(
+            HttpResponse<?> response,
+            T body,
+            String contentEncoding,
+            LongSupplier compressedBytes,
+            LongSupplier decompressedBytes) {
+        return new DecompressedHttpResponse<>(
+                response, body, contentEncoding, compressedBytes, decompressedBytes);
+    }
+
+    /**
+     * ボディだけを差し替え、展開前後のバイト数は引き継いだレスポンスを返します。
+     *
+     * @param body 差し替えるボディ
+     * @param <U> 差し替えるボディの型
+     * @return ボディだけを差し替え、展開前後のバイト数は引き継いだレスポンス
+     */
+    <U> DecompressedHttpResponse<U> withBody(U body) {
+        return new DecompressedHttpResponse<>(
+                delegate, body, contentEncoding, compressedBytes, decompressedBytes);
+    }
+
+    /** Content-Encoding（小文字）を返します。 */
+    String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /** 受信した（展開前の）バイト数を返します。 */
+    long getCompressedBytes() {
+        return compressedBytes.getAsLong();
+    }
+
+    /** 展開後のバイト数を返します。 */
+    long getDecompressedBytes() {
+        return decompressedBytes.getAsLong();
+    }
+
+    @Override
+    public int statusCode() {
+        return delegate.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return delegate.request();
+    }
+
+    /**
+     * リダイレクト前のレスポンスはボディの型が異なるため返しません。
+     *
+     * @return empty
+     */
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return delegate.headers();
+    }
+
+    @Override
+    public T body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return delegate.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return delegate.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return delegate.version();
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.shigaichi.jquants.client;
+
+import java.net.URI;
+
+/**
+ * リクエストの URI からベース URL のパスを取り除き、メトリクスのエンドポイント名（例: {@code /listed/info}）を求めます。
+ */
+final class EndpointResolver {
+    private final String basePath;
+
+    EndpointResolver(URI baseUri) {
+        String path = baseUri.getPath();
+        if (path == null || path.isEmpty()) {
+            this.basePath = "/";
+        } else {
+            this.basePath = path.endsWith("/") ? path : path + "/";
+        }
+    }
+
+    /**
+     * リクエストの URI に対応するエンドポイント名を返します。
+     *
+     * @param uri リクエストの URI
+     * @return エンドポイント名。ベース URL の配下でない場合はパス全体
+     */
+    String resolve(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return path.startsWith(basePath) ? path.substring(basePath.length() - 1) : path;
+    }
+}
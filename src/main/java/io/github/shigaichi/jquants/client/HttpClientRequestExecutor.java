@@ -1,19 +1,273 @@
 package io.github.shigaichi.jquants.client;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * HttpClient でリクエストを送信する HttpRequestExecutor。
+ *
+ * <p>送信ごとに {@link JQuantsRequestEvent} を記録します。JFR の記録が無効な場合、イベントの項目は設定しません。
+ *
+ * <p>圧縮を有効にした場合は {@code Accept-Encoding: gzip, deflate} を付与し、圧縮されたボディを展開して返します。
+ * 文字列のボディは受信した圧縮済みのバイト列を展開しながら文字列に変換し、InputStream のボディは読み込みながら展開します。
+ * 展開したレスポンスは展開前後のバイト数を保持する {@link DecompressedHttpResponse} で返します。
+ */
 final class HttpClientRequestExecutor implements HttpRequestExecutor {
     private final HttpClient httpClient;
+    private final boolean compression;
 
     HttpClientRequestExecutor(HttpClient httpClient) {
+        this(httpClient, true);
+    }
+
+    /**
+     * 圧縮されたレスポンスを受け付けるかどうかを指定して生成します。
+     *
+     * @param httpClient 送信に用いる HttpClient
+     * @param compression gzip/deflate で圧縮されたレスポンスを受け付ける場合は true
+     */
+    HttpClientRequestExecutor(HttpClient httpClient, boolean compression) {
         this.httpClient = httpClient;
+        this.compression = compression;
     }
 
     @Override
     public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
-        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        JQuantsRequestEvent event = new JQuantsRequestEvent();
+        event.begin();
+        StringBodyDecoder decoder = new StringBodyDecoder();
+        HttpResponse<String> response;
+        try {
+            response = decoder.wrap(httpClient.send(prepare(request), decoder::subscriber));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            event.complete(request, 0, 0, null, 0, e);
+            throw e;
+        }
+        complete(event, request, response);
+        return response;
+    }
+
+    @Override
+    public HttpResponse<InputStream> sendStreaming(HttpRequest request)
+            throws IOException, InterruptedException {
+        JQuantsRequestEvent event = new JQuantsRequestEvent();
+        event.begin();
+        HttpResponse<InputStream> raw;
+        DecompressedHttpResponse<InputStream> decompressed;
+        try {
+            raw = httpClient.send(prepare(request), HttpResponse.BodyHandlers.ofInputStream());
+            decompressed = decompress(raw);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            event.complete(request, 0, 0, null, 0, e);
+            throw e;
+        }
+        if (!event.isEnabled()) {
+            return decompressed == null ? raw : decompressed;
+        }
+        int statusCode = raw.statusCode();
+        CountingInputStream body =
+                new CountingInputStream(
+                        decompressed == null ? raw.body() : decompressed.body(),
+                        bytesRead ->
+                                event.complete(
+                                        request,
+                                        statusCode,
+                                        decompressed == null
+                                                ? bytesRead
+                                                : decompressed.getCompressedBytes(),
+                                        decompressed == null
+                                                ? null
+                                                : decompressed.getContentEncoding(),
+                                        bytesRead,
+                                        null));
+        return decompressed == null
+                ? InputStreamResponse.withBody(raw, body)
+                : decompressed.withBody(body);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        JQuantsRequestEvent event = new JQuantsRequestEvent();
+        event.begin();
+        StringBodyDecoder decoder = new StringBodyDecoder();
+        CompletableFuture<HttpResponse<String>> sending =
+                httpClient.sendAsync(prepare(request), decoder::subscriber);
+        return CompletableFutures.propagateCancel(
+                sending.thenApply(decoder::wrap)
+                        .whenComplete(
+                                (response, error) -> {
+                                    if (error != null) {
+                                        event.complete(request, 0, 0, null, 0, error);
+                                    } else {
+                                        complete(event, request, response);
+                                    }
+                                }),
+                sending);
+    }
+
+    private HttpRequest prepare(HttpRequest request) {
+        if (!compression || request.headers().firstValue("Accept-Encoding").isPresent()) {
+            return request;
+        }
+        HttpRequest.Builder builder =
+                HttpRequest.newBuilder(request.uri())
+                        .method(
+                                request.method(),
+                                request.bodyPublisher()
+                                        .orElseGet(HttpRequest.BodyPublishers::noBody))
+                        .expectContinue(request.expectContinue());
+        request.timeout().ifPresent(builder::timeout);
+        request.version().ifPresent(builder::version);
+        request.headers()
+                .map()
+                .forEach((name, values) -> values.forEach(v -> builder.header(name, v)));
+        return builder.header("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING).build();
+    }
+
+    /**
+     * 圧縮されたボディを読み込みながら展開するレスポンスを返します。
+     *
+     * @param response ボディを InputStream で保持するレスポンス
+     * @return 読み込みながら展開するレスポンス。圧縮されていない場合は null
+     */
+    private static DecompressedHttpResponse<InputStream> decompress(
+            HttpResponse<InputStream> response) throws IOException {
+        String encoding = ContentDecoding.supportedEncoding(response.headers());
+        if (encoding == null) {
+            return null;
+        }
+        CountingInputStream compressed = new CountingInputStream(response.body(), bytes -> {});
+        CountingInputStream decompressed;
+        try {
+            decompressed =
+                    new CountingInputStream(
+                            ContentDecoding.decode(compressed, encoding), bytes -> {});
+        } catch (IOException | RuntimeException e) {
+            compressed.close();
+            throw e;
+        }
+        return DecompressedHttpResponse.of(
+                response,
+                decompressed,
+                encoding,
+                compressed::getBytesRead,
+                decompressed::getBytesRead);
+    }
+
+    private static void complete(
+            JQuantsRequestEvent event, HttpRequest request, HttpResponse<String> response) {
+        if (!event.isEnabled()) {
+            return;
+        }
+        if (response instanceof DecompressedHttpResponse) {
+            DecompressedHttpResponse<?> decompressed = (DecompressedHttpResponse<?>) response;
+            event.complete(
+                    request,
+                    response.statusCode(),
+                    decompressed.getCompressedBytes(),
+                    decompressed.getContentEncoding(),
+                    decompressed.getDecompressedBytes(),
+                    null);
+        } else {
+            long length = bodyLength(response);
+            event.complete(request, response.statusCode(), length, null, length, null);
+        }
+    }
+
+    /**
+     * 受信したボディのバイト数を返します。
+     *
+     * @param response レスポンス
+     * @return 展開したレスポンスの場合は展開前のバイト数。それ以外は Content-Length ヘッダの値、ない場合はボディを UTF-8
+     *     で符号化したバイト数
+     */
+    static long bodyLength(HttpResponse<String> response) {
+        if (response instanceof DecompressedHttpResponse) {
+            return ((DecompressedHttpResponse<?>) response).getCompressedBytes();
+        }
+        OptionalLong contentLength = response.headers().firstValueAsLong("Content-Length");
+        if (contentLength.isPresent()) {
+            return contentLength.getAsLong();
+        }
+        String body = response.body();
+        return body == null ? 0 : utf8Length(body);
+    }
+
+    static long utf8Length(CharSequence value) {
+        long length = 0;
+        int size = value.length();
+        for (int i = 0; i < size; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < size
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 1 回の送信で用いる文字列ボディのハンドラ。圧縮されている場合は受信したバイト列を展開しながら文字列に変換し、展開前後のバイト数を保持します。
+     */
+    private static final class StringBodyDecoder {
+        private volatile String encoding;
+        private volatile long compressedBytes;
+        private volatile long decompressedBytes;
+
+        HttpResponse.BodySubscriber<String> subscriber(HttpResponse.ResponseInfo info) {
+            Charset charset = ContentDecoding.charsetOf(info.headers());
+            String contentEncoding = ContentDecoding.supportedEncoding(info.headers());
+            if (contentEncoding == null) {
+                return HttpResponse.BodySubscribers.ofString(charset);
+            }
+            return HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofByteArray(),
+                    body -> {
+                        String decoded;
+                        try {
+                            decoded =
+                                    ContentDecoding.decodeToString(
+                                            body,
+                                            contentEncoding,
+                                            charset,
+                                            bytes -> decompressedBytes = bytes);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        compressedBytes = body.length;
+                        encoding = contentEncoding;
+                        return decoded;
+                    });
+        }
+
+        HttpResponse<String> wrap(HttpResponse<String> response) {
+            String contentEncoding = encoding;
+            if (contentEncoding == null) {
+                return response;
+            }
+            long compressed = compressedBytes;
+            long decompressed = decompressedBytes;
+            return DecompressedHttpResponse.of(
+                    response,
+                    response.body(),
+                    contentEncoding,
+                    () -> compressed,
+                    () -> decompressed);
+        }
     }
 }
@@ -1,9 +1,30 @@
 package io.github.shigaichi.jquants.client;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
 
 interface HttpRequestExecutor {
     HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException;
+
+    /**
+     * レスポンスボディを文字列にバッファせず、InputStream のまま返します。
+     *
+     * @param request 送信するリクエスト
+     * @return ボディを InputStream で保持するレスポンス。呼び出し側で close してください。
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    HttpResponse<InputStream> sendStreaming(HttpRequest request)
+            throws IOException, InterruptedException;
+
+    /**
+     * リクエストを非同期に送信します。呼び出しスレッドはブロックしません。
+     *
+     * @param request 送信するリクエスト
+     * @return レスポンスを返す Future
+     */
+    CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request);
 }
@@ -0,0 +1,75 @@
+package io.github.shigaichi.jquants.client;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import javax.net.ssl.SSLSession;
+
+/**
+ * ボディの InputStream だけを差し替えたレスポンス。
+ */
+final class InputStreamResponse implements HttpResponse<InputStream> {
+    private final HttpResponse<InputStream> delegate;
+    private final InputStream body;
+
+    private InputStreamResponse(HttpResponse<InputStream> delegate, InputStream body) {
+        this.delegate = delegate;
+        this.body = body;
+    }
+
+    /**
+     * response のボディだけを差し替えたレスポンスを返します。
+     *
+     * @param response 元のレスポンス
+     * @param body 差し替えるボディ
+     * @return ボディ以外を response に委譲するレスポンス
+     */
+    static HttpResponse<InputStream> withBody(
+            HttpResponse<InputStream> response, InputStream body) {
+        return new InputStreamResponse(response, body);
+    }
+
+    @Override
+    public int statusCode() {
+        return delegate.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return delegate.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<InputStream>> previousResponse() {
+        return delegate.previousResponse();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return delegate.headers();
+    }
+
+    @Override
+    public InputStream body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return delegate.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return delegate.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return delegate.version();
+    }
+}
@@ -9,8 +9,16 @@ import lombok.Getter;
 public class JQuantsApiException extends RuntimeException {
     private final int statusCode;
 
+    /** このエラー応答を受け取るまでに再試行した回数。 */
+    private final int retryCount;
+
     public JQuantsApiException(String message, int statusCode) {
+        this(message, statusCode, 0);
+    }
+
+    public JQuantsApiException(String message, int statusCode, int retryCount) {
         super(message);
         this.statusCode = statusCode;
+        this.retryCount = retryCount;
     }
 }
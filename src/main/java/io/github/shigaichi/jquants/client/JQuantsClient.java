@@ -1,23 +1,59 @@
 package io.github.shigaichi.jquants.client;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoBulkResult;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoChange;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoDiff;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoHistory;
 import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
 import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import io.github.shigaichi.jquants.client.metrics.JQuantsMetrics;
+import io.github.shigaichi.jquants.client.token.IdTokenProvider;
 import io.github.shigaichi.jquants.client.token.IdTokenResponse;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -27,23 +63,133 @@ public class JQuantsClient {
     public static final String DEFAULT_BASE_URL = "https://api.jquants.com/v1";
     public static final URI DEFAULT_BASE_URI = URI.create(DEFAULT_BASE_URL);
 
-    private final String idToken;
+    /** {@link #getListedInfo(Collection, String)} の同時実行数の既定値。 */
+    public static final int DEFAULT_BULK_PARALLELISM = 8;
+
+    private final IdTokenProvider tokenProvider;
     private final URI baseUri;
     private final HttpRequestExecutor requestExecutor;
+    private final Executor decodeExecutor;
+    private final ListedInfoCache listedInfoCache;
+    private final JQuantsMetrics metrics;
+    private final ConcurrentMap<ListedInfoQuery, CompletableFuture<ListedInfoResponse>>
+            inFlightListedInfo = new ConcurrentHashMap<>();
+    private static final String LISTED_INFO_ENDPOINT = "/listed/info";
+    private static final String AUTH_USER_ENDPOINT = "/token/auth_user";
+    private static final String AUTH_REFRESH_ENDPOINT = "/token/auth_refresh";
     private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+    private static final ObjectReader LISTED_INFO_READER =
+            OBJECT_MAPPER.readerFor(ListedInfo.class);
 
     public JQuantsClient(String idToken) {
-        this(idToken, HttpClient.newHttpClient(), DEFAULT_BASE_URI);
+        this(idToken, DefaultHttpClient.INSTANCE, DEFAULT_BASE_URI);
     }
 
     public JQuantsClient(String idToken, HttpClient httpClient, URI baseUri) {
-        this(idToken, baseUri, new HttpClientRequestExecutor(httpClient));
+        this(idToken, httpClient, baseUri, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 非同期 API の JSON デコードを実行する Executor を指定してクライアントを生成します。
+     *
+     * @param idToken ID トークン
+     * @param httpClient 送信に用いる HttpClient
+     * @param baseUri API ベース URL
+     * @param decodeExecutor 非同期レスポンスのデコードを実行する Executor
+     */
+    public JQuantsClient(
+            String idToken, HttpClient httpClient, URI baseUri, Executor decodeExecutor) {
+        this(idToken, baseUri, new HttpClientRequestExecutor(httpClient), decodeExecutor);
+    }
+
+    /**
+     * ID トークンの取得と更新をプロバイダに委ねるクライアントを生成します。
+     *
+     * <p>API が 401 を返した場合はプロバイダから新しい ID トークンを受け取り、1 回だけ再試行します。
+     *
+     * @param tokenProvider ID トークンのプロバイダ
+     * @param httpClient 送信に用いる HttpClient
+     * @param baseUri API ベース URL
+     */
+    public JQuantsClient(IdTokenProvider tokenProvider, HttpClient httpClient, URI baseUri) {
+        this(tokenProvider, httpClient, baseUri, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ID トークンの取得と更新をプロバイダに委ね、非同期 API のデコードを実行する Executor を指定してクライアントを生成します。
+     *
+     * @param tokenProvider ID トークンのプロバイダ
+     * @param httpClient 送信に用いる HttpClient
+     * @param baseUri API ベース URL
+     * @param decodeExecutor 非同期レスポンスのデコードを実行する Executor
+     */
+    public JQuantsClient(
+            IdTokenProvider tokenProvider,
+            HttpClient httpClient,
+            URI baseUri,
+            Executor decodeExecutor) {
+        this(tokenProvider, baseUri, new HttpClientRequestExecutor(httpClient), decodeExecutor);
     }
 
     JQuantsClient(String idToken, URI baseUri, HttpRequestExecutor requestExecutor) {
-        this.idToken = requireNonEmpty(idToken, "idToken");
+        this(idToken, baseUri, requestExecutor, ForkJoinPool.commonPool());
+    }
+
+    JQuantsClient(
+            String idToken,
+            URI baseUri,
+            HttpRequestExecutor requestExecutor,
+            Executor decodeExecutor) {
+        this(
+                IdTokenProvider.of(requireNonEmpty(idToken, "idToken")),
+                baseUri,
+                requestExecutor,
+                decodeExecutor);
+    }
+
+    JQuantsClient(
+            IdTokenProvider tokenProvider,
+            URI baseUri,
+            HttpRequestExecutor requestExecutor,
+            Executor decodeExecutor) {
+        this(tokenProvider, baseUri, requestExecutor, decodeExecutor, null);
+    }
+
+    /**
+     * @param listedInfoCache /listed/info のキャッシュ。null の場合はキャッシュしない
+     */
+    JQuantsClient(
+            IdTokenProvider tokenProvider,
+            URI baseUri,
+            HttpRequestExecutor requestExecutor,
+            Executor decodeExecutor,
+            ListedInfoCache listedInfoCache) {
+        this(
+                tokenProvider,
+                baseUri,
+                requestExecutor,
+                decodeExecutor,
+                listedInfoCache,
+                JQuantsMetrics.NOOP);
+    }
+
+    /**
+     * @param listedInfoCache /listed/info のキャッシュ。null の場合はキャッシュしない
+     * @param metrics デコード時間とキャッシュの参照結果の通知先
+     */
+    JQuantsClient(
+            IdTokenProvider tokenProvider,
+            URI baseUri,
+            HttpRequestExecutor requestExecutor,
+            Executor decodeExecutor,
+            ListedInfoCache listedInfoCache,
+            JQuantsMetrics metrics) {
+        this.tokenProvider = Objects.requireNonNull(tokenProvider, "tokenProvider");
         this.baseUri = normalizeBaseUri(baseUri);
         this.requestExecutor = Objects.requireNonNull(requestExecutor, "requestExecutor");
+        this.decodeExecutor = Objects.requireNonNull(decodeExecutor, "decodeExecutor");
+        this.listedInfoCache = listedInfoCache;
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
     }
 
     /**
@@ -75,53 +221,104 @@ public class JQuantsClient {
     public static IdTokenResponse authenticateUser(String mailAddress, String password, URI baseUri)
             throws IOException, InterruptedException {
         HttpRequestExecutor requestExecutor =
-                new HttpClientRequestExecutor(HttpClient.newHttpClient());
+                new HttpClientRequestExecutor(DefaultHttpClient.INSTANCE);
         return authenticateUser(mailAddress, password, baseUri, requestExecutor);
     }
 
     static IdTokenResponse authenticateUser(
             String mailAddress, String password, URI baseUri, HttpRequestExecutor requestExecutor)
             throws IOException, InterruptedException {
-        String validatedMailAddress = requireNonEmpty(mailAddress, "mailaddress");
-        String validatedPassword = requireNonEmpty(password, "password");
         Objects.requireNonNull(requestExecutor, "requestExecutor");
         URI normalizedBaseUri = normalizeBaseUri(baseUri);
+        HttpRequest request = buildAuthUserRequest(mailAddress, password, normalizedBaseUri);
 
-        URI uri = buildUri(normalizedBaseUri, "token/auth_user");
-        Map<String, String> requestBody = new LinkedHashMap<>();
-        requestBody.put("mailaddress", validatedMailAddress);
-        requestBody.put("password", validatedPassword);
-        String body = OBJECT_MAPPER.writeValueAsString(requestBody);
-
-        HttpRequest request =
-                HttpRequest.newBuilder()
-                        .uri(uri)
-                        .POST(HttpRequest.BodyPublishers.ofString(body))
-                        .header("Content-Type", "application/json")
-                        .build();
-
-        HttpResponse<String> response = requestExecutor.send(request);
-        if (response.statusCode() != 200) {
-            throw buildException(response);
+        JQuantsTokenRefreshEvent event = new JQuantsTokenRefreshEvent();
+        event.begin();
+        IdTokenResponse tokenResponse;
+        try {
+            tokenResponse = decodeAuthUserResponse(requestExecutor.send(request));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            event.complete(AUTH_USER_ENDPOINT, e);
+            throw e;
         }
-
-        IdTokenResponse tokenResponse =
-                OBJECT_MAPPER.readValue(response.body(), IdTokenResponse.class);
-        String issuedIdToken = tokenResponse.getIdToken();
-        String refreshToken = tokenResponse.getRefreshToken();
-
-        if (StringUtils.isBlank(issuedIdToken)) {
-            if (StringUtils.isBlank(refreshToken)) {
-                throw new JQuantsApiException("IDトークンの取得に失敗しました。", response.statusCode());
-            }
-            String renewedToken = refreshIdToken(refreshToken, normalizedBaseUri, requestExecutor);
+        event.complete(AUTH_USER_ENDPOINT, null);
+        if (StringUtils.isBlank(tokenResponse.getIdToken())) {
+            String renewedToken =
+                    refreshIdToken(
+                            tokenResponse.getRefreshToken(), normalizedBaseUri, requestExecutor);
             tokenResponse.setIdToken(renewedToken);
         }
+        return tokenResponse;
+    }
 
-        if (StringUtils.isBlank(tokenResponse.getRefreshToken())) {
-            throw new JQuantsApiException("リフレッシュトークンの取得に失敗しました。", response.statusCode());
+    /**
+     * メールアドレスとパスワードを用いて ID トークンとリフレッシュトークンを非同期に取得します。
+     *
+     * @param mailAddress 登録メールアドレス
+     * @param password パスワード
+     * @return 取得したトークンを返す Future。API エラー時は {@link JQuantsApiException} で完了します。
+     */
+    public static CompletableFuture<IdTokenResponse> authenticateUserAsync(
+            String mailAddress, String password) {
+        return authenticateUserAsync(mailAddress, password, DEFAULT_BASE_URI);
+    }
+
+    /**
+     * メールアドレスとパスワードを用いて ID トークンとリフレッシュトークンを非同期に取得します（ベースURLを変更したい場合）。
+     *
+     * @param mailAddress 登録メールアドレス
+     * @param password パスワード
+     * @param baseUri API ベース URL
+     * @return 取得したトークンを返す Future。API エラー時は {@link JQuantsApiException} で完了します。
+     */
+    public static CompletableFuture<IdTokenResponse> authenticateUserAsync(
+            String mailAddress, String password, URI baseUri) {
+        HttpRequestExecutor requestExecutor =
+                new HttpClientRequestExecutor(DefaultHttpClient.INSTANCE);
+        return authenticateUserAsync(
+                mailAddress, password, baseUri, requestExecutor, ForkJoinPool.commonPool());
+    }
+
+    static CompletableFuture<IdTokenResponse> authenticateUserAsync(
+            String mailAddress,
+            String password,
+            URI baseUri,
+            HttpRequestExecutor requestExecutor,
+            Executor decodeExecutor) {
+        Objects.requireNonNull(requestExecutor, "requestExecutor");
+        Objects.requireNonNull(decodeExecutor, "decodeExecutor");
+        URI normalizedBaseUri = normalizeBaseUri(baseUri);
+        HttpRequest request;
+        try {
+            request = buildAuthUserRequest(mailAddress, password, normalizedBaseUri);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return tokenResponse;
+
+        JQuantsTokenRefreshEvent event = new JQuantsTokenRefreshEvent();
+        event.begin();
+        return sendAsync(
+                        requestExecutor,
+                        request,
+                        JQuantsClient::decodeAuthUserResponse,
+                        decodeExecutor)
+                .whenComplete((tokenResponse, error) -> event.complete(AUTH_USER_ENDPOINT, error))
+                .thenCompose(
+                        tokenResponse -> {
+                            if (StringUtils.isNotBlank(tokenResponse.getIdToken())) {
+                                return CompletableFuture.completedFuture(tokenResponse);
+                            }
+                            return refreshIdTokenAsync(
+                                            tokenResponse.getRefreshToken(),
+                                            normalizedBaseUri,
+                                            requestExecutor,
+                                            decodeExecutor)
+                                    .thenApply(
+                                            renewedToken -> {
+                                                tokenResponse.setIdToken(renewedToken);
+                                                return tokenResponse;
+                                            });
+                        });
     }
 
     /**
@@ -151,37 +348,74 @@ public class JQuantsClient {
     public static String refreshIdToken(String refreshToken, URI baseUri)
             throws IOException, InterruptedException {
         HttpRequestExecutor requestExecutor =
-                new HttpClientRequestExecutor(HttpClient.newHttpClient());
+                new HttpClientRequestExecutor(DefaultHttpClient.INSTANCE);
         return refreshIdToken(refreshToken, baseUri, requestExecutor);
     }
 
     static String refreshIdToken(
             String refreshToken, URI baseUri, HttpRequestExecutor requestExecutor)
             throws IOException, InterruptedException {
-        String validatedToken = requireNonEmpty(refreshToken, "refreshtoken");
         Objects.requireNonNull(requestExecutor, "requestExecutor");
-        URI normalizedBaseUri = normalizeBaseUri(baseUri);
-        Map<String, String> params = Map.of("refreshtoken", validatedToken);
-        URI uri = buildUri(normalizedBaseUri, "token/auth_refresh", params);
-
-        HttpRequest request =
-                HttpRequest.newBuilder().uri(uri).POST(HttpRequest.BodyPublishers.noBody()).build();
-        HttpResponse<String> response = requestExecutor.send(request);
-        if (response.statusCode() != 200) {
-            throw buildException(response);
+        HttpRequest request = buildRefreshRequest(refreshToken, normalizeBaseUri(baseUri));
+        JQuantsTokenRefreshEvent event = new JQuantsTokenRefreshEvent();
+        event.begin();
+        try {
+            String idToken = decodeRefreshResponse(requestExecutor.send(request));
+            event.complete(AUTH_REFRESH_ENDPOINT, null);
+            return idToken;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            event.complete(AUTH_REFRESH_ENDPOINT, e);
+            throw e;
         }
+    }
 
-        IdTokenResponse tokenResponse =
-                OBJECT_MAPPER.readValue(response.body(), IdTokenResponse.class);
-        if (StringUtils.isBlank(tokenResponse.getIdToken())) {
-            throw new JQuantsApiException("IDトークンの取得に失敗しました。", response.statusCode());
-        }
-        return tokenResponse.getIdToken();
+    /**
+     * リフレッシュトークンを用いて ID トークンを非同期に取得します。
+     *
+     * @param refreshToken リフレッシュトークン
+     * @return 新規に取得した ID トークンを返す Future。API エラー時は {@link JQuantsApiException} で完了します。
+     */
+    public static CompletableFuture<String> refreshIdTokenAsync(String refreshToken) {
+        return refreshIdTokenAsync(refreshToken, DEFAULT_BASE_URI);
+    }
+
+    /**
+     * リフレッシュトークンを用いて ID トークンを非同期に取得します。
+     *
+     * @param refreshToken リフレッシュトークン
+     * @param baseUri API ベース URL
+     * @return 新規に取得した ID トークンを返す Future。API エラー時は {@link JQuantsApiException} で完了します。
+     */
+    public static CompletableFuture<String> refreshIdTokenAsync(String refreshToken, URI baseUri) {
+        HttpRequestExecutor requestExecutor =
+                new HttpClientRequestExecutor(DefaultHttpClient.INSTANCE);
+        return refreshIdTokenAsync(
+                refreshToken, baseUri, requestExecutor, ForkJoinPool.commonPool());
+    }
+
+    static CompletableFuture<String> refreshIdTokenAsync(
+            String refreshToken,
+            URI baseUri,
+            HttpRequestExecutor requestExecutor,
+            Executor decodeExecutor) {
+        Objects.requireNonNull(requestExecutor, "requestExecutor");
+        Objects.requireNonNull(decodeExecutor, "decodeExecutor");
+        HttpRequest request = buildRefreshRequest(refreshToken, normalizeBaseUri(baseUri));
+        JQuantsTokenRefreshEvent event = new JQuantsTokenRefreshEvent();
+        event.begin();
+        return sendAsync(
+                        requestExecutor,
+                        request,
+                        JQuantsClient::decodeRefreshResponse,
+                        decodeExecutor)
+                .whenComplete((idToken, error) -> event.complete(AUTH_REFRESH_ENDPOINT, error));
     }
 
     /**
      * /listed/info API を呼び出します。
      *
+     * <p>同じ検索条件の呼び出しが実行中の場合は新たにリクエストを送らず、その結果を共有します。
+     *
      * @param query 検索条件。null の場合は全件取得。
      * @return APIレスポンス
      * @throws JQuantsApiException APIエラー時
@@ -190,18 +424,494 @@ public class JQuantsClient {
      */
     public ListedInfoResponse getListedInfo(ListedInfoQuery query)
             throws IOException, InterruptedException {
-        URI uri = buildUri("/listed/info", query);
-        HttpRequest request =
-                HttpRequest.newBuilder()
-                        .uri(uri)
-                        .GET()
-                        .header("Authorization", "Bearer " + idToken)
-                        .build();
-        HttpResponse<String> response = requestExecutor.send(request);
-        if (response.statusCode() != 200) {
-            throw buildException(response);
+        Optional<ListedInfoQuery> cacheKey = listedInfoCacheKey(query);
+        if (cacheKey.isPresent()) {
+            Optional<ListedInfoResponse> cached =
+                    listedInfoCache.get(cacheKey.get(), () -> fetchListedInfoAsync(query), metrics);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
         }
-        return OBJECT_MAPPER.readValue(response.body(), ListedInfoResponse.class);
+
+        ListedInfoResponse listedInfo = fetchListedInfo(query);
+        cacheKey.ifPresent(key -> listedInfoCache.put(key, listedInfo));
+        return listedInfo;
+    }
+
+    /**
+     * /listed/info API を非同期に呼び出します。
+     *
+     * <p>呼び出しスレッドはブロックせず、JSON のデコードはコンストラクタで指定した Executor 上で行います。
+     * 同じ検索条件の呼び出しが実行中の場合は新たにリクエストを送らず、その結果を共有します。
+     *
+     * @param query 検索条件。null の場合は全件取得。
+     * @return APIレスポンスを返す Future。API エラー時は {@link JQuantsApiException} で完了します。
+     */
+    public CompletableFuture<ListedInfoResponse> getListedInfoAsync(ListedInfoQuery query) {
+        Optional<ListedInfoQuery> cacheKey = listedInfoCacheKey(query);
+        if (cacheKey.isEmpty()) {
+            return fetchListedInfoAsync(query);
+        }
+        Optional<ListedInfoResponse> cached =
+                listedInfoCache.get(cacheKey.get(), () -> fetchListedInfoAsync(query), metrics);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return fetchListedInfoAsync(query)
+                .thenApply(
+                        listedInfo -> {
+                            listedInfoCache.put(cacheKey.get(), listedInfo);
+                            return listedInfo;
+                        });
+    }
+
+    private ListedInfoResponse fetchListedInfo(ListedInfoQuery query)
+            throws IOException, InterruptedException {
+        ListedInfoQuery key = inFlightKey(query);
+        while (true) {
+            CompletableFuture<ListedInfoResponse> created = new CompletableFuture<>();
+            CompletableFuture<ListedInfoResponse> inFlight =
+                    inFlightListedInfo.putIfAbsent(key, created);
+            if (inFlight == null) {
+                try {
+                    HttpResponse<String> response =
+                            sendAuthorized(
+                                    token -> buildListedInfoRequest(query, token),
+                                    requestExecutor::send);
+                    ListedInfoResponse listedInfo = decodeListedInfo(response);
+                    created.complete(listedInfo);
+                    return listedInfo;
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    created.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlightListedInfo.remove(key, created);
+                }
+            }
+
+            try {
+                return inFlight.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InterruptedException) {
+                    // 先行した呼び出しが割り込まれただけなので、このスレッドで改めて取得する
+                    continue;
+                }
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    private CompletableFuture<ListedInfoResponse> fetchListedInfoAsync(ListedInfoQuery query) {
+        ListedInfoQuery key = inFlightKey(query);
+        CompletableFuture<ListedInfoResponse> created = new CompletableFuture<>();
+        CompletableFuture<ListedInfoResponse> inFlight =
+                inFlightListedInfo.putIfAbsent(key, created);
+        if (inFlight != null) {
+            // 呼び出し側の cancel や complete が他の呼び出しに影響しないよう複製を返す
+            return inFlight.copy();
+        }
+
+        CompletableFuture<ListedInfoResponse> fetching;
+        try {
+            fetching =
+                    sendAuthorizedAsync(token -> buildListedInfoRequest(query, token))
+                            .thenApplyAsync(
+                                    response -> decodeUnchecked(response, this::decodeListedInfo),
+                                    decodeExecutor);
+        } catch (RuntimeException e) {
+            // Executor が受け付けない場合などに登録したままにすると、以降の同じ検索条件の呼び出しが完了しなくなる
+            created.completeExceptionally(e);
+            inFlightListedInfo.remove(key, created);
+            return created.copy();
+        }
+        CompletableFutures.onComplete(
+                fetching,
+                (listedInfo, error) -> {
+                    if (error == null) {
+                        created.complete(listedInfo);
+                    } else {
+                        created.completeExceptionally(error);
+                    }
+                    inFlightListedInfo.remove(key, created);
+                });
+        return created.copy();
+    }
+
+    private static ListedInfoQuery inFlightKey(ListedInfoQuery query) {
+        return query == null ? ListedInfoQuery.builder().build() : query.canonicalize();
+    }
+
+    private Optional<ListedInfoQuery> listedInfoCacheKey(ListedInfoQuery query) {
+        return listedInfoCache == null ? Optional.empty() : ListedInfoCache.keyOf(query);
+    }
+
+    /**
+     * 複数の銘柄コードの /listed/info を並列に取得します。
+     *
+     * @param codes 銘柄コード（4桁または5桁）
+     * @param date 基準日付。null の場合は最新
+     * @return 銘柄コードごとの結果と失敗
+     * @throws InterruptedException 待機中に割り込まれた場合
+     * @see #getListedInfo(Collection, String, int)
+     */
+    public ListedInfoBulkResult getListedInfo(Collection<String> codes, String date)
+            throws InterruptedException {
+        return getListedInfo(codes, date, DEFAULT_BULK_PARALLELISM);
+    }
+
+    /**
+     * 複数の銘柄コードの /listed/info を、同時実行数を parallelism 以下に抑えて並列に取得します。
+     *
+     * <p>銘柄ごとに {@link #getListedInfo(ListedInfoQuery)} を呼び出し、ページングがあれば最後のページまで取得します。
+     * 一部の銘柄で失敗しても他の銘柄の取得は継続し、失敗は {@link ListedInfoBulkResult#getFailures()} に格納します。
+     * JDK 21 以降では仮想スレッド上で実行します。その場合も同時実行数は parallelism 以下に抑えます。
+     *
+     * @param codes 銘柄コード（4桁または5桁）。重複は 1 回だけ取得します
+     * @param date 基準日付。null の場合は最新
+     * @param parallelism 同時に実行する最大数
+     * @return 銘柄コードごとの結果と失敗
+     * @throws InterruptedException 待機中に割り込まれた場合。実行中の取得は中断します
+     */
+    public ListedInfoBulkResult getListedInfo(
+            Collection<String> codes, String date, int parallelism) throws InterruptedException {
+        Objects.requireNonNull(codes, "codes");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelismは1以上で指定してください。");
+        }
+        Set<String> uniqueCodes = new LinkedHashSet<>();
+        for (String code : codes) {
+            uniqueCodes.add(requireNonEmpty(code, "code").strip());
+        }
+
+        // JDK 11 の固定スレッドプールでは冗長だが、タスクごとに仮想スレッドを生成する JDK 21 以降ではこれで同時実行数を制限する
+        Semaphore permits = new Semaphore(parallelism);
+        Map<String, Future<List<ListedInfo>>> futures = new LinkedHashMap<>();
+        ExecutorService executor = BulkExecutors.newExecutor(parallelism);
+        try {
+            for (String code : uniqueCodes) {
+                ListedInfoQuery query = ListedInfoQuery.builder().code(code).date(date).build();
+                futures.put(
+                        code,
+                        executor.submit(
+                                () -> {
+                                    permits.acquire();
+                                    try {
+                                        return getAllListedInfo(query);
+                                    } finally {
+                                        permits.release();
+                                    }
+                                }));
+            }
+
+            Map<String, List<ListedInfo>> results = new LinkedHashMap<>();
+            Map<String, Exception> failures = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<List<ListedInfo>>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    failures.put(entry.getKey(), (Exception) cause);
+                }
+            }
+            return new ListedInfoBulkResult(results, failures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 2 つの基準日付の全銘柄を取得して比較し、新規上場・上場廃止・項目の変更を返します。
+     *
+     * @param fromDate 比較元の基準日付
+     * @param toDate 比較先の基準日付
+     * @return 変更の一覧
+     * @throws JQuantsApiException APIエラー時
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     * @see #diffListedInfo(String, String, Consumer)
+     */
+    public List<ListedInfoChange> diffListedInfo(String fromDate, String toDate)
+            throws IOException, InterruptedException {
+        List<ListedInfoChange> changes = new ArrayList<>();
+        diffListedInfo(fromDate, toDate, changes::add);
+        return changes;
+    }
+
+    /**
+     * 2 つの基準日付の全銘柄を比較し、変更を逐次 consumer に渡します。
+     *
+     * <p>比較元の全銘柄だけを保持し、比較先はページごとにストリーミングでデコードしながら比較します。
+     *
+     * @param fromDate 比較元の基準日付
+     * @param toDate 比較先の基準日付
+     * @param consumer 変更を受け取る処理
+     * @throws JQuantsApiException APIエラー時
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     * @see ListedInfoDiff
+     */
+    public void diffListedInfo(
+            String fromDate, String toDate, Consumer<? super ListedInfoChange> consumer)
+            throws IOException, InterruptedException {
+        requireNonEmpty(fromDate, "fromDate");
+        requireNonEmpty(toDate, "toDate");
+        Objects.requireNonNull(consumer, "consumer");
+        ListedInfoDiff baseline =
+                ListedInfoDiff.baseline(
+                        getAllListedInfo(ListedInfoQuery.builder().date(fromDate).build()));
+        ListedInfoDiff.Comparison comparison = baseline.compare(consumer);
+        ListedInfoQuery query = ListedInfoQuery.builder().date(toDate).build();
+        Optional<String> paginationKey = forEachListedInfo(query, comparison);
+        while (paginationKey.isPresent()) {
+            paginationKey =
+                    forEachListedInfo(query.withPaginationKey(paginationKey.get()), comparison);
+        }
+        comparison.finish();
+    }
+
+    /**
+     * 基準日付ごとに全銘柄を取得して履歴に登録します。
+     *
+     * <p>銘柄情報が 1 件も返らない日付（休業日など）は登録しません。
+     *
+     * @param history 登録先の履歴
+     * @param dates 基準日付（YYYY-MM-DD または YYYYMMDD）
+     * @throws JQuantsApiException APIエラー時
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    public void loadListedInfoHistory(ListedInfoHistory history, Collection<String> dates)
+            throws IOException, InterruptedException {
+        Objects.requireNonNull(history, "history");
+        for (String date : dates) {
+            requireNonEmpty(date, "date");
+            List<ListedInfo> snapshot =
+                    getAllListedInfo(ListedInfoQuery.builder().date(date).build());
+            if (!snapshot.isEmpty()) {
+                history.put(date, snapshot);
+            }
+        }
+    }
+
+    private List<ListedInfo> getAllListedInfo(ListedInfoQuery query)
+            throws IOException, InterruptedException {
+        ListedInfoResponse response = getListedInfo(query);
+        if (response.getPaginationKey().isEmpty()) {
+            return response.getInfo();
+        }
+        List<ListedInfo> info = new ArrayList<>(response.getInfo());
+        while (response.getPaginationKey().isPresent()) {
+            response = getListedInfo(query.withPaginationKey(response.getPaginationKey().get()));
+            info.addAll(response.getInfo());
+        }
+        return Collections.unmodifiableList(info);
+    }
+
+    /**
+     * /listed/info API を呼び出し、レスポンスをストリーミングでデコードしながら銘柄情報を 1 件ずつ consumer に渡します。
+     *
+     * <p>ボディ全体を文字列やリストとして保持しないため、1 ページ分のメモリ使用量はおおむね 1 件分に抑えられます。
+     *
+     * @param query 検索条件。null の場合は全件取得。
+     * @param consumer デコードした銘柄情報を受け取る処理
+     * @return 次ページのページング用キー
+     * @throws JQuantsApiException APIエラー時
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    public Optional<String> forEachListedInfo(
+            ListedInfoQuery query, Consumer<? super ListedInfo> consumer)
+            throws IOException, InterruptedException {
+        Objects.requireNonNull(consumer, "consumer");
+        HttpResponse<InputStream> response =
+                sendAuthorized(
+                        token -> buildListedInfoRequest(query, token),
+                        requestExecutor::sendStreaming);
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                String errorBody = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                throw buildException(response, errorBody);
+            }
+            JQuantsDecodeEvent event = new JQuantsDecodeEvent();
+            CountingInputStream countingBody =
+                    event.isEnabled() ? new CountingInputStream(body, bytesRead -> {}) : null;
+            int[] records = new int[1];
+            event.begin();
+            long start = System.nanoTime();
+            Optional<String> paginationKey =
+                    readListedInfo(
+                            countingBody == null ? body : countingBody,
+                            info -> {
+                                records[0]++;
+                                consumer.accept(info);
+                            });
+            metrics.responseDecoded(LISTED_INFO_ENDPOINT, System.nanoTime() - start);
+            event.complete(
+                    LISTED_INFO_ENDPOINT,
+                    countingBody == null ? 0 : countingBody.getBytesRead(),
+                    records[0]);
+            return paginationKey;
+        }
+    }
+
+    /**
+     * /listed/info の全ページを pagination_key に従って遅延取得する Stream を返します。
+     *
+     * <p>現在のページを処理している間に次の 1 ページを先読みします。
+     *
+     * @param query 検索条件。null の場合は全件取得。
+     * @return 銘柄情報の Stream。使用後は close してください。
+     * @see #streamListedInfo(ListedInfoQuery, int)
+     */
+    public Stream<ListedInfo> streamListedInfo(ListedInfoQuery query) {
+        return streamListedInfo(query, 1);
+    }
+
+    /**
+     * /listed/info の全ページを pagination_key に従って遅延取得する Stream を返します。
+     *
+     * <p>API エラーは {@link JQuantsApiException}、通信失敗は {@link java.io.UncheckedIOException} として
+     * Stream の走査中に送出されます。Stream を close すると先読み中のページの送信中のリクエストを取り消します。取り消せるよう、ページは同じ検索条件の呼び出しや
+     * キャッシュと共有せずに取得します。
+     *
+     * @param query 検索条件。null の場合は全件取得。
+     * @param prefetchPages 利用者の処理と並行して先読みするページ数（0 の場合は先読みしない）
+     * @return 銘柄情報の Stream。使用後は close してください。
+     */
+    public Stream<ListedInfo> streamListedInfo(ListedInfoQuery query, int prefetchPages) {
+        ListedInfoPageIterator iterator =
+                new ListedInfoPageIterator(this::fetchListedInfoPageAsync, query, prefetchPages);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(
+                                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * /listed/info の全ページを pagination_key に従って取得し、購読者の要求数に応じて銘柄情報を発行する Publisher を返します。
+     *
+     * <p>次のページは、取得済みの銘柄をすべて発行してもなお要求が残っている場合にだけ取得します。{@link
+     * Flow.Subscription#cancel()} を呼び出すと送信中のリクエストを取り消します。取り消せるよう、ページは同じ検索条件の呼び出しや
+     * キャッシュと共有せずに取得します。
+     *
+     * <p>API エラーは {@link JQuantsApiException}、通信失敗は {@link IOException} として onError に渡します。
+     *
+     * @param query 検索条件。null の場合は全件取得。
+     * @return 購読ごとに最初のページから取得する Publisher
+     */
+    public Flow.Publisher<ListedInfo> publishListedInfo(ListedInfoQuery query) {
+        return new ListedInfoPublisher(this::fetchListedInfoPageAsync, query);
+    }
+
+    private CompletableFuture<ListedInfoResponse> fetchListedInfoPageAsync(ListedInfoQuery query) {
+        CompletableFuture<HttpResponse<String>> response =
+                sendAuthorizedAsync(token -> buildListedInfoRequest(query, token));
+        return CompletableFutures.propagateCancel(
+                response.thenApplyAsync(
+                        result -> decodeUnchecked(result, this::decodeListedInfo), decodeExecutor),
+                response);
+    }
+
+    /**
+     * プロバイダの ID トークンを付与してリクエストを送信し、401 の場合は更新したトークンで 1 回だけ再試行します。
+     *
+     * @param requestFactory ID トークンからリクエストを組み立てる処理
+     * @param sender 送信処理
+     * @return レスポンス
+     */
+    private <T> HttpResponse<T> sendAuthorized(
+            Function<String, HttpRequest> requestFactory, RequestSender<T> sender)
+            throws IOException, InterruptedException {
+        String idToken = tokenProvider.getIdToken();
+        HttpResponse<T> response = sender.send(requestFactory.apply(idToken));
+        if (response.statusCode() != 401) {
+            return response;
+        }
+        Optional<String> renewedToken = tokenProvider.renewIdToken(idToken);
+        if (renewedToken.isEmpty()) {
+            return response;
+        }
+        if (response.body() instanceof Closeable) {
+            ((Closeable) response.body()).close();
+        }
+        return sender.send(requestFactory.apply(renewedToken.get()));
+    }
+
+    /**
+     * {@link #sendAuthorized} の非同期版。トークンの取得と更新はデコード用 Executor 上で行い、呼び出しスレッドをブロックしません。
+     *
+     * @param requestFactory ID トークンからリクエストを組み立てる処理
+     * @return レスポンスを返す Future。トークンの取得に失敗した場合もその例外で完了します
+     */
+    private CompletableFuture<HttpResponse<String>> sendAuthorizedAsync(
+            Function<String, HttpRequest> requestFactory) {
+        return CompletableFutures.thenCompose(
+                CompletableFuture.supplyAsync(this::getIdTokenUnchecked, decodeExecutor),
+                idToken ->
+                        CompletableFutures.thenCompose(
+                                requestExecutor.sendAsync(requestFactory.apply(idToken)),
+                                response ->
+                                        response.statusCode() == 401
+                                                ? retryWithRenewedTokenAsync(
+                                                        requestFactory, idToken, response)
+                                                : CompletableFuture.completedFuture(response)));
+    }
+
+    private CompletableFuture<HttpResponse<String>> retryWithRenewedTokenAsync(
+            Function<String, HttpRequest> requestFactory,
+            String rejectedIdToken,
+            HttpResponse<String> rejectedResponse) {
+        return CompletableFutures.thenCompose(
+                CompletableFuture.supplyAsync(
+                        () -> renewIdTokenUnchecked(rejectedIdToken), decodeExecutor),
+                renewedToken -> {
+                    if (renewedToken.isEmpty()) {
+                        return CompletableFuture.completedFuture(rejectedResponse);
+                    }
+                    return requestExecutor.sendAsync(requestFactory.apply(renewedToken.get()));
+                });
+    }
+
+    private String getIdTokenUnchecked() {
+        try {
+            return tokenProvider.getIdToken();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private Optional<String> renewIdTokenUnchecked(String rejectedIdToken) {
+        try {
+            return tokenProvider.renewIdToken(rejectedIdToken);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private HttpRequest buildListedInfoRequest(ListedInfoQuery query, String idToken) {
+        URI uri = buildUri(LISTED_INFO_ENDPOINT, query);
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .GET()
+                .header("Authorization", "Bearer " + idToken)
+                .build();
     }
 
     /**
@@ -211,7 +921,7 @@ public class JQuantsClient {
      * @param query クエリパラメータ
      * @return 組み立てた URI
      */
-    private URI buildUri(String path, ListedInfoQuery query) {
+    URI buildUri(String path, ListedInfoQuery query) {
         Map<String, String> params = new LinkedHashMap<>();
         ListedInfoQuery effectiveQuery = query == null ? ListedInfoQuery.builder().build() : query;
         effectiveQuery.getCode().ifPresent(v -> params.put("code", v));
@@ -232,6 +942,167 @@ public class JQuantsClient {
         return buildUri(baseUri, path, params);
     }
 
+    private static HttpRequest buildAuthUserRequest(
+            String mailAddress, String password, URI normalizedBaseUri)
+            throws JsonProcessingException {
+        String validatedMailAddress = requireNonEmpty(mailAddress, "mailaddress");
+        String validatedPassword = requireNonEmpty(password, "password");
+
+        URI uri = buildUri(normalizedBaseUri, AUTH_USER_ENDPOINT);
+        Map<String, String> requestBody = new LinkedHashMap<>();
+        requestBody.put("mailaddress", validatedMailAddress);
+        requestBody.put("password", validatedPassword);
+        String body = OBJECT_MAPPER.writeValueAsString(requestBody);
+
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private static HttpRequest buildRefreshRequest(String refreshToken, URI normalizedBaseUri) {
+        String validatedToken = requireNonEmpty(refreshToken, "refreshtoken");
+        Map<String, String> params = Map.of("refreshtoken", validatedToken);
+        URI uri = buildUri(normalizedBaseUri, AUTH_REFRESH_ENDPOINT, params);
+        return HttpRequest.newBuilder().uri(uri).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    /**
+     * /token/auth_user のレスポンスを検証してデコードします。
+     *
+     * <p>ID トークンが含まれない場合は呼び出し側でリフレッシュトークンから取得してください。
+     *
+     * @param response HTTP レスポンス
+     * @return デコードしたトークン
+     * @throws JQuantsApiException APIエラー時、またはトークンが含まれない場合
+     * @throws JsonProcessingException JSON の解析に失敗した場合
+     */
+    private static IdTokenResponse decodeAuthUserResponse(HttpResponse<String> response)
+            throws JsonProcessingException {
+        if (response.statusCode() != 200) {
+            throw buildException(response);
+        }
+
+        IdTokenResponse tokenResponse = decodeTokenResponse(AUTH_USER_ENDPOINT, response);
+        if (StringUtils.isBlank(tokenResponse.getRefreshToken())) {
+            String message =
+                    StringUtils.isBlank(tokenResponse.getIdToken())
+                            ? "IDトークンの取得に失敗しました。"
+                            : "リフレッシュトークンの取得に失敗しました。";
+            throw new JQuantsApiException(message, response.statusCode());
+        }
+        return tokenResponse;
+    }
+
+    private static String decodeRefreshResponse(HttpResponse<String> response)
+            throws JsonProcessingException {
+        if (response.statusCode() != 200) {
+            throw buildException(response);
+        }
+
+        IdTokenResponse tokenResponse = decodeTokenResponse(AUTH_REFRESH_ENDPOINT, response);
+        if (StringUtils.isBlank(tokenResponse.getIdToken())) {
+            throw new JQuantsApiException("IDトークンの取得に失敗しました。", response.statusCode());
+        }
+        return tokenResponse.getIdToken();
+    }
+
+    private static IdTokenResponse decodeTokenResponse(
+            String endpoint, HttpResponse<String> response) throws JsonProcessingException {
+        JQuantsDecodeEvent event = new JQuantsDecodeEvent();
+        event.begin();
+        IdTokenResponse tokenResponse =
+                OBJECT_MAPPER.readValue(response.body(), IdTokenResponse.class);
+        event.complete(endpoint, response.body(), 1);
+        return tokenResponse;
+    }
+
+    private ListedInfoResponse decodeListedInfo(HttpResponse<String> response)
+            throws JsonProcessingException {
+        JQuantsDecodeEvent event = new JQuantsDecodeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        ListedInfoResponse listedInfo = decodeListedInfoResponse(response);
+        metrics.responseDecoded(LISTED_INFO_ENDPOINT, System.nanoTime() - start);
+        event.complete(LISTED_INFO_ENDPOINT, response.body(), listedInfo.getInfo().size());
+        return listedInfo;
+    }
+
+    private static ListedInfoResponse decodeListedInfoResponse(HttpResponse<String> response)
+            throws JsonProcessingException {
+        if (response.statusCode() != 200) {
+            throw buildException(response);
+        }
+        return OBJECT_MAPPER.readValue(response.body(), ListedInfoResponse.class);
+    }
+
+    /**
+     * /listed/info のレスポンスボディを先頭から読み進め、info 配列の要素を 1 件ずつデコードします。
+     *
+     * @param body レスポンスボディ
+     * @param consumer デコードした銘柄情報を受け取る処理
+     * @return pagination_key の値
+     * @throws IOException JSON の解析に失敗した場合
+     */
+    private static Optional<String> readListedInfo(
+            InputStream body, Consumer<? super ListedInfo> consumer) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "レスポンスがJSONオブジェクトではありません。");
+            }
+            String paginationKey = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("info".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    JsonToken element;
+                    while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (element == JsonToken.START_OBJECT) {
+                            consumer.accept(LISTED_INFO_READER.readValue(parser));
+                        } else if (element != JsonToken.VALUE_NULL) {
+                            // null は文字列でデコードする場合と同じく読み飛ばし、それ以外は途中で打ち切らずにエラーとする
+                            throw new JsonParseException(parser, "info の要素がJSONオブジェクトではありません。");
+                        }
+                    }
+                } else if ("pagination_key".equals(fieldName)) {
+                    paginationKey = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return Optional.ofNullable(paginationKey);
+        }
+    }
+
+    /**
+     * リクエストを非同期に送信し、レスポンスのデコードを指定の Executor 上で行います。
+     *
+     * @param requestExecutor 送信に用いる Executor
+     * @param request 送信するリクエスト
+     * @param decoder レスポンスのデコード処理
+     * @param decodeExecutor デコードを実行する Executor
+     * @return デコード結果を返す Future
+     */
+    private static <T> CompletableFuture<T> sendAsync(
+            HttpRequestExecutor requestExecutor,
+            HttpRequest request,
+            ResponseDecoder<T> decoder,
+            Executor decodeExecutor) {
+        return requestExecutor
+                .sendAsync(request)
+                .thenApplyAsync(response -> decodeUnchecked(response, decoder), decodeExecutor);
+    }
+
+    private static <T> T decodeUnchecked(
+            HttpResponse<String> response, ResponseDecoder<T> decoder) {
+        try {
+            return decoder.decode(response);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
     private static String encode(String value) {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
@@ -258,13 +1129,23 @@ public class JQuantsClient {
     }
 
     private static JQuantsApiException buildException(HttpResponse<String> response) {
-        String message = parseErrorMessage(response.body()).orElse("API呼び出しに失敗しました。");
+        return buildException(response, response.body());
+    }
+
+    static JQuantsApiException buildException(HttpResponse<?> response, String body) {
+        int statusCode = response.statusCode();
+        int retryCount = RetriedHttpResponse.retryCountOf(response);
+        String message = parseErrorMessage(body).orElse("API呼び出しに失敗しました。");
         String detailedMessage =
-                String.format("status=%d, message=%s", response.statusCode(), message);
-        return new JQuantsApiException(detailedMessage, response.statusCode());
+                retryCount == 0
+                        ? String.format("status=%d, message=%s", statusCode, message)
+                        : String.format(
+                                "status=%d, message=%s, retries=%d",
+                                statusCode, message, retryCount);
+        return new JQuantsApiException(detailedMessage, statusCode, retryCount);
     }
 
-    private static Optional<String> parseErrorMessage(String body) {
+    static Optional<String> parseErrorMessage(String body) {
         try {
             Map<?, ?> parsed = OBJECT_MAPPER.readValue(body, Map.class);
             Object message = parsed.get("message");
@@ -324,4 +1205,21 @@ public class JQuantsClient {
         }
         return URI.create(value);
     }
+
+    /**
+     * HttpClient を指定しない呼び出しで共有する HttpClient。最初に利用されたときに生成します。
+     */
+    private static final class DefaultHttpClient {
+        private static final HttpClient INSTANCE = HttpClient.newHttpClient();
+    }
+
+    @FunctionalInterface
+    private interface RequestSender<T> {
+        HttpResponse<T> send(HttpRequest request) throws IOException, InterruptedException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseDecoder<T> {
+        T decode(HttpResponse<String> response) throws IOException;
+    }
 }
@@ -0,0 +1,67 @@
+package io.github.shigaichi.jquants.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * レスポンスボディの JSON デコードを記録する JFR イベント。
+ */
+@Name("io.github.shigaichi.jquants.Decode")
+@Label("J-Quants Decode")
+@Category({"J-Quants", "JSON"})
+@Description("J-Quants API のレスポンスボディのデコード")
+@StackTrace(false)
+final class JQuantsDecodeEvent extends Event {
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Payload Size")
+    @DataAmount
+    long payloadSize;
+
+    @Label("Records")
+    int records;
+
+    /**
+     * イベントを終了し、記録が有効な場合だけ各項目を設定して記録します。
+     *
+     * @param endpoint エンドポイント
+     * @param body デコードしたボディ
+     * @param records デコードした件数
+     */
+    void complete(String endpoint, String body, int records) {
+        end();
+        if (shouldCommit()) {
+            commit(
+                    endpoint,
+                    body == null ? 0 : HttpClientRequestExecutor.utf8Length(body),
+                    records);
+        }
+    }
+
+    /**
+     * イベントを終了し、記録が有効な場合だけ各項目を設定して記録します。
+     *
+     * @param endpoint エンドポイント
+     * @param payloadSize デコードしたボディのバイト数
+     * @param records デコードした件数
+     */
+    void complete(String endpoint, long payloadSize, int records) {
+        end();
+        if (shouldCommit()) {
+            commit(endpoint, payloadSize, records);
+        }
+    }
+
+    private void commit(String endpoint, long payloadSize, int records) {
+        this.endpoint = endpoint;
+        this.payloadSize = payloadSize;
+        this.records = records;
+        commit();
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.shigaichi.jquants.client;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletionException;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * J-Quants API への HTTP リクエスト 1 回分を記録する JFR イベント。
+ *
+ * <p>再試行した場合は試行ごとに記録します。クエリパラメータのうちトークンや認証情報の値は伏せ字にします。
+ */
+@Name("io.github.shigaichi.jquants.Request")
+@Label("J-Quants Request")
+@Category({"J-Quants", "HTTP"})
+@Description("J-Quants API への HTTP リクエスト。ボディを InputStream で受け取る場合は close までを含みます")
+@StackTrace(false)
+final class JQuantsRequestEvent extends Event {
+    private static final Set<String> SECRET_PARAMETERS =
+            Set.of("refreshtoken", "idtoken", "token", "mailaddress", "password");
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Query")
+    String query;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Payload Size")
+    @Description("受信したボディのバイト数（圧縮されている場合は展開前）")
+    @DataAmount
+    long payloadSize;
+
+    @Label("Content Encoding")
+    String contentEncoding;
+
+    @Label("Decompressed Size")
+    @Description("展開後のボディのバイト数")
+    @DataAmount
+    long decompressedSize;
+
+    @Label("Error")
+    String error;
+
+    /**
+     * イベントを終了し、記録が有効な場合だけ各項目を設定して記録します。
+     *
+     * @param request リクエスト
+     * @param statusCode ステータスコード。レスポンスがない場合は 0
+     * @param payloadSize 受信したボディのバイト数
+     * @param contentEncoding 展開した Content-Encoding。圧縮されていない場合は null
+     * @param decompressedSize 展開後のボディのバイト数
+     * @param failure 失敗の原因。成功した場合は null
+     */
+    void complete(
+            HttpRequest request,
+            int statusCode,
+            long payloadSize,
+            String contentEncoding,
+            long decompressedSize,
+            Throwable failure) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        URI uri = request.uri();
+        this.method = request.method();
+        this.endpoint = uri.getPath();
+        this.query = redactQuery(uri.getRawQuery());
+        this.statusCode = statusCode;
+        this.payloadSize = payloadSize;
+        this.contentEncoding = contentEncoding;
+        this.decompressedSize = decompressedSize;
+        this.error = failure == null ? null : unwrap(failure).getClass().getName();
+        commit();
+    }
+
+    /**
+     * 秘匿すべきパラメータの値を伏せ字にします。
+     *
+     * @param rawQuery エンコード済みのクエリ文字列
+     * @return 伏せ字にしたクエリ文字列。クエリがない場合は null
+     */
+    static String redactQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return null;
+        }
+        StringJoiner joiner = new StringJoiner("&");
+        for (String parameter : rawQuery.split("&", -1)) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            if (separator >= 0 && SECRET_PARAMETERS.contains(name.toLowerCase(Locale.ROOT))) {
+                joiner.add(name + "=***");
+            } else {
+                joiner.add(parameter);
+            }
+        }
+        return joiner.toString();
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+    }
+}
@@ -0,0 +1,404 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.metrics.JQuantsMetrics;
+import io.github.shigaichi.jquants.client.token.IdTokenProvider;
+import io.github.shigaichi.jquants.client.token.IdTokenResponse;
+import io.github.shigaichi.jquants.client.token.RefreshingIdTokenProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 1 つの HttpClient をトークン取得と API 呼び出しで共有するセッション。
+ *
+ * <p>同じセッションから生成したクライアントは接続（TLS セッション、HTTP/2 コネクション）を再利用します。
+ * セッションが生成した Executor は {@link #close()} で停止するため、close 後はセッションから生成したクライアントも利用できません。
+ *
+ * <pre>{@code
+ * try (JQuantsSession session = JQuantsSession.builder().build()) {
+ *     session.warmUp();
+ *     IdTokenResponse tokens = session.authenticateUser(mailAddress, password);
+ *     JQuantsClient client = session.newClient(
+ *             session.tokenProviderBuilder().refreshToken(tokens.getRefreshToken())
+ *                     .idToken(tokens.getIdToken(), null).build());
+ *     client.getListedInfo(null);
+ * }
+ * }</pre>
+ */
+public final class JQuantsSession implements AutoCloseable {
+    /** 接続タイムアウトの既定値。 */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+    private final HttpRequestExecutor requestExecutor;
+    private final URI baseUri;
+    private final Executor decodeExecutor;
+    private final ListedInfoCache listedInfoCache;
+    private final JQuantsMetrics metrics;
+    private final ExecutorService ownedExecutor;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private JQuantsSession(Builder builder) {
+        this.baseUri = Objects.requireNonNull(builder.baseUri, "baseUri");
+        this.decodeExecutor = Objects.requireNonNull(builder.decodeExecutor, "decodeExecutor");
+        this.listedInfoCache = builder.listedInfoCache;
+        this.metrics = Objects.requireNonNull(builder.metrics, "metrics");
+        HttpClient.Builder httpClientBuilder =
+                HttpClient.newBuilder()
+                        .version(Objects.requireNonNull(builder.version, "version"))
+                        .connectTimeout(
+                                Objects.requireNonNull(builder.connectTimeout, "connectTimeout"))
+                        .followRedirects(HttpClient.Redirect.NORMAL);
+        if (builder.executor == null) {
+            this.ownedExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory());
+            httpClientBuilder.executor(ownedExecutor);
+        } else {
+            this.ownedExecutor = null;
+            httpClientBuilder.executor(builder.executor);
+        }
+        this.httpClient = httpClientBuilder.build();
+        EndpointResolver endpoints = new EndpointResolver(baseUri);
+        HttpRequestExecutor executor =
+                new HttpClientRequestExecutor(httpClient, builder.compression);
+        if (metrics != JQuantsMetrics.NOOP) {
+            executor = new MetricsRequestExecutor(executor, metrics, endpoints);
+        }
+        if (builder.concurrencyLimiter != null) {
+            executor = new ConcurrencyLimitingRequestExecutor(executor, builder.concurrencyLimiter);
+        }
+        if (builder.requestsPerSecond > 0.0) {
+            executor =
+                    new RateLimitingRequestExecutor(
+                            executor, builder.requestsPerSecond, builder.burst);
+        }
+        RetryPolicy retryPolicy = Objects.requireNonNull(builder.retryPolicy, "retryPolicy");
+        if (retryPolicy.getMaxRetries() > 0) {
+            executor = new RetryingRequestExecutor(executor, retryPolicy, metrics, endpoints);
+        }
+        this.requestExecutor = executor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * メールアドレスとパスワードを用いて ID トークンとリフレッシュトークンを取得します。
+     *
+     * @param mailAddress 登録メールアドレス
+     * @param password パスワード
+     * @return 取得したトークン
+     * @throws JQuantsApiException APIエラー時
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    public IdTokenResponse authenticateUser(String mailAddress, String password)
+            throws IOException, InterruptedException {
+        ensureOpen();
+        return JQuantsClient.authenticateUser(mailAddress, password, baseUri, requestExecutor);
+    }
+
+    /**
+     * メールアドレスとパスワードを用いて ID トークンとリフレッシュトークンを非同期に取得します。
+     *
+     * @param mailAddress 登録メールアドレス
+     * @param password パスワード
+     * @return 取得したトークンを返す Future
+     */
+    public CompletableFuture<IdTokenResponse> authenticateUserAsync(
+            String mailAddress, String password) {
+        ensureOpen();
+        return JQuantsClient.authenticateUserAsync(
+                mailAddress, password, baseUri, requestExecutor, decodeExecutor);
+    }
+
+    /**
+     * リフレッシュトークンを用いて ID トークンを取得します。
+     *
+     * @param refreshToken リフレッシュトークン
+     * @return 新規に取得した ID トークン
+     * @throws JQuantsApiException APIエラー時
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    public String refreshIdToken(String refreshToken) throws IOException, InterruptedException {
+        ensureOpen();
+        return JQuantsClient.refreshIdToken(refreshToken, baseUri, requestExecutor);
+    }
+
+    /**
+     * リフレッシュトークンを用いて ID トークンを非同期に取得します。
+     *
+     * @param refreshToken リフレッシュトークン
+     * @return 新規に取得した ID トークンを返す Future
+     */
+    public CompletableFuture<String> refreshIdTokenAsync(String refreshToken) {
+        ensureOpen();
+        return JQuantsClient.refreshIdTokenAsync(
+                refreshToken, baseUri, requestExecutor, decodeExecutor);
+    }
+
+    /**
+     * このセッションでリフレッシュトークンから ID トークンを更新するプロバイダのビルダーを返します。
+     *
+     * @return refresher 設定済みのビルダー
+     */
+    public RefreshingIdTokenProvider.Builder tokenProviderBuilder() {
+        return RefreshingIdTokenProvider.builder().refresher(this::refreshIdToken);
+    }
+
+    /**
+     * このセッションの HttpClient を共有するクライアントを生成します。
+     *
+     * @param idToken ID トークン
+     * @return クライアント
+     */
+    public JQuantsClient newClient(String idToken) {
+        ensureOpen();
+        if (StringUtils.isBlank(idToken)) {
+            throw new IllegalArgumentException("idTokenが指定されていません。");
+        }
+        return newClient(IdTokenProvider.of(idToken));
+    }
+
+    /**
+     * このセッションの HttpClient を共有するクライアントを生成します。
+     *
+     * @param tokenProvider ID トークンのプロバイダ
+     * @return クライアント
+     */
+    public JQuantsClient newClient(IdTokenProvider tokenProvider) {
+        ensureOpen();
+        return new JQuantsClient(
+                tokenProvider, baseUri, requestExecutor, decodeExecutor, listedInfoCache, metrics);
+    }
+
+    /**
+     * ベース URL に HEAD リクエストを送り、最初の API 呼び出しの前に接続と TLS ハンドシェイクを済ませます。
+     *
+     * <p>応答のステータスコードは問いません。
+     *
+     * @throws IOException 接続に失敗した場合
+     * @throws InterruptedException 通信割り込み時
+     */
+    public void warmUp() throws IOException, InterruptedException {
+        ensureOpen();
+        HttpRequest request =
+                HttpRequest.newBuilder(baseUri)
+                        .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                        .build();
+        httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    /** このセッションが共有する HttpClient を返します。 */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /** API ベース URL を返します。 */
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    /** close 済みかどうかを返します。 */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * セッションが生成した Executor を停止します。利用者が指定した Executor は停止しません。
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true) && ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("セッションはcloseされています。");
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jquants-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static final class Builder {
+        private URI baseUri = JQuantsClient.DEFAULT_BASE_URI;
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Executor executor;
+        private Executor decodeExecutor = ForkJoinPool.commonPool();
+        private ListedInfoCache listedInfoCache;
+        private double requestsPerSecond;
+        private int burst;
+        private RetryPolicy retryPolicy = RetryPolicy.defaults();
+        private AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private JQuantsMetrics metrics = JQuantsMetrics.NOOP;
+        private boolean compression = true;
+
+        /**
+         * API ベース URL を設定します。
+         *
+         * @param baseUri API ベース URL
+         * @return this
+         */
+        public Builder baseUri(URI baseUri) {
+            this.baseUri = baseUri;
+            return this;
+        }
+
+        /**
+         * 優先する HTTP バージョンを設定します。既定は HTTP/2 です。
+         *
+         * @param version 優先する HTTP バージョン（既定は HTTP/2）
+         * @return this
+         */
+        public Builder version(HttpClient.Version version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * 接続タイムアウトを設定します。
+         *
+         * @param connectTimeout 接続タイムアウト
+         * @return this
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * HttpClient が非同期処理に用いる Executor を指定します。未指定の場合はセッションが生成し、close 時に停止します。
+         *
+         * @param executor Executor
+         * @return this
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * 非同期レスポンスのデコードを実行する Executor を設定します。
+         *
+         * @param decodeExecutor 非同期レスポンスのデコードを実行する Executor
+         * @return this
+         */
+        public Builder decodeExecutor(Executor decodeExecutor) {
+            this.decodeExecutor = decodeExecutor;
+            return this;
+        }
+
+        /**
+         * このセッションから生成したクライアントで共有する /listed/info のキャッシュを指定します。未指定の場合はキャッシュしません。
+         *
+         * @param listedInfoCache キャッシュ
+         * @return this
+         */
+        public Builder listedInfoCache(ListedInfoCache listedInfoCache) {
+            this.listedInfoCache = listedInfoCache;
+            return this;
+        }
+
+        /**
+         * 送信レートの上限を指定します。再試行による送信も上限に含まれます。未指定の場合は制限しません。
+         *
+         * @param requestsPerSecond 1 秒あたりの送信数
+         * @param burst 連続して送信できる最大数
+         * @return this
+         */
+        public Builder rateLimit(double requestsPerSecond, int burst) {
+            if (!(requestsPerSecond > 0.0)) {
+                throw new IllegalArgumentException("requestsPerSecondは0より大きい値で指定してください。");
+            }
+            if (burst <= 0) {
+                throw new IllegalArgumentException("burstは1以上で指定してください。");
+            }
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * 429 や 5xx、通信失敗時の再試行方針を指定します。既定は {@link RetryPolicy#defaults()} です。
+         *
+         * <p>トークン取得のリクエストは、{@link RetryPolicy.Builder#retryTokenRequests(boolean)} を指定した方針の場合だけ再試行します。
+         *
+         * @param retryPolicy 再試行方針。再試行しない場合は {@link RetryPolicy#none()}
+         * @return this
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * 同時に実行するリクエスト数を、レイテンシと 429 応答に応じて調整しながら制限します。未指定の場合は制限しません。
+         *
+         * <p>現在の上限と待機数は {@link AdaptiveConcurrencyLimiter#getLimit()} と
+         * {@link AdaptiveConcurrencyLimiter#getQueueDepth()} で確認できます。
+         *
+         * @param concurrencyLimiter リミッタ
+         * @return this
+         */
+        public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        /**
+         * リクエストの開始と完了、デコード時間、再試行、キャッシュの参照結果を通知する先を指定します。未指定の場合は計測しません。
+         *
+         * @param metrics 通知先。エンドポイントごとに集計する場合は {@link
+         *     io.github.shigaichi.jquants.client.metrics.MetricsRegistry}
+         * @return this
+         */
+        public Builder metrics(JQuantsMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * レスポンスの圧縮を受け付けるかを指定します。既定は true です。
+         *
+         * <p>有効な場合は {@code Accept-Encoding: gzip, deflate} を送信し、圧縮されたボディは JSON のデコード前に展開します。
+         * 展開前後のバイト数は {@link JQuantsMetrics#responseDecompressed} に通知されます。
+         *
+         * @param compression 圧縮を受け付ける場合は true
+         * @return this
+         */
+        public Builder compression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        public JQuantsSession build() {
+            return new JQuantsSession(this);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.shigaichi.jquants.client;
+
+import java.util.concurrent.CompletionException;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ID トークン・リフレッシュトークンの取得を記録する JFR イベント。トークンの値は記録しません。
+ */
+@Name("io.github.shigaichi.jquants.TokenRefresh")
+@Label("J-Quants Token Refresh")
+@Category({"J-Quants", "Token"})
+@Description("/token/auth_user または /token/auth_refresh によるトークンの取得")
+final class JQuantsTokenRefreshEvent extends Event {
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error")
+    String error;
+
+    /**
+     * イベントを終了し、記録が有効な場合だけ各項目を設定して記録します。
+     *
+     * @param endpoint エンドポイント
+     * @param failure 失敗の原因。成功した場合は null
+     */
+    void complete(String endpoint, Throwable failure) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.endpoint = endpoint;
+        this.success = failure == null;
+        this.error = failure == null ? null : unwrap(failure).getClass().getName();
+        commit();
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+    }
+}
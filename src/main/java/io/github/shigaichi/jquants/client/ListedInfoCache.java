@@ -0,0 +1,269 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import io.github.shigaichi.jquants.client.metrics.JQuantsMetrics;
+import io.github.shigaichi.jquants.client.metrics.JQuantsMetrics.CacheResult;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * /listed/info のレスポンスをメモリ上に保持するキャッシュ。
+ *
+ * <p>キーは {@link ListedInfoQuery#canonicalize()} で正規化したクエリです。件数上限を超えた場合は最も長く参照されていないエントリから破棄します。
+ * 有効期間（TTL）を過ぎたエントリは、さらに staleWhileRevalidate の間は古い値を返しつつバックグラウンドで再取得します。
+ * pagination_key を含むクエリはキャッシュしません。
+ *
+ * <p>{@link JQuantsSession.Builder#listedInfoCache(ListedInfoCache)} で指定すると、そのセッションから生成したクライアントで共有されます。
+ */
+public final class ListedInfoCache {
+    private static final String ENDPOINT = "/listed/info";
+
+    private final int maximumSize;
+    private final Duration timeToLive;
+    private final Duration staleWhileRevalidate;
+    private final Clock clock;
+    private final Map<ListedInfoQuery, CacheEntry> entries;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder staleHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private ListedInfoCache(Builder builder) {
+        if (builder.maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSizeは1以上で指定してください。");
+        }
+        this.maximumSize = builder.maximumSize;
+        this.timeToLive = Objects.requireNonNull(builder.timeToLive, "timeToLive");
+        this.staleWhileRevalidate =
+                Objects.requireNonNull(builder.staleWhileRevalidate, "staleWhileRevalidate");
+        this.clock = Objects.requireNonNull(builder.clock, "clock");
+        this.entries =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Map.Entry<ListedInfoQuery, CacheEntry> eldest) {
+                        if (size() > ListedInfoCache.this.maximumSize) {
+                            evictionCount.increment();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * キャッシュ対象のクエリであれば正規化したキーを返します。
+     *
+     * @param query 検索条件
+     * @return キー。pagination_key を含むクエリの場合は empty
+     */
+    static Optional<ListedInfoQuery> keyOf(ListedInfoQuery query) {
+        ListedInfoQuery effectiveQuery = query == null ? ListedInfoQuery.builder().build() : query;
+        if (effectiveQuery.getPaginationKey().isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(effectiveQuery.canonicalize());
+    }
+
+    /**
+     * キャッシュ済みの値を返します。
+     *
+     * <p>TTL を過ぎていても staleWhileRevalidate の範囲内であれば古い値を返し、refresher で再取得を開始します。
+     * 同じキーの再取得は同時に 1 つだけ実行されます。
+     *
+     * @param key 正規化済みのキー
+     * @param refresher バックグラウンドで値を再取得する処理
+     * @return キャッシュ済みの値。存在しないか期限切れの場合は empty
+     */
+    Optional<ListedInfoResponse> get(
+            ListedInfoQuery key, Supplier<CompletableFuture<ListedInfoResponse>> refresher) {
+        return get(key, refresher, JQuantsMetrics.NOOP);
+    }
+
+    /**
+     * キャッシュ済みの値を返し、参照結果を metrics に通知します。
+     *
+     * @param key 正規化済みのキー
+     * @param refresher バックグラウンドで値を再取得する処理
+     * @param metrics 参照結果の通知先
+     * @return キャッシュ済みの値。存在しないか期限切れの場合は empty
+     */
+    Optional<ListedInfoResponse> get(
+            ListedInfoQuery key,
+            Supplier<CompletableFuture<ListedInfoResponse>> refresher,
+            JQuantsMetrics metrics) {
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        Instant now = clock.instant();
+        if (entry == null || !now.isBefore(entry.staleUntil)) {
+            missCount.increment();
+            metrics.cacheAccessed(ENDPOINT, CacheResult.MISS);
+            return Optional.empty();
+        }
+        if (now.isBefore(entry.freshUntil)) {
+            hitCount.increment();
+            metrics.cacheAccessed(ENDPOINT, CacheResult.HIT);
+            return Optional.of(entry.value);
+        }
+
+        staleHitCount.increment();
+        metrics.cacheAccessed(ENDPOINT, CacheResult.STALE_HIT);
+        if (entry.refreshing.compareAndSet(false, true)) {
+            CompletableFuture<ListedInfoResponse> refresh;
+            try {
+                refresh = refresher.get();
+            } catch (RuntimeException e) {
+                entry.refreshing.set(false);
+                throw e;
+            }
+            CompletableFutures.onComplete(
+                    refresh,
+                    (value, error) -> {
+                        if (value != null) {
+                            put(key, value);
+                        } else {
+                            entry.refreshing.set(false);
+                        }
+                    });
+        }
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * 値を保存します。
+     *
+     * @param key 正規化済みのキー
+     * @param value 保存する値
+     */
+    void put(ListedInfoQuery key, ListedInfoResponse value) {
+        Instant now = clock.instant();
+        Instant freshUntil = now.plus(timeToLive);
+        CacheEntry entry = new CacheEntry(value, freshUntil, freshUntil.plus(staleWhileRevalidate));
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * すべてのエントリを破棄します。
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /** 保持しているエントリ数を返します。 */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** 有効期間内の値を返した回数を返します。 */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /** 期限切れの値を返してバックグラウンドで再取得した回数を返します。 */
+    public long getStaleHitCount() {
+        return staleHitCount.sum();
+    }
+
+    /** 値がなく API を呼び出した回数を返します。 */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /** 件数上限により破棄した回数を返します。 */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private static final class CacheEntry {
+        private final ListedInfoResponse value;
+        private final Instant freshUntil;
+        private final Instant staleUntil;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private CacheEntry(ListedInfoResponse value, Instant freshUntil, Instant staleUntil) {
+            this.value = value;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+
+    public static final class Builder {
+        private int maximumSize = 10_000;
+        private Duration timeToLive = Duration.ofHours(1);
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * 保持する最大エントリ数を設定します。
+         *
+         * @param maximumSize 保持する最大エントリ数
+         * @return this
+         */
+        public Builder maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * 取得した値を再取得せずに返す期間を設定します。
+         *
+         * @param timeToLive 取得した値を再取得せずに返す期間
+         * @return this
+         */
+        public Builder timeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        /**
+         * TTL 経過後、古い値を返しつつ再取得する期間を設定します。
+         *
+         * @param staleWhileRevalidate TTL 経過後、古い値を返しつつ再取得する期間
+         * @return this
+         */
+        public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        /**
+         * TTL の判定に用いる時計を設定します。
+         *
+         * @param clock TTL の判定に用いる時計
+         * @return this
+         */
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public ListedInfoCache build() {
+            return new ListedInfoCache(this);
+        }
+    }
+}
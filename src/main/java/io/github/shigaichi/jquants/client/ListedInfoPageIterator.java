@@ -0,0 +1,123 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * pagination_key を辿って /listed/info の全ページを順に返す Iterator。
+ *
+ * <p>利用者が現在のページを処理している間に、最大 prefetchPages 件先のページまで先読みします。
+ * 次ページの取得には前ページの pagination_key が必要なため、先読みしたページも 1 件ずつ直列に取得されます。
+ */
+final class ListedInfoPageIterator implements Iterator<ListedInfo>, AutoCloseable {
+    private final Function<ListedInfoQuery, CompletableFuture<ListedInfoResponse>> fetcher;
+    private final ListedInfoQuery firstQuery;
+    private final int prefetchPages;
+    private final Deque<CompletableFuture<ListedInfoResponse>> pages = new ArrayDeque<>();
+    private CompletableFuture<ListedInfoResponse> lastPage;
+    private Iterator<ListedInfo> current = Collections.emptyIterator();
+    private boolean finished;
+
+    /**
+     * @param fetcher 1 ページを非同期に取得する関数。返した Future の cancel で取得を取り消せること
+     * @param firstQuery 最初のページの検索条件
+     * @param prefetchPages 先読みするページ数（0 の場合は先読みしない）
+     */
+    ListedInfoPageIterator(
+            Function<ListedInfoQuery, CompletableFuture<ListedInfoResponse>> fetcher,
+            ListedInfoQuery firstQuery,
+            int prefetchPages) {
+        if (prefetchPages < 0) {
+            throw new IllegalArgumentException("prefetchPagesは0以上で指定してください。");
+        }
+        this.fetcher = fetcher;
+        this.firstQuery = firstQuery == null ? ListedInfoQuery.builder().build() : firstQuery;
+        this.prefetchPages = prefetchPages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            if (pages.isEmpty()) {
+                pages.add(requestNextPage());
+            }
+            ListedInfoResponse page = await(pages.poll());
+            if (page == null) {
+                close();
+                return false;
+            }
+            current = page.getInfo().iterator();
+            while (pages.size() < prefetchPages) {
+                pages.add(requestNextPage());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ListedInfo next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * 先読み中のページ取得を取り消します。送信中のリクエストも取り消します。
+     */
+    @Override
+    public void close() {
+        finished = true;
+        pages.forEach(page -> page.cancel(true));
+        pages.clear();
+    }
+
+    /**
+     * 直前に要求したページの完了後に次ページを取得する Future を返します。最終ページ以降は null で完了します。
+     */
+    private CompletableFuture<ListedInfoResponse> requestNextPage() {
+        if (lastPage == null) {
+            lastPage = fetcher.apply(firstQuery);
+        } else {
+            lastPage = CompletableFutures.thenCompose(lastPage, this::fetchAfter);
+        }
+        return lastPage;
+    }
+
+    private CompletableFuture<ListedInfoResponse> fetchAfter(ListedInfoResponse page) {
+        if (page == null || page.getPaginationKey().isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return fetcher.apply(firstQuery.withPaginationKey(page.getPaginationKey().get()));
+    }
+
+    private ListedInfoResponse await(CompletableFuture<ListedInfoResponse> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw e;
+        }
+    }
+}
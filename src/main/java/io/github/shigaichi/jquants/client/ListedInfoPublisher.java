@@ -0,0 +1,172 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * pagination_key を辿って /listed/info の全ページの銘柄を、購読者の要求数に応じて発行する Publisher。
+ *
+ * <p>購読ごとに最初のページから取得します。次ページは取得済みの銘柄をすべて発行してもなお要求が残っている場合にだけ取得するため、
+ * 要求を超えて先のページを取得することはありません。{@link Flow.Subscription#cancel()} で取得中のページを取り消します。
+ */
+final class ListedInfoPublisher implements Flow.Publisher<ListedInfo> {
+    private final Function<ListedInfoQuery, CompletableFuture<ListedInfoResponse>> fetcher;
+    private final ListedInfoQuery firstQuery;
+
+    /**
+     * @param fetcher 1 ページを非同期に取得する関数。返した Future の cancel で取得を取り消せること
+     * @param firstQuery 最初のページの検索条件
+     */
+    ListedInfoPublisher(
+            Function<ListedInfoQuery, CompletableFuture<ListedInfoResponse>> fetcher,
+            ListedInfoQuery firstQuery) {
+        this.fetcher = Objects.requireNonNull(fetcher, "fetcher");
+        this.firstQuery = firstQuery == null ? ListedInfoQuery.builder().build() : firstQuery;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ListedInfo> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new PageSubscription(subscriber));
+    }
+
+    /**
+     * 1 購読分の状態。購読者へのシグナルは drain でだけ送り、同時に複数のスレッドから送らないようにします。
+     */
+    private final class PageSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ListedInfo> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        private volatile ListedInfoResponse fetchedPage;
+        private volatile CompletableFuture<ListedInfoResponse> inFlight;
+
+        // 以下は drain の中でだけ参照する
+        private Iterator<ListedInfo> current = Collections.emptyIterator();
+        private ListedInfoQuery nextQuery = firstQuery;
+
+        PageSubscription(Flow.Subscriber<? super ListedInfo> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("要求数は1以上で指定してください。");
+            } else {
+                requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                drainOnce();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainOnce() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            Throwable error = failure;
+            if (error != null) {
+                terminate();
+                subscriber.onError(error);
+                return;
+            }
+            ListedInfoResponse page = fetchedPage;
+            if (page != null) {
+                fetchedPage = null;
+                inFlight = null;
+                current = page.getInfo().iterator();
+                nextQuery = page.getPaginationKey().map(firstQuery::withPaginationKey).orElse(null);
+            }
+
+            long emitted = 0;
+            long demand = requested.get();
+            while (emitted < demand && current.hasNext() && !cancelled) {
+                subscriber.onNext(current.next());
+                emitted++;
+            }
+            if (emitted > 0 && demand != Long.MAX_VALUE) {
+                demand = requested.addAndGet(-emitted);
+            }
+            if (cancelled || current.hasNext() || inFlight != null) {
+                // cancel は次の周回で処理する。未発行の銘柄や取得中のページがある場合は要求か完了を待つ
+                return;
+            }
+            if (nextQuery == null) {
+                terminate();
+                subscriber.onComplete();
+            } else if (demand > 0) {
+                fetch(nextQuery);
+            }
+        }
+
+        private void fetch(ListedInfoQuery query) {
+            CompletableFuture<ListedInfoResponse> page;
+            try {
+                page = fetcher.apply(query);
+            } catch (RuntimeException e) {
+                failure = e;
+                drain();
+                return;
+            }
+            inFlight = page;
+            CompletableFutures.onComplete(
+                    page,
+                    (response, error) -> {
+                        if (error != null) {
+                            failure = unwrap(error);
+                        } else {
+                            fetchedPage = response;
+                        }
+                        drain();
+                    });
+        }
+
+        /** 購読を終了し、取得中のページを取り消して参照を手放します。 */
+        private void terminate() {
+            cancelled = true;
+            CompletableFuture<ListedInfoResponse> page = inFlight;
+            if (page != null) {
+                page.cancel(true);
+            }
+            inFlight = null;
+            fetchedPage = null;
+            current = Collections.emptyIterator();
+            nextQuery = null;
+        }
+
+        private Throwable unwrap(Throwable error) {
+            if (error instanceof CompletionException && error.getCause() != null) {
+                return error.getCause();
+            }
+            return error;
+        }
+    }
+}
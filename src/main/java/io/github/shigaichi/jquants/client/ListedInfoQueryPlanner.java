@@ -0,0 +1,308 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 銘柄コードごとの /listed/info の問い合わせを短い時間窓でまとめ、銘柄ごとの呼び出しと全銘柄の取得のうち安価な方で実行します。
+ *
+ * <p>時間窓の間に届いた問い合わせを基準日付ごとにまとめ、銘柄数 × 1 リクエストの推定コストが、全銘柄取得のページ数 ×
+ * {@code snapshotPageCost} を上回る場合は全銘柄を 1 回取得してローカルで絞り込みます。全銘柄取得のページ数は直近の取得結果から更新します。
+ * まとめられた呼び出しはすべて同じ取得結果から応答します。
+ *
+ * <pre>{@code
+ * ListedInfoQueryPlanner planner = ListedInfoQueryPlanner.builder(client).build();
+ * CompletableFuture<List<ListedInfo>> jpx = planner.lookup("86970", null);
+ * }</pre>
+ */
+public final class ListedInfoQueryPlanner {
+    private final JQuantsClient client;
+    private final Duration batchWindow;
+    private final double snapshotPageCost;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    private Map<String, Map<String, List<CompletableFuture<List<ListedInfo>>>>> pending =
+            new HashMap<>();
+    private boolean flushScheduled;
+    private volatile int estimatedSnapshotPages;
+
+    private final LongAdder perCodeBatchCount = new LongAdder();
+    private final LongAdder snapshotBatchCount = new LongAdder();
+
+    private ListedInfoQueryPlanner(Builder builder) {
+        if (!(builder.snapshotPageCost > 0.0)) {
+            throw new IllegalArgumentException("snapshotPageCostは0より大きい値で指定してください。");
+        }
+        if (builder.initialSnapshotPages <= 0) {
+            throw new IllegalArgumentException("initialSnapshotPagesは1以上で指定してください。");
+        }
+        this.client = builder.client;
+        this.batchWindow = Objects.requireNonNull(builder.batchWindow, "batchWindow");
+        this.snapshotPageCost = builder.snapshotPageCost;
+        this.executor = Objects.requireNonNull(builder.executor, "executor");
+        this.estimatedSnapshotPages = builder.initialSnapshotPages;
+    }
+
+    /**
+     * 問い合わせに用いるクライアントを指定してビルダーを生成します。
+     *
+     * @param client 問い合わせに用いるクライアント
+     * @return ビルダー
+     */
+    public static Builder builder(JQuantsClient client) {
+        return new Builder(Objects.requireNonNull(client, "client"));
+    }
+
+    /**
+     * 銘柄の情報を問い合わせます。時間窓の経過後に他の問い合わせとまとめて実行します。
+     *
+     * @param code 銘柄コード（4桁または5桁）
+     * @param date 基準日付。null の場合は最新
+     * @return 銘柄情報を返す Future。該当する銘柄がない場合は空のリスト
+     */
+    public CompletableFuture<List<ListedInfo>> lookup(String code, String date) {
+        if (StringUtils.isBlank(code)) {
+            throw new IllegalArgumentException("codeが指定されていません。");
+        }
+        ListedInfoQuery key =
+                ListedInfoQuery.builder().code(code).date(date).build().canonicalize();
+        String canonicalCode = key.getCode().orElseThrow();
+        String canonicalDate = key.getDate().orElse(null);
+
+        CompletableFuture<List<ListedInfo>> result = new CompletableFuture<>();
+        boolean schedule;
+        synchronized (lock) {
+            pending.computeIfAbsent(canonicalDate, d -> new LinkedHashMap<>())
+                    .computeIfAbsent(canonicalCode, c -> new ArrayList<>())
+                    .add(result);
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            CompletableFuture.delayedExecutor(batchWindow.toNanos(), TimeUnit.NANOSECONDS, executor)
+                    .execute(this::flush);
+        }
+        return result;
+    }
+
+    /**
+     * 複数の銘柄をまとめて問い合わせます。
+     *
+     * @param codes 銘柄コード（4桁または5桁）
+     * @param date 基準日付。null の場合は最新
+     * @return 指定した銘柄コードごとの銘柄情報を返す Future
+     */
+    public CompletableFuture<Map<String, List<ListedInfo>>> lookupAll(
+            Collection<String> codes, String date) {
+        Map<String, CompletableFuture<List<ListedInfo>>> futures = new LinkedHashMap<>();
+        for (String code : codes) {
+            futures.computeIfAbsent(code, c -> lookup(c, date));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(
+                        ignored -> {
+                            Map<String, List<ListedInfo>> results = new LinkedHashMap<>();
+                            futures.forEach((code, future) -> results.put(code, future.join()));
+                            return results;
+                        });
+    }
+
+    /** 銘柄ごとの呼び出しで実行したバッチ数を返します。 */
+    public long getPerCodeBatchCount() {
+        return perCodeBatchCount.sum();
+    }
+
+    /** 全銘柄の取得で実行したバッチ数を返します。 */
+    public long getSnapshotBatchCount() {
+        return snapshotBatchCount.sum();
+    }
+
+    /** 全銘柄取得に要すると推定しているページ数を返します。 */
+    public int getEstimatedSnapshotPages() {
+        return estimatedSnapshotPages;
+    }
+
+    /**
+     * 銘柄数に対して全銘柄取得の方が安価かを判定します。
+     *
+     * @param codeCount バッチ内の銘柄数
+     * @return 全銘柄を取得する場合は true
+     */
+    boolean prefersSnapshot(int codeCount) {
+        return codeCount > estimatedSnapshotPages * snapshotPageCost;
+    }
+
+    private void flush() {
+        Map<String, Map<String, List<CompletableFuture<List<ListedInfo>>>>> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new HashMap<>();
+            flushScheduled = false;
+        }
+        batch.forEach(this::execute);
+    }
+
+    private void execute(
+            String date, Map<String, List<CompletableFuture<List<ListedInfo>>>> waiters) {
+        if (prefersSnapshot(waiters.size())) {
+            snapshotBatchCount.increment();
+            ListedInfoQuery query = ListedInfoQuery.builder().date(date).build();
+            CompletableFutures.onComplete(
+                    fetchAllPages(query, new ArrayList<>(), 1),
+                    (snapshot, error) -> {
+                        if (error != null) {
+                            waiters.values().forEach(list -> failAll(list, error));
+                            return;
+                        }
+                        Map<String, List<ListedInfo>> byCode = groupByCode(snapshot);
+                        waiters.forEach(
+                                (code, list) ->
+                                        completeAll(
+                                                list,
+                                                byCode.getOrDefault(
+                                                        code, Collections.emptyList())));
+                    });
+            return;
+        }
+
+        perCodeBatchCount.increment();
+        waiters.forEach(
+                (code, list) ->
+                        CompletableFutures.onComplete(
+                                fetchAllPages(
+                                        ListedInfoQuery.builder().code(code).date(date).build(),
+                                        new ArrayList<>(),
+                                        0),
+                                (info, error) -> {
+                                    if (error != null) {
+                                        failAll(list, error);
+                                    } else {
+                                        completeAll(list, info);
+                                    }
+                                }));
+    }
+
+    /**
+     * pagination_key をたどって全ページを取得します。
+     *
+     * @param query 検索条件
+     * @param accumulator 取得済みの銘柄情報
+     * @param snapshotPage 全銘柄取得の場合は取得中のページ番号（1 始まり）、銘柄ごとの取得の場合は 0
+     * @return すべての銘柄情報
+     */
+    private CompletableFuture<List<ListedInfo>> fetchAllPages(
+            ListedInfoQuery query, List<ListedInfo> accumulator, int snapshotPage) {
+        return client.getListedInfoAsync(query)
+                .thenCompose(
+                        response -> {
+                            accumulator.addAll(response.getInfo());
+                            if (response.getPaginationKey().isPresent()) {
+                                return fetchAllPages(
+                                        query.withPaginationKey(response.getPaginationKey().get()),
+                                        accumulator,
+                                        snapshotPage == 0 ? 0 : snapshotPage + 1);
+                            }
+                            if (snapshotPage > 0) {
+                                estimatedSnapshotPages = snapshotPage;
+                            }
+                            return CompletableFuture.completedFuture(
+                                    Collections.unmodifiableList(accumulator));
+                        });
+    }
+
+    private static Map<String, List<ListedInfo>> groupByCode(List<ListedInfo> snapshot) {
+        Map<String, List<ListedInfo>> byCode = new HashMap<>();
+        for (ListedInfo info : snapshot) {
+            if (info.getCode() != null) {
+                byCode.computeIfAbsent(info.getCode(), c -> new ArrayList<>(1)).add(info);
+            }
+        }
+        return byCode;
+    }
+
+    private static void completeAll(
+            List<CompletableFuture<List<ListedInfo>>> waiters, List<ListedInfo> info) {
+        List<ListedInfo> result = List.copyOf(info);
+        waiters.forEach(waiter -> waiter.complete(result));
+    }
+
+    private static void failAll(List<CompletableFuture<List<ListedInfo>>> waiters, Throwable e) {
+        waiters.forEach(waiter -> waiter.completeExceptionally(e));
+    }
+
+    public static final class Builder {
+        private final JQuantsClient client;
+        private Duration batchWindow = Duration.ofMillis(10);
+        private double snapshotPageCost = 20.0;
+        private int initialSnapshotPages = 1;
+        private Executor executor = ForkJoinPool.commonPool();
+
+        private Builder(JQuantsClient client) {
+            this.client = client;
+        }
+
+        /**
+         * 問い合わせをまとめる時間窓を設定します。
+         *
+         * @param batchWindow 問い合わせをまとめる時間窓
+         * @return this
+         */
+        public Builder batchWindow(Duration batchWindow) {
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        /**
+         * 全銘柄取得の 1 ページが、銘柄ごとの呼び出し何回分に相当するかを指定します。
+         *
+         * @param snapshotPageCost 1 ページあたりの推定コスト
+         * @return this
+         */
+        public Builder snapshotPageCost(double snapshotPageCost) {
+            this.snapshotPageCost = snapshotPageCost;
+            return this;
+        }
+
+        /**
+         * 最初の全銘柄取得までに用いる推定ページ数を設定します。
+         *
+         * @param initialSnapshotPages 最初の全銘柄取得までに用いる推定ページ数
+         * @return this
+         */
+        public Builder initialSnapshotPages(int initialSnapshotPages) {
+            this.initialSnapshotPages = initialSnapshotPages;
+            return this;
+        }
+
+        /**
+         * 時間窓の経過後にバッチを実行する Executor を設定します。
+         *
+         * @param executor 時間窓の経過後にバッチを実行する Executor
+         * @return this
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public ListedInfoQueryPlanner build() {
+            return new ListedInfoQueryPlanner(this);
+        }
+    }
+}
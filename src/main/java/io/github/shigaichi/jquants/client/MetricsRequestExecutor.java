@@ -0,0 +1,126 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.metrics.JQuantsMetrics;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 送信の開始と完了、ステータスコード、受信バイト数、レイテンシを {@link JQuantsMetrics} に通知する HttpRequestExecutor。
+ *
+ * <p>再試行の各試行を計測できるよう、{@link RetryingRequestExecutor} などより内側に配置します。受信バイト数は {@link
+ * HttpClientRequestExecutor#bodyLength(HttpResponse)} で求めます。sendStreaming の場合はボディを close した時点で、読み込んだバイト数とそこまでの経過時間を通知します。
+ */
+final class MetricsRequestExecutor implements HttpRequestExecutor {
+    private final HttpRequestExecutor delegate;
+    private final JQuantsMetrics metrics;
+    private final EndpointResolver endpoints;
+
+    MetricsRequestExecutor(
+            HttpRequestExecutor delegate, JQuantsMetrics metrics, EndpointResolver endpoints) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        this.endpoints = Objects.requireNonNull(endpoints, "endpoints");
+    }
+
+    @Override
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        String endpoint = endpoints.resolve(request.uri());
+        metrics.requestStarted(endpoint);
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = delegate.send(request);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            metrics.requestFailed(endpoint, e, System.nanoTime() - start);
+            throw e;
+        }
+        completed(endpoint, response, System.nanoTime() - start);
+        return response;
+    }
+
+    @Override
+    public HttpResponse<InputStream> sendStreaming(HttpRequest request)
+            throws IOException, InterruptedException {
+        String endpoint = endpoints.resolve(request.uri());
+        metrics.requestStarted(endpoint);
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = delegate.sendStreaming(request);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            metrics.requestFailed(endpoint, e, System.nanoTime() - start);
+            throw e;
+        }
+        int statusCode = response.statusCode();
+        DecompressedHttpResponse<?> decompressed =
+                response instanceof DecompressedHttpResponse
+                        ? (DecompressedHttpResponse<?>) response
+                        : null;
+        CountingInputStream body =
+                new CountingInputStream(
+                        response.body(),
+                        bytesRead -> {
+                            long elapsed = System.nanoTime() - start;
+                            if (decompressed == null) {
+                                metrics.requestCompleted(endpoint, statusCode, bytesRead, elapsed);
+                                return;
+                            }
+                            long compressedBytes = decompressed.getCompressedBytes();
+                            metrics.requestCompleted(
+                                    endpoint, statusCode, compressedBytes, elapsed);
+                            metrics.responseDecompressed(
+                                    endpoint,
+                                    decompressed.getContentEncoding(),
+                                    compressedBytes,
+                                    bytesRead);
+                        });
+        return decompressed == null
+                ? InputStreamResponse.withBody(response, body)
+                : decompressed.withBody(body);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        String endpoint = endpoints.resolve(request.uri());
+        metrics.requestStarted(endpoint);
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = delegate.sendAsync(request);
+        } catch (RuntimeException e) {
+            metrics.requestFailed(endpoint, e, System.nanoTime() - start);
+            throw e;
+        }
+        return CompletableFutures.propagateCancel(
+                response.whenComplete(
+                        (result, error) -> {
+                            long elapsed = System.nanoTime() - start;
+                            if (error != null) {
+                                metrics.requestFailed(endpoint, error, elapsed);
+                            } else {
+                                completed(endpoint, result, elapsed);
+                            }
+                        }),
+                response);
+    }
+
+    private void completed(String endpoint, HttpResponse<String> response, long elapsedNanos) {
+        metrics.requestCompleted(
+                endpoint,
+                response.statusCode(),
+                HttpClientRequestExecutor.bodyLength(response),
+                elapsedNanos);
+        if (response instanceof DecompressedHttpResponse) {
+            DecompressedHttpResponse<?> decompressed = (DecompressedHttpResponse<?>) response;
+            metrics.responseDecompressed(
+                    endpoint,
+                    decompressed.getContentEncoding(),
+                    decompressed.getCompressedBytes(),
+                    decompressed.getDecompressedBytes());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.shigaichi.jquants.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * トークンバケットで送信レートを制限する HttpRequestExecutor。
+ *
+ * <p>バケットは毎秒 requestsPerSecond 個のトークンを補充し、最大 burst 個まで蓄えます。トークンが不足している場合、同期 API
+ * は呼び出しスレッドで待機し、非同期 API は待機後に送信する Future を返します。
+ */
+final class RateLimitingRequestExecutor implements HttpRequestExecutor {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final HttpRequestExecutor delegate;
+    private final double permitsPerNano;
+    private final double burst;
+    private final LongSupplier nanoTime;
+    private double tokens;
+    private long lastRefill;
+
+    RateLimitingRequestExecutor(HttpRequestExecutor delegate, double requestsPerSecond, int burst) {
+        this(delegate, requestsPerSecond, burst, System::nanoTime);
+    }
+
+    RateLimitingRequestExecutor(
+            HttpRequestExecutor delegate,
+            double requestsPerSecond,
+            int burst,
+            LongSupplier nanoTime) {
+        if (!(requestsPerSecond > 0.0)) {
+            throw new IllegalArgumentException("requestsPerSecondは0より大きい値で指定してください。");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burstは1以上で指定してください。");
+        }
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.permitsPerNano = requestsPerSecond / NANOS_PER_SECOND;
+        this.burst = burst;
+        this.nanoTime = nanoTime;
+        this.tokens = burst;
+        this.lastRefill = nanoTime.getAsLong();
+    }
+
+    @Override
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(reserve());
+        return delegate.send(request);
+    }
+
+    @Override
+    public HttpResponse<InputStream> sendStreaming(HttpRequest request)
+            throws IOException, InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(reserve());
+        return delegate.sendStreaming(request);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        long waitNanos = reserve();
+        if (waitNanos == 0) {
+            return delegate.sendAsync(request);
+        }
+        return CompletableFutures.thenCompose(
+                CompletableFuture.runAsync(
+                        () -> {},
+                        CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS)),
+                waited -> delegate.sendAsync(request));
+    }
+
+    /**
+     * トークンを 1 つ予約し、それが利用可能になるまでの待機時間を返します。
+     *
+     * <p>トークンが不足している場合も先に予約して残量を負にするため、待機中の呼び出しは到着順に送信されます。
+     *
+     * @return 待機時間（ナノ秒）
+     */
+    synchronized long reserve() {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+        tokens -= 1.0;
+        if (tokens >= 0.0) {
+            return 0;
+        }
+        return (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
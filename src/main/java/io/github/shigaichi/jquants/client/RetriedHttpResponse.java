@@ -0,0 +1,87 @@
+package io.github.shigaichi.jquants.client;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import javax.net.ssl.SSLSession;
+
+/**
+ * 再試行の末に得たレスポンスと、その再試行回数を保持します。
+ *
+ * @param <T> ボディの型
+ */
+final class RetriedHttpResponse<T> implements HttpResponse<T> {
+    private final HttpResponse<T> delegate;
+    private final int retryCount;
+
+    private RetriedHttpResponse(HttpResponse<T> delegate, int retryCount) {
+        this.delegate = delegate;
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * 再試行回数を付けたレスポンスを返します。再試行していない場合は response そのものを返します。
+     *
+     * @param response レスポンス
+     * @param retryCount 再試行回数
+     * @return 再試行していない場合は response そのもの
+     */
+    static <T> HttpResponse<T> of(HttpResponse<T> response, int retryCount) {
+        return retryCount == 0 ? response : new RetriedHttpResponse<>(response, retryCount);
+    }
+
+    /**
+     * レスポンスを得るまでの再試行回数を返します。
+     *
+     * @param response レスポンス
+     * @return レスポンスを得るまでの再試行回数
+     */
+    static int retryCountOf(HttpResponse<?> response) {
+        return response instanceof RetriedHttpResponse
+                ? ((RetriedHttpResponse<?>) response).retryCount
+                : 0;
+    }
+
+    @Override
+    public int statusCode() {
+        return delegate.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return delegate.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+        return delegate.previousResponse();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return delegate.headers();
+    }
+
+    @Override
+    public T body() {
+        return delegate.body();
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return delegate.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return delegate.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return delegate.version();
+    }
+}
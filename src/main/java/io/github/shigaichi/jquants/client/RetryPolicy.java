@@ -0,0 +1,192 @@
+package io.github.shigaichi.jquants.client;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 一時的なエラーを再試行する際の方針。
+ *
+ * <p>再試行対象のステータスコード（既定は 429 と 5xx の一部）と IOException を、指数バックオフにジッターを加えた間隔で再試行します。
+ * レスポンスに Retry-After ヘッダがある場合はその値を優先します（ただし {@link Builder#maxBackoff(Duration)} を上限とします）。
+ *
+ * <p>トークン取得（/token/auth_user、/token/auth_refresh）のリクエストは、認証情報を再送しないよう既定では再試行しません。
+ * 再試行する場合は {@link Builder#retryTokenRequests(boolean)} で指定します。
+ */
+public final class RetryPolicy {
+    /** 既定で再試行するステータスコード。 */
+    public static final Set<Integer> DEFAULT_RETRYABLE_STATUS_CODES =
+            Set.of(429, 500, 502, 503, 504);
+
+    private static final RetryPolicy NONE = builder().maxRetries(0).build();
+
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final double jitter;
+    private final Set<Integer> retryableStatusCodes;
+    private final boolean retryTokenRequests;
+
+    private RetryPolicy(Builder builder) {
+        if (builder.maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetriesは0以上で指定してください。");
+        }
+        if (builder.multiplier < 1.0) {
+            throw new IllegalArgumentException("multiplierは1以上で指定してください。");
+        }
+        if (builder.jitter < 0.0 || builder.jitter > 1.0) {
+            throw new IllegalArgumentException("jitterは0以上1以下で指定してください。");
+        }
+        this.maxRetries = builder.maxRetries;
+        this.initialBackoff = Objects.requireNonNull(builder.initialBackoff, "initialBackoff");
+        this.maxBackoff = Objects.requireNonNull(builder.maxBackoff, "maxBackoff");
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.retryableStatusCodes =
+                Set.copyOf(
+                        Objects.requireNonNull(
+                                builder.retryableStatusCodes, "retryableStatusCodes"));
+        this.retryTokenRequests = builder.retryTokenRequests;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** 再試行しない方針を返します。 */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /** 既定値の方針（最大 3 回、初回 500 ミリ秒、上限 30 秒）を返します。 */
+    public static RetryPolicy defaults() {
+        return builder().build();
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    boolean isRetryableStatus(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /** トークン取得のリクエストも再試行するかどうかを返します。 */
+    boolean isRetryTokenRequests() {
+        return retryTokenRequests;
+    }
+
+    /**
+     * 再試行までの待機時間を返します。
+     *
+     * @param retry 何回目の再試行か（1 始まり）
+     * @param retryAfter Retry-After ヘッダの値。ない場合は null
+     * @return 待機時間
+     */
+    Duration backoff(int retry, Duration retryAfter) {
+        if (retryAfter != null) {
+            return retryAfter.compareTo(maxBackoff) > 0 ? maxBackoff : retryAfter;
+        }
+        double base =
+                Math.min(
+                        (double) maxBackoff.toNanos(),
+                        (double) initialBackoff.toNanos() * Math.pow(multiplier, retry - 1.0));
+        double randomized = base * (1.0 - jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofNanos((long) randomized);
+    }
+
+    public static final class Builder {
+        private int maxRetries = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+        private double multiplier = 2.0;
+        private double jitter = 0.5;
+        private Set<Integer> retryableStatusCodes = DEFAULT_RETRYABLE_STATUS_CODES;
+        private boolean retryTokenRequests;
+
+        /**
+         * 最大再試行回数を設定します。
+         *
+         * @param maxRetries 最大再試行回数。0 の場合は再試行しない
+         * @return this
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * 1 回目の再試行までの待機時間を設定します。
+         *
+         * @param initialBackoff 1 回目の再試行までの待機時間
+         * @return this
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * 待機時間の上限を設定します。
+         *
+         * @param maxBackoff 待機時間の上限。Retry-After の値にも適用します
+         * @return this
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * 再試行ごとに待機時間に掛ける倍率を設定します。
+         *
+         * @param multiplier 再試行ごとに待機時間に掛ける倍率
+         * @return this
+         */
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * 待機時間からランダムに差し引く割合を設定します。
+         *
+         * @param jitter 待機時間からランダムに差し引く割合（0 以上 1 以下）
+         * @return this
+         */
+        public Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * 再試行するステータスコードを設定します。
+         *
+         * @param retryableStatusCodes 再試行するステータスコード
+         * @return this
+         */
+        public Builder retryableStatusCodes(Set<Integer> retryableStatusCodes) {
+            this.retryableStatusCodes = retryableStatusCodes;
+            return this;
+        }
+
+        /**
+         * トークン取得（/token/auth_user、/token/auth_refresh）のリクエストも再試行するかどうかを設定します。既定は false です。
+         *
+         * <p>再試行すると、サーバーが処理済みでもメールアドレスとパスワードやリフレッシュトークンを再送し、失敗した更新にレート制限の枠を重ねて消費します。
+         *
+         * @param retryTokenRequests トークン取得のリクエストも再試行する場合は true
+         * @return this
+         */
+        public Builder retryTokenRequests(boolean retryTokenRequests) {
+            this.retryTokenRequests = retryTokenRequests;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.metrics.JQuantsMetrics;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 再試行対象のステータスコードと IOException を {@link RetryPolicy} に従って再試行する HttpRequestExecutor。
+ *
+ * <p>再試行した場合、最終的なレスポンスは再試行回数を保持する {@link RetriedHttpResponse} で返します。
+ * 再試行を予約するたびに {@link JQuantsMetrics#retryScheduled} を通知します。
+ * トークン取得のリクエストは {@link RetryPolicy.Builder#retryTokenRequests(boolean)} を指定した場合だけ再試行します。
+ */
+final class RetryingRequestExecutor implements HttpRequestExecutor {
+    private static final String TOKEN_ENDPOINT_PREFIX = "/token/";
+
+    private final HttpRequestExecutor delegate;
+    private final RetryPolicy policy;
+    private final JQuantsMetrics metrics;
+    private final EndpointResolver endpoints;
+
+    RetryingRequestExecutor(HttpRequestExecutor delegate, RetryPolicy policy) {
+        this(delegate, policy, JQuantsMetrics.NOOP, new EndpointResolver(URI.create("/")));
+    }
+
+    RetryingRequestExecutor(
+            HttpRequestExecutor delegate,
+            RetryPolicy policy,
+            JQuantsMetrics metrics,
+            EndpointResolver endpoints) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        this.endpoints = Objects.requireNonNull(endpoints, "endpoints");
+    }
+
+    @Override
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        if (!isRetryable(request)) {
+            return delegate.send(request);
+        }
+        return sendWithRetry(request, delegate::send);
+    }
+
+    @Override
+    public HttpResponse<InputStream> sendStreaming(HttpRequest request)
+            throws IOException, InterruptedException {
+        if (!isRetryable(request)) {
+            return delegate.sendStreaming(request);
+        }
+        return sendWithRetry(request, delegate::sendStreaming);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        if (!isRetryable(request)) {
+            return delegate.sendAsync(request);
+        }
+        return sendAsync(request, 0, null);
+    }
+
+    private boolean isRetryable(HttpRequest request) {
+        return policy.isRetryTokenRequests()
+                || !endpoints.resolve(request.uri()).startsWith(TOKEN_ENDPOINT_PREFIX);
+    }
+
+    private <T> HttpResponse<T> sendWithRetry(HttpRequest request, Sender<T> sender)
+            throws IOException, InterruptedException {
+        IOException failure = null;
+        for (int retry = 0; ; retry++) {
+            HttpResponse<T> response;
+            try {
+                response = sender.send(request);
+            } catch (IOException e) {
+                if (failure != null) {
+                    e.addSuppressed(failure);
+                }
+                if (retry >= policy.getMaxRetries()) {
+                    throw e;
+                }
+                failure = e;
+                sleep(scheduleRetry(request, retry, null));
+                continue;
+            }
+
+            if (retry >= policy.getMaxRetries()
+                    || !policy.isRetryableStatus(response.statusCode())) {
+                return RetriedHttpResponse.of(response, retry);
+            }
+            closeBody(response);
+            sleep(scheduleRetry(request, retry, retryAfter(response).orElse(null)));
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendAsync(
+            HttpRequest request, int retry, Throwable previousFailure) {
+        CompletableFuture<HttpResponse<String>> attempt;
+        try {
+            attempt = delegate.sendAsync(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFutures.handleCompose(
+                attempt,
+                (response, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        if (previousFailure != null && cause != previousFailure) {
+                            cause.addSuppressed(previousFailure);
+                        }
+                        if (!(cause instanceof IOException) || retry >= policy.getMaxRetries()) {
+                            return CompletableFuture.<HttpResponse<String>>failedFuture(cause);
+                        }
+                        return retryAsync(request, retry, null, cause);
+                    }
+                    if (retry >= policy.getMaxRetries()
+                            || !policy.isRetryableStatus(response.statusCode())) {
+                        return CompletableFuture.completedFuture(
+                                RetriedHttpResponse.of(response, retry));
+                    }
+                    return retryAsync(request, retry, retryAfter(response).orElse(null), null);
+                });
+    }
+
+    private CompletableFuture<HttpResponse<String>> retryAsync(
+            HttpRequest request, int retry, Duration retryAfter, Throwable failure) {
+        Duration delay = scheduleRetry(request, retry, retryAfter);
+        return CompletableFutures.thenCompose(
+                CompletableFuture.runAsync(
+                        () -> {},
+                        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS)),
+                waited -> sendAsync(request, retry + 1, failure));
+    }
+
+    private Duration scheduleRetry(HttpRequest request, int retry, Duration retryAfter) {
+        Duration delay = policy.backoff(retry + 1, retryAfter);
+        metrics.retryScheduled(endpoints.resolve(request.uri()), retry + 1, delay);
+        return delay;
+    }
+
+    /**
+     * Retry-After ヘッダの値（秒数または HTTP-date）を待機時間として返します。
+     *
+     * @param response レスポンス
+     * @return 待機時間。ヘッダがないか解釈できない場合は empty
+     */
+    static Optional<Duration> retryAfter(HttpResponse<?> response) {
+        Optional<String> header = response.headers().firstValue("Retry-After");
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        String value = header.get().strip();
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value))));
+        } catch (NumberFormatException e) {
+            // HTTP-date 形式として解釈する
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration delay = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void closeBody(HttpResponse<?> response) throws IOException {
+        if (response.body() instanceof Closeable) {
+            ((Closeable) response.body()).close();
+        }
+    }
+
+    private static void sleep(Duration delay) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+    }
+
+    @FunctionalInterface
+    private interface Sender<T> {
+        HttpResponse<T> send(HttpRequest request) throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,303 @@
+package io.github.shigaichi.jquants.client;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoSnapshotFile;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 同じホスト上の複数のプロセスで全銘柄のスナップショットを共有するキャッシュ。
+ *
+ * <p>共有ディレクトリには次のファイルを置きます。
+ *
+ * <ul>
+ *   <li>{@code listed-info.control}: 世代番号と書き込み時刻（各 8 バイト）。全プロセスがメモリに割り当てて参照します
+ *   <li>{@code listed-info.lock}: 再取得するプロセスを選ぶためのファイルロック
+ *   <li>{@code listed-info-<世代番号>.bin}: {@link ListedInfoSnapshotFile} 形式のスナップショット
+ * </ul>
+ *
+ * <p>スナップショットが有効期間を過ぎると、ファイルロックを取得できた 1 プロセスだけが API から全銘柄を取得し、新しい世代のファイルを書いてから世代番号を進めます。
+ * 他のプロセスは世代番号の変化を検知すると新しいファイルを読み取り専用で割り当て直すため、API 呼び出しとヒープ使用量はプロセス数に比例しません。
+ * 古い世代のファイルは 2 世代前まで残します。世代番号と書き込み時刻は release/acquire で読み書きし、世代番号を読んだプロセスがそれ以前に書かれた
+ * 時刻とファイルを読めるようにします。
+ *
+ * <p>ファイルロックはプロセス単位のため、1 つのプロセスでは共有ディレクトリごとに 1 つのインスタンスを使ってください。
+ *
+ * <pre>{@code
+ * try (SharedListedInfoCache cache = SharedListedInfoCache.builder(Path.of("/var/cache/jquants")).build()) {
+ *     ListedInfo jpx = cache.get(client).find("8697").orElseThrow();
+ * }
+ * }</pre>
+ */
+public final class SharedListedInfoCache implements Closeable {
+    private static final String CONTROL_FILE = "listed-info.control";
+    private static final String LOCK_FILE = "listed-info.lock";
+    private static final int CONTROL_SIZE = Long.BYTES * 2;
+    private static final int GENERATION_OFFSET = 0;
+    private static final int WRITTEN_AT_OFFSET = Long.BYTES;
+    private static final int RETAINED_GENERATIONS = 2;
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final Duration timeToLive;
+    private final Clock clock;
+    private final FileChannel controlChannel;
+    private final MappedByteBuffer control;
+    private final Object mapLock = new Object();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Mapped current;
+
+    private SharedListedInfoCache(Builder builder) throws IOException {
+        this.directory = builder.directory;
+        this.timeToLive = Objects.requireNonNull(builder.timeToLive, "timeToLive");
+        this.clock = Objects.requireNonNull(builder.clock, "clock");
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLiveは正の値で指定してください。");
+        }
+        Files.createDirectories(directory);
+        this.controlChannel =
+                FileChannel.open(
+                        directory.resolve(CONTROL_FILE),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        try {
+            this.control = controlChannel.map(FileChannel.MapMode.READ_WRITE, 0, CONTROL_SIZE);
+        } catch (IOException | RuntimeException e) {
+            controlChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 共有ディレクトリを指定してビルダーを生成します。
+     *
+     * @param directory 共有ディレクトリ
+     * @return ビルダー
+     */
+    public static Builder builder(Path directory) {
+        return new Builder(Objects.requireNonNull(directory, "directory").toAbsolutePath());
+    }
+
+    /**
+     * 共有されている最新のスナップショットを返します。
+     *
+     * <p>スナップショットがない場合や有効期間を過ぎている場合は再取得を試みます。他のスレッドやプロセスが再取得中の場合は、スナップショットがあれば待たずにそれを返し、
+     * なければ再取得の完了を待ちます。期限切れのスナップショットがある状態で再取得に失敗した場合も、例外をスローせずに期限切れのスナップショットを返します。
+     * 返したスナップショットはこのキャッシュが管理するため close しないでください。
+     *
+     * @param client 再取得に用いるクライアント
+     * @return スナップショット
+     * @throws JQuantsApiException スナップショットがなく、APIエラーとなった場合
+     * @throws IOException スナップショットがなく、通信やファイルの読み書きに失敗した場合
+     * @throws InterruptedException 通信割り込み時
+     */
+    public ListedInfoSnapshotFile get(JQuantsClient client)
+            throws IOException, InterruptedException {
+        Objects.requireNonNull(client, "client");
+        Optional<ListedInfoSnapshotFile> snapshot = current();
+        if (snapshot.isEmpty()) {
+            refreshLock.lockInterruptibly();
+            try {
+                refreshIfNeeded(client, false);
+            } finally {
+                refreshLock.unlock();
+            }
+            return current().orElseThrow(() -> new IOException("共有スナップショットを取得できませんでした。"));
+        }
+        if (!isStale() || !refreshLock.tryLock()) {
+            return snapshot.get();
+        }
+        try {
+            refreshIfNeeded(client, true);
+        } catch (IOException | JQuantsApiException e) {
+            // 期限切れでもスナップショットがあれば返し、次の呼び出しで改めて再取得する
+            return snapshot.get();
+        } finally {
+            refreshLock.unlock();
+        }
+        return current().orElse(snapshot.get());
+    }
+
+    /**
+     * ファイルロックを取得できた場合に、まだ再取得されていなければ再取得します。
+     *
+     * @param client 再取得に用いるクライアント
+     * @param tryLock 他のプロセスが再取得中の場合に待たない場合は true
+     */
+    private void refreshIfNeeded(JQuantsClient client, boolean tryLock)
+            throws IOException, InterruptedException {
+        try (FileChannel lockChannel =
+                        FileChannel.open(
+                                directory.resolve(LOCK_FILE),
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE);
+                FileLock lock = tryLock ? lockChannel.tryLock() : lockChannel.lock()) {
+            // 待っている間に他のプロセスが再取得した場合は取得しない
+            if (lock != null && (generation() == 0 || isStale())) {
+                refresh(client);
+            }
+        }
+    }
+
+    /**
+     * 共有されているスナップショットを再取得せずに返します。
+     *
+     * @return スナップショット。まだ一度も取得されていない場合は empty
+     * @throws IOException ファイルの読み込みに失敗した場合
+     */
+    public Optional<ListedInfoSnapshotFile> current() throws IOException {
+        long generation = generation();
+        if (generation == 0) {
+            return Optional.empty();
+        }
+        Mapped mapped = current;
+        if (mapped != null && mapped.generation == generation) {
+            return Optional.of(mapped.file);
+        }
+        synchronized (mapLock) {
+            mapped = current;
+            if (mapped == null || mapped.generation != generation) {
+                ListedInfoSnapshotFile file = ListedInfoSnapshotFile.open(snapshotPath(generation));
+                current = new Mapped(generation, file);
+                if (mapped != null) {
+                    // 割り当て済みのバッファは close 後も有効なため、古いスナップショットを参照中の呼び出し元にも影響しない
+                    mapped.file.close();
+                }
+                mapped = current;
+            }
+            return Optional.of(mapped.file);
+        }
+    }
+
+    /**
+     * 共有されている世代番号を返します。
+     *
+     * @return 現在の世代番号。まだ一度も取得されていない場合は 0
+     */
+    public long generation() {
+        return (long) LONGS.getAcquire(control, GENERATION_OFFSET);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (mapLock) {
+            Mapped mapped = current;
+            current = null;
+            try {
+                if (mapped != null) {
+                    mapped.file.close();
+                }
+            } finally {
+                controlChannel.close();
+            }
+        }
+    }
+
+    private boolean isStale() {
+        long writtenAt = (long) LONGS.getAcquire(control, WRITTEN_AT_OFFSET);
+        return clock.millis() - writtenAt >= timeToLive.toMillis();
+    }
+
+    private void refresh(JQuantsClient client) throws IOException, InterruptedException {
+        List<ListedInfo> snapshot = new ArrayList<>();
+        ListedInfoQuery query = ListedInfoQuery.builder().build();
+        Optional<String> paginationKey = client.forEachListedInfo(query, snapshot::add);
+        while (paginationKey.isPresent()) {
+            paginationKey =
+                    client.forEachListedInfo(
+                            query.withPaginationKey(paginationKey.get()), snapshot::add);
+        }
+
+        long next = generation() + 1;
+        ListedInfoSnapshotFile.write(snapshotPath(next), snapshot);
+        // 書き込み時刻を先に更新し、世代番号を見たプロセスが新しい時刻を読めるようにする
+        LONGS.setRelease(control, WRITTEN_AT_OFFSET, clock.millis());
+        LONGS.setRelease(control, GENERATION_OFFSET, next);
+        control.force();
+
+        long obsolete = next - RETAINED_GENERATIONS - 1;
+        if (obsolete > 0) {
+            try {
+                Files.deleteIfExists(snapshotPath(obsolete));
+            } catch (IOException e) {
+                // 他のプロセスが割り当て中で削除できない環境では次回以降に任せる
+            }
+        }
+    }
+
+    private Path snapshotPath(long generation) {
+        return directory.resolve("listed-info-" + generation + ".bin");
+    }
+
+    private static final class Mapped {
+        private final long generation;
+        private final ListedInfoSnapshotFile file;
+
+        private Mapped(long generation, ListedInfoSnapshotFile file) {
+            this.generation = generation;
+            this.file = file;
+        }
+    }
+
+    public static final class Builder {
+        private final Path directory;
+        private Duration timeToLive = Duration.ofHours(1);
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * スナップショットの有効期間を設定します。
+         *
+         * @param timeToLive スナップショットの有効期間
+         * @return this
+         */
+        public Builder timeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        /**
+         * 有効期間の判定に用いる時計を設定します。
+         *
+         * @param clock 有効期間の判定に用いる時計
+         * @return this
+         */
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * キャッシュを生成し、共有ファイルを割り当てます。
+         *
+         * @return キャッシュ。使用後は close してください
+         * @throws IOException 共有ディレクトリやファイルを作成できない場合
+         */
+        public SharedListedInfoCache build() throws IOException {
+            return new SharedListedInfoCache(this);
+        }
+    }
+}
@@ -1,68 +1,599 @@
 package io.github.shigaichi.jquants.client.listedinfo;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.math.BigDecimal;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@JsonIgnoreProperties(ignoreUnknown = true)
-public class ListedInfo {
-    /** 情報適用年月日（YYYY-MM-DD）。 */
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 上場銘柄の情報。
+ *
+ * <p>不変オブジェクトのため、キャッシュなどで複数のスレッドから共有できます。情報適用年月日は epoch day の {@code int}、銘柄コードは英数字 5
+ * 桁を 36 進数として詰めた {@code int}、基準値段は桁をずらした {@code long} で保持し、従来の getter はそこから値を組み立てて返します。
+ * JSON からは {@link ListedInfoDeserializer} が逐次読み取りで生成します。
+ */
+@EqualsAndHashCode
+@JsonDeserialize(using = ListedInfoDeserializer.class)
+@JsonAutoDetect(
+        getterVisibility = Visibility.NONE,
+        isGetterVisibility = Visibility.NONE,
+        fieldVisibility = Visibility.NONE)
+public final class ListedInfo {
+    /** 情報適用年月日が未設定の場合の {@link #getEpochDay()} の値。 */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    /** 銘柄コードが未設定または英数字 5 桁でない場合の {@link #getCodeValue()} の値。 */
+    public static final int NO_CODE = -1;
+
+    private static final int CODE_LENGTH = 5;
+    private static final int CODE_RADIX = 36;
+    private static final byte NO_BASE_PRICE = Byte.MIN_VALUE;
+
+    /** 情報適用年月日（epoch day）。 */
+    private final int epochDay;
+
+    /** 銘柄コード（英数字 5 桁を 36 進数として詰めた値）。 */
+    private final int codeValue;
+
+    /** 英数字 5 桁で表せない銘柄コード。 */
+    private final String irregularCode;
+
+    /** 会社名（日本語）。 */
+    private final String companyName;
+
+    /** 会社名（英語）。 */
+    private final String companyNameEnglish;
+
+    /** 17業種コード。 */
+    private final String sector17Code;
+
+    /** 17業種コード名。 */
+    private final String sector17CodeName;
+
+    /** 33業種コード。 */
+    private final String sector33Code;
+
+    /** 33業種コード名。 */
+    private final String sector33CodeName;
+
+    /** 規模コード。 */
+    private final String scaleCategory;
+
+    /** 市場区分コード。 */
+    private final String marketCode;
+
+    /** 市場区分名。 */
+    private final String marketCodeName;
+
+    /** 貸借信用区分コード。 */
+    private final String marginCode;
+
+    /** 貸借信用区分名。 */
+    private final String marginCodeName;
+
+    /** 基準値段の仮数部。 */
+    private final long basePriceUnscaled;
+
+    /** 基準値段の小数点以下の桁数。未設定の場合は {@link #NO_BASE_PRICE}。 */
+    private final byte basePriceScale;
+
+    private ListedInfo(Builder builder) {
+        this.epochDay = builder.epochDay;
+        this.codeValue = builder.codeValue;
+        this.irregularCode = builder.irregularCode;
+        this.companyName = builder.companyName;
+        this.companyNameEnglish = builder.companyNameEnglish;
+        this.sector17Code = builder.sector17Code;
+        this.sector17CodeName = builder.sector17CodeName;
+        this.sector33Code = builder.sector33Code;
+        this.sector33CodeName = builder.sector33CodeName;
+        this.scaleCategory = builder.scaleCategory;
+        this.marketCode = builder.marketCode;
+        this.marketCodeName = builder.marketCodeName;
+        this.marginCode = builder.marginCode;
+        this.marginCodeName = builder.marginCodeName;
+        this.basePriceUnscaled = builder.basePriceUnscaled;
+        this.basePriceScale = builder.basePriceScale;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** この銘柄情報の値を初期値に持つビルダーを返します。 */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.epochDay = epochDay;
+        builder.codeValue = codeValue;
+        builder.irregularCode = irregularCode;
+        builder.companyName = companyName;
+        builder.companyNameEnglish = companyNameEnglish;
+        builder.sector17Code = sector17Code;
+        builder.sector17CodeName = sector17CodeName;
+        builder.sector33Code = sector33Code;
+        builder.sector33CodeName = sector33CodeName;
+        builder.scaleCategory = scaleCategory;
+        builder.marketCode = marketCode;
+        builder.marketCodeName = marketCodeName;
+        builder.marginCode = marginCode;
+        builder.marginCodeName = marginCodeName;
+        builder.basePriceUnscaled = basePriceUnscaled;
+        builder.basePriceScale = basePriceScale;
+        return builder;
+    }
+
+    /** 情報適用年月日（YYYY-MM-DD）を返します。 */
     @JsonProperty("Date")
-    private String date;
+    public String getDate() {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay).toString();
+    }
 
-    /** 銘柄コード。 */
+    /**
+     * 情報適用年月日を返します。
+     *
+     * @return 情報適用年月日。未設定の場合は null
+     */
+    public LocalDate getLocalDate() {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * 情報適用年月日の epoch day を返します。
+     *
+     * @return 情報適用年月日の epoch day。未設定の場合は {@link #NO_DATE}
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    /** 銘柄コードを返します。 */
     @JsonProperty("Code")
-    private String code;
+    public String getCode() {
+        return codeValue == NO_CODE ? irregularCode : decodeCode(codeValue);
+    }
 
-    /** 会社名（日本語）。 */
+    /**
+     * 銘柄コードを 36 進数として詰めた値を返します。英数字 5 桁の銘柄コードどうしは、文字列と同じ順序で大小比較できます。
+     *
+     * @return 銘柄コードの値。未設定または英数字 5 桁でない場合は {@link #NO_CODE}
+     */
+    public int getCodeValue() {
+        return codeValue;
+    }
+
+    /** 会社名（日本語）を返します。 */
     @JsonProperty("CompanyName")
-    private String companyName;
+    public String getCompanyName() {
+        return companyName;
+    }
 
-    /** 会社名（英語）。 */
+    /** 会社名（英語）を返します。 */
     @JsonProperty("CompanyNameEnglish")
-    private String companyNameEnglish;
+    public String getCompanyNameEnglish() {
+        return companyNameEnglish;
+    }
 
-    /** 17業種コード。 */
+    /** 17業種コードを返します。 */
     @JsonProperty("Sector17Code")
-    private String sector17Code;
+    public String getSector17Code() {
+        return sector17Code;
+    }
 
-    /** 17業種コード名。 */
+    /** 17業種コード名を返します。 */
     @JsonProperty("Sector17CodeName")
-    private String sector17CodeName;
+    public String getSector17CodeName() {
+        return sector17CodeName;
+    }
 
-    /** 33業種コード。 */
+    /** 33業種コードを返します。 */
     @JsonProperty("Sector33Code")
-    private String sector33Code;
+    public String getSector33Code() {
+        return sector33Code;
+    }
 
-    /** 33業種コード名。 */
+    /** 33業種コード名を返します。 */
     @JsonProperty("Sector33CodeName")
-    private String sector33CodeName;
+    public String getSector33CodeName() {
+        return sector33CodeName;
+    }
 
-    /** 規模コード。 */
+    /** 規模コードを返します。 */
     @JsonProperty("ScaleCategory")
-    private String scaleCategory;
+    public String getScaleCategory() {
+        return scaleCategory;
+    }
 
-    /** 市場区分コード。 */
+    /** 市場区分コードを返します。 */
     @JsonProperty("MarketCode")
-    private String marketCode;
+    public String getMarketCode() {
+        return marketCode;
+    }
 
-    /** 市場区分名。 */
+    /** 市場区分名を返します。 */
     @JsonProperty("MarketCodeName")
-    private String marketCodeName;
+    public String getMarketCodeName() {
+        return marketCodeName;
+    }
 
-    /** 貸借信用区分コード。 */
+    /** 貸借信用区分コードを返します。 */
     @JsonProperty("MarginCode")
-    private String marginCode;
+    public String getMarginCode() {
+        return marginCode;
+    }
 
-    /** 貸借信用区分名。 */
+    /** 貸借信用区分名を返します。 */
     @JsonProperty("MarginCodeName")
-    private String marginCodeName;
+    public String getMarginCodeName() {
+        return marginCodeName;
+    }
 
-    /** 制限値幅算出の基準となる値段。 */
+    /**
+     * 制限値幅算出の基準となる値段を返します。
+     *
+     * @return 制限値幅算出の基準となる値段。未設定の場合は null
+     */
     @JsonProperty("BasePrice")
-    private BigDecimal basePrice;
+    public BigDecimal getBasePrice() {
+        return hasBasePrice() ? BigDecimal.valueOf(basePriceUnscaled, basePriceScale) : null;
+    }
+
+    /** 基準値段が設定されているかどうかを返します。 */
+    public boolean hasBasePrice() {
+        return basePriceScale != NO_BASE_PRICE;
+    }
+
+    /**
+     * 基準値段を {@code getBasePriceUnscaled() × 10^-getBasePriceScale()} として表したときの仮数部を返します。
+     *
+     * @return 基準値段の仮数部。未設定の場合は 0
+     */
+    public long getBasePriceUnscaled() {
+        return basePriceUnscaled;
+    }
+
+    /**
+     * 基準値段の小数点以下の桁数を返します。
+     *
+     * @return 基準値段の小数点以下の桁数。未設定の場合は 0
+     */
+    public int getBasePriceScale() {
+        return hasBasePrice() ? basePriceScale : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ListedInfo(date="
+                + getDate()
+                + ", code="
+                + getCode()
+                + ", companyName="
+                + companyName
+                + ", companyNameEnglish="
+                + companyNameEnglish
+                + ", sector17Code="
+                + sector17Code
+                + ", sector17CodeName="
+                + sector17CodeName
+                + ", sector33Code="
+                + sector33Code
+                + ", sector33CodeName="
+                + sector33CodeName
+                + ", scaleCategory="
+                + scaleCategory
+                + ", marketCode="
+                + marketCode
+                + ", marketCodeName="
+                + marketCodeName
+                + ", marginCode="
+                + marginCode
+                + ", marginCodeName="
+                + marginCodeName
+                + ", basePrice="
+                + getBasePrice()
+                + ")";
+    }
+
+    /**
+     * 英数字 5 桁の銘柄コードを 36 進数として {@code int} に詰めます。
+     *
+     * @param code 銘柄コード
+     * @return 詰めた値。null または英数字 5 桁でない場合は {@link #NO_CODE}
+     */
+    static int encodeCode(String code) {
+        if (code == null || code.length() != CODE_LENGTH) {
+            return NO_CODE;
+        }
+        int value = 0;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char c = code.charAt(i);
+            int digit = c < 128 && !Character.isLowerCase(c) ? Character.digit(c, CODE_RADIX) : -1;
+            if (digit < 0) {
+                return NO_CODE;
+            }
+            value = value * CODE_RADIX + digit;
+        }
+        return value;
+    }
+
+    /**
+     * {@link #encodeCode(String)} で詰めた値を銘柄コードに戻します。
+     *
+     * @param value 詰めた値
+     * @return 銘柄コード
+     */
+    static String decodeCode(int value) {
+        char[] chars = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = Character.toUpperCase(Character.forDigit(value % CODE_RADIX, CODE_RADIX));
+            value /= CODE_RADIX;
+        }
+        return new String(chars);
+    }
+
+    public static final class Builder {
+        private int epochDay = NO_DATE;
+        private int codeValue = NO_CODE;
+        private String irregularCode;
+        private String companyName;
+        private String companyNameEnglish;
+        private String sector17Code;
+        private String sector17CodeName;
+        private String sector33Code;
+        private String sector33CodeName;
+        private String scaleCategory;
+        private String marketCode;
+        private String marketCodeName;
+        private String marginCode;
+        private String marginCodeName;
+        private long basePriceUnscaled;
+        private byte basePriceScale = NO_BASE_PRICE;
+
+        private Builder() {}
+
+        /**
+         * 情報適用年月日を文字列で設定します。
+         *
+         * @param date 情報適用年月日（YYYY-MM-DD または YYYYMMDD）。null または空白の場合は未設定
+         * @return this
+         */
+        public Builder date(String date) {
+            if (date == null || date.isBlank()) {
+                this.epochDay = NO_DATE;
+                return this;
+            }
+            try {
+                DateTimeFormatter format =
+                        date.length() == 8
+                                ? DateTimeFormatter.BASIC_ISO_DATE
+                                : DateTimeFormatter.ISO_LOCAL_DATE;
+                return date(LocalDate.parse(date, format));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("dateはYYYY-MM-DDまたはYYYYMMDD形式で指定してください。", e);
+            }
+        }
+
+        /**
+         * 情報適用年月日を設定します。
+         *
+         * @param date 情報適用年月日。null の場合は未設定
+         * @return this
+         */
+        public Builder date(LocalDate date) {
+            this.epochDay = date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+            return this;
+        }
+
+        /**
+         * 情報適用年月日の epoch day を設定します。
+         *
+         * @param epochDay 情報適用年月日の epoch day。{@link #NO_DATE} の場合は未設定
+         * @return this
+         */
+        public Builder epochDay(int epochDay) {
+            this.epochDay = epochDay;
+            return this;
+        }
+
+        /**
+         * 銘柄コードを設定します。
+         *
+         * @param code 銘柄コード
+         * @return this
+         */
+        public Builder code(String code) {
+            this.codeValue = encodeCode(code);
+            this.irregularCode = codeValue == NO_CODE ? code : null;
+            return this;
+        }
+
+        /**
+         * 数値に詰めた銘柄コードをそのまま設定します。
+         *
+         * @param codeValue {@link ListedInfo#getCodeValue()} の値
+         * @param irregularCode codeValue が {@link #NO_CODE} の場合の銘柄コード
+         * @return this
+         */
+        Builder packedCode(int codeValue, String irregularCode) {
+            this.codeValue = codeValue;
+            this.irregularCode = codeValue == NO_CODE ? irregularCode : null;
+            return this;
+        }
+
+        /**
+         * 会社名（日本語）を設定します。
+         *
+         * @param companyName 会社名（日本語）
+         * @return this
+         */
+        public Builder companyName(String companyName) {
+            this.companyName = companyName;
+            return this;
+        }
+
+        /**
+         * 会社名（英語）を設定します。
+         *
+         * @param companyNameEnglish 会社名（英語）
+         * @return this
+         */
+        public Builder companyNameEnglish(String companyNameEnglish) {
+            this.companyNameEnglish = companyNameEnglish;
+            return this;
+        }
+
+        /**
+         * 17業種コードを設定します。
+         *
+         * @param sector17Code 17業種コード
+         * @return this
+         */
+        public Builder sector17Code(String sector17Code) {
+            this.sector17Code = sector17Code;
+            return this;
+        }
+
+        /**
+         * 17業種コード名を設定します。
+         *
+         * @param sector17CodeName 17業種コード名
+         * @return this
+         */
+        public Builder sector17CodeName(String sector17CodeName) {
+            this.sector17CodeName = sector17CodeName;
+            return this;
+        }
+
+        /**
+         * 33業種コードを設定します。
+         *
+         * @param sector33Code 33業種コード
+         * @return this
+         */
+        public Builder sector33Code(String sector33Code) {
+            this.sector33Code = sector33Code;
+            return this;
+        }
+
+        /**
+         * 33業種コード名を設定します。
+         *
+         * @param sector33CodeName 33業種コード名
+         * @return this
+         */
+        public Builder sector33CodeName(String sector33CodeName) {
+            this.sector33CodeName = sector33CodeName;
+            return this;
+        }
+
+        /**
+         * 規模コードを設定します。
+         *
+         * @param scaleCategory 規模コード
+         * @return this
+         */
+        public Builder scaleCategory(String scaleCategory) {
+            this.scaleCategory = scaleCategory;
+            return this;
+        }
+
+        /**
+         * 市場区分コードを設定します。
+         *
+         * @param marketCode 市場区分コード
+         * @return this
+         */
+        public Builder marketCode(String marketCode) {
+            this.marketCode = marketCode;
+            return this;
+        }
+
+        /**
+         * 市場区分名を設定します。
+         *
+         * @param marketCodeName 市場区分名
+         * @return this
+         */
+        public Builder marketCodeName(String marketCodeName) {
+            this.marketCodeName = marketCodeName;
+            return this;
+        }
+
+        /**
+         * 貸借信用区分コードを設定します。
+         *
+         * @param marginCode 貸借信用区分コード
+         * @return this
+         */
+        public Builder marginCode(String marginCode) {
+            this.marginCode = marginCode;
+            return this;
+        }
+
+        /**
+         * 貸借信用区分名を設定します。
+         *
+         * @param marginCodeName 貸借信用区分名
+         * @return this
+         */
+        public Builder marginCodeName(String marginCodeName) {
+            this.marginCodeName = marginCodeName;
+            return this;
+        }
+
+        /**
+         * 制限値幅算出の基準となる値段を設定します。
+         *
+         * @param basePrice 制限値幅算出の基準となる値段。null の場合は未設定
+         * @return this
+         */
+        public Builder basePrice(BigDecimal basePrice) {
+            if (basePrice == null) {
+                this.basePriceUnscaled = 0;
+                this.basePriceScale = NO_BASE_PRICE;
+                return this;
+            }
+            BigDecimal normalized = basePrice.scale() < 0 ? basePrice.setScale(0) : basePrice;
+            if (!fitsPacked(normalized)) {
+                normalized = normalized.stripTrailingZeros();
+                if (normalized.scale() < 0) {
+                    normalized = normalized.setScale(0);
+                }
+            }
+            if (!fitsPacked(normalized)) {
+                throw new IllegalArgumentException("basePriceの桁数が多すぎます。");
+            }
+            this.basePriceUnscaled = normalized.unscaledValue().longValue();
+            this.basePriceScale = (byte) normalized.scale();
+            return this;
+        }
+
+        /**
+         * 基準値段の仮数部を設定します。
+         *
+         * @param unscaled 基準値段の仮数部
+         * @param scale 基準値段の小数点以下の桁数（0〜127）
+         * @return this
+         */
+        public Builder basePrice(long unscaled, int scale) {
+            if (scale < 0 || scale > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("scaleは0以上127以下で指定してください。");
+            }
+            this.basePriceUnscaled = unscaled;
+            this.basePriceScale = (byte) scale;
+            return this;
+        }
+
+        public ListedInfo build() {
+            return new ListedInfo(this);
+        }
+
+        private static boolean fitsPacked(BigDecimal value) {
+            return value.scale() <= Byte.MAX_VALUE && value.unscaledValue().bitLength() <= 63;
+        }
+    }
 }
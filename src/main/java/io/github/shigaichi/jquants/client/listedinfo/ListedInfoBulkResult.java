@@ -0,0 +1,49 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.ToString;
+
+/**
+ * 複数銘柄の /listed/info を一括取得した結果。
+ *
+ * <p>取得に成功した銘柄は {@link #getResults()}、失敗した銘柄は {@link #getFailures()} に、指定した順序で格納されます。
+ */
+@ToString
+public final class ListedInfoBulkResult {
+    private final Map<String, List<ListedInfo>> results;
+    private final Map<String, Exception> failures;
+
+    /**
+     * 一括取得の結果を生成します。
+     *
+     * @param results 銘柄コードごとの取得結果
+     * @param failures 銘柄コードごとの失敗原因
+     */
+    public ListedInfoBulkResult(
+            Map<String, List<ListedInfo>> results, Map<String, Exception> failures) {
+        this.results = Collections.unmodifiableMap(new LinkedHashMap<>(results));
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    /**
+     * 銘柄コードごとの銘柄情報を返します。
+     *
+     * @return 銘柄コードごとの銘柄情報。該当する銘柄がなかった場合は空のリスト
+     */
+    public Map<String, List<ListedInfo>> getResults() {
+        return results;
+    }
+
+    /** 取得に失敗した銘柄コードとその原因を返します。 */
+    public Map<String, Exception> getFailures() {
+        return failures;
+    }
+
+    /** すべての銘柄の取得に成功したかどうかを返します。 */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * 2 つのスナップショット間での銘柄情報の変更。
+ *
+ * @see ListedInfoDiff
+ */
+@ToString
+@EqualsAndHashCode
+public final class ListedInfoChange {
+    /** 変更の種類。 */
+    public enum Type {
+        /** 新規上場（比較先にだけ存在する）。 */
+        LISTED,
+        /** 上場廃止（比較元にだけ存在する）。 */
+        DELISTED,
+        /** 項目の変更。 */
+        CHANGED
+    }
+
+    /** 比較する項目。情報適用年月日は比較しません。 */
+    public enum Field {
+        /** 会社名（日本語）。 */
+        COMPANY_NAME,
+        /** 会社名（英語）。 */
+        COMPANY_NAME_ENGLISH,
+        /** 17業種コード・17業種コード名。 */
+        SECTOR17,
+        /** 33業種コード・33業種コード名。 */
+        SECTOR33,
+        /** 規模コード。 */
+        SCALE,
+        /** 市場区分コード・市場区分名。 */
+        MARKET,
+        /** 貸借信用区分コード・貸借信用区分名。 */
+        MARGIN,
+        /** 基準値段。 */
+        BASE_PRICE
+    }
+
+    private final Type type;
+    private final String code;
+    private final ListedInfo before;
+    private final ListedInfo after;
+    private final Set<Field> changedFields;
+
+    private ListedInfoChange(
+            Type type, String code, ListedInfo before, ListedInfo after, Set<Field> changedFields) {
+        this.type = type;
+        this.code = code;
+        this.before = before;
+        this.after = after;
+        this.changedFields = changedFields;
+    }
+
+    static ListedInfoChange listed(ListedInfo after) {
+        return new ListedInfoChange(
+                Type.LISTED, after.getCode(), null, after, Collections.emptySet());
+    }
+
+    static ListedInfoChange delisted(ListedInfo before) {
+        return new ListedInfoChange(
+                Type.DELISTED, before.getCode(), before, null, Collections.emptySet());
+    }
+
+    /**
+     * 2 つの銘柄情報を比較し、変更された項目を求めます。
+     *
+     * @return 変更された項目がない場合は empty
+     */
+    static Optional<ListedInfoChange> changed(ListedInfo before, ListedInfo after) {
+        EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+        compare(fields, Field.COMPANY_NAME, before.getCompanyName(), after.getCompanyName());
+        compare(
+                fields,
+                Field.COMPANY_NAME_ENGLISH,
+                before.getCompanyNameEnglish(),
+                after.getCompanyNameEnglish());
+        compare(fields, Field.SECTOR17, before.getSector17Code(), after.getSector17Code());
+        compare(fields, Field.SECTOR17, before.getSector17CodeName(), after.getSector17CodeName());
+        compare(fields, Field.SECTOR33, before.getSector33Code(), after.getSector33Code());
+        compare(fields, Field.SECTOR33, before.getSector33CodeName(), after.getSector33CodeName());
+        compare(fields, Field.SCALE, before.getScaleCategory(), after.getScaleCategory());
+        compare(fields, Field.MARKET, before.getMarketCode(), after.getMarketCode());
+        compare(fields, Field.MARKET, before.getMarketCodeName(), after.getMarketCodeName());
+        compare(fields, Field.MARGIN, before.getMarginCode(), after.getMarginCode());
+        compare(fields, Field.MARGIN, before.getMarginCodeName(), after.getMarginCodeName());
+        BigDecimal beforePrice = before.getBasePrice();
+        BigDecimal afterPrice = after.getBasePrice();
+        if (beforePrice == null
+                ? afterPrice != null
+                : afterPrice == null || beforePrice.compareTo(afterPrice) != 0) {
+            fields.add(Field.BASE_PRICE);
+        }
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(
+                new ListedInfoChange(
+                        Type.CHANGED,
+                        after.getCode(),
+                        before,
+                        after,
+                        Collections.unmodifiableSet(fields)));
+    }
+
+    private static void compare(Set<Field> fields, Field field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            fields.add(field);
+        }
+    }
+
+    /** 変更の種類を返します。 */
+    public Type getType() {
+        return type;
+    }
+
+    /** 変更があった銘柄の銘柄コードを返します。 */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 比較元の銘柄情報を返します。
+     *
+     * @return 比較元の銘柄情報。新規上場の場合は empty
+     */
+    public Optional<ListedInfo> getBefore() {
+        return Optional.ofNullable(before);
+    }
+
+    /**
+     * 比較先の銘柄情報を返します。
+     *
+     * @return 比較先の銘柄情報。上場廃止の場合は empty
+     */
+    public Optional<ListedInfo> getAfter() {
+        return Optional.ofNullable(after);
+    }
+
+    /**
+     * 変更された項目を返します。
+     *
+     * @return 変更された項目。{@link Type#CHANGED} 以外の場合は空
+     */
+    public Set<Field> getChangedFields() {
+        return changedFields;
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * /listed/info の {@code info} 要素をリフレクションを使わず逐次読み取りで {@link ListedInfo} に変換します。
+ *
+ * <p>未知の項目は読み飛ばします。
+ */
+final class ListedInfoDeserializer extends StdDeserializer<ListedInfo> {
+    private static final long serialVersionUID = 1L;
+
+    ListedInfoDeserializer() {
+        super(ListedInfo.class);
+    }
+
+    @Override
+    public ListedInfo deserialize(JsonParser parser, DeserializationContext context)
+            throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        ListedInfo.Builder builder = ListedInfo.builder();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "Date":
+                    String date = text(parser);
+                    try {
+                        builder.date(date);
+                    } catch (IllegalArgumentException e) {
+                        throw context.weirdStringException(date, ListedInfo.class, e.getMessage());
+                    }
+                    break;
+                case "Code":
+                    builder.code(text(parser));
+                    break;
+                case "CompanyName":
+                    builder.companyName(text(parser));
+                    break;
+                case "CompanyNameEnglish":
+                    builder.companyNameEnglish(text(parser));
+                    break;
+                case "Sector17Code":
+                    builder.sector17Code(text(parser));
+                    break;
+                case "Sector17CodeName":
+                    builder.sector17CodeName(text(parser));
+                    break;
+                case "Sector33Code":
+                    builder.sector33Code(text(parser));
+                    break;
+                case "Sector33CodeName":
+                    builder.sector33CodeName(text(parser));
+                    break;
+                case "ScaleCategory":
+                    builder.scaleCategory(text(parser));
+                    break;
+                case "MarketCode":
+                    builder.marketCode(text(parser));
+                    break;
+                case "MarketCodeName":
+                    builder.marketCodeName(text(parser));
+                    break;
+                case "MarginCode":
+                    builder.marginCode(text(parser));
+                    break;
+                case "MarginCodeName":
+                    builder.marginCodeName(text(parser));
+                    break;
+                case "BasePrice":
+                    builder.basePrice(decimal(parser, context));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            return (ListedInfo) context.handleUnexpectedToken(ListedInfo.class, parser);
+        }
+        return builder.build();
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    private static BigDecimal decimal(JsonParser parser, DeserializationContext context)
+            throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric()) {
+            return parser.getDecimalValue();
+        }
+        String text = text(parser);
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            throw context.weirdStringException(text, BigDecimal.class, "数値ではありません。");
+        }
+    }
+}
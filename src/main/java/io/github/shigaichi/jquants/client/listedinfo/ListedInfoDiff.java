@@ -0,0 +1,278 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 2 つのスナップショットを銘柄コードで突き合わせ、新規上場・上場廃止・項目の変更を {@link ListedInfoChange} として返します。
+ *
+ * <p>比較元の各銘柄は情報適用年月日を除く項目から 64 ビットの指紋を計算して保持し、比較先の指紋が一致する銘柄は項目ごとの比較を省きます。
+ * 比較はいずれも線形時間で、銘柄コードのない要素や 2 件目以降の重複した銘柄コードは無視します。
+ *
+ * <pre>{@code
+ * List<ListedInfoChange> changes = ListedInfoDiff.between(yesterday, today);
+ * }</pre>
+ */
+public final class ListedInfoDiff {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<Baseline> baselines;
+    private final Map<String, Integer> indexByCode;
+
+    private ListedInfoDiff(Collection<ListedInfo> before) {
+        this.baselines = new ArrayList<>(before.size());
+        this.indexByCode = new HashMap<>(before.size() * 4 / 3 + 1);
+        for (ListedInfo info : before) {
+            Objects.requireNonNull(info, "info");
+            String code = info.getCode();
+            if (code != null && !indexByCode.containsKey(code)) {
+                indexByCode.put(code, baselines.size());
+                baselines.add(new Baseline(info, fingerprint(info)));
+            }
+        }
+    }
+
+    /**
+     * 比較元のスナップショットを索引化します。得られたインスタンスは複数の比較先との比較に繰り返し使えます。
+     *
+     * @param before 比較元のスナップショット
+     * @return 比較元
+     */
+    public static ListedInfoDiff baseline(Collection<ListedInfo> before) {
+        return new ListedInfoDiff(before);
+    }
+
+    /**
+     * 2 つのスナップショットを比較します。
+     *
+     * <p>変更は比較先の順序で新規上場・項目の変更を、続いて比較元の順序で上場廃止を返します。
+     *
+     * @param before 比較元のスナップショット
+     * @param after 比較先のスナップショット
+     * @return 変更の一覧
+     */
+    public static List<ListedInfoChange> between(
+            Collection<ListedInfo> before, Collection<ListedInfo> after) {
+        List<ListedInfoChange> changes = new ArrayList<>();
+        Comparison comparison = baseline(before).compare(changes::add);
+        after.forEach(comparison);
+        comparison.finish();
+        return changes;
+    }
+
+    /**
+     * 銘柄コードの昇順に並んだ 2 つのスナップショットを突き合わせ、変更を逐次 sink に渡します。
+     *
+     * <p>どちらのスナップショットも 1 件ずつしか保持しないため、ページングで取得しながら比較できます。変更は銘柄コードの昇順に渡します。
+     *
+     * @param before 銘柄コードの昇順に並んだ比較元
+     * @param after 銘柄コードの昇順に並んだ比較先
+     * @param sink 変更を受け取る処理
+     * @throws IllegalArgumentException 銘柄コードが昇順に並んでいない場合
+     */
+    public static void betweenSorted(
+            Iterator<ListedInfo> before,
+            Iterator<ListedInfo> after,
+            Consumer<? super ListedInfoChange> sink) {
+        Objects.requireNonNull(sink, "sink");
+        SortedCursor left = new SortedCursor(before, "before");
+        SortedCursor right = new SortedCursor(after, "after");
+        while (left.current != null || right.current != null) {
+            int order =
+                    left.current == null
+                            ? 1
+                            : right.current == null
+                                    ? -1
+                                    : left.current.getCode().compareTo(right.current.getCode());
+            if (order < 0) {
+                sink.accept(ListedInfoChange.delisted(left.current));
+                left.advance();
+            } else if (order > 0) {
+                sink.accept(ListedInfoChange.listed(right.current));
+                right.advance();
+            } else {
+                if (fingerprint(left.current) != fingerprint(right.current)) {
+                    ListedInfoChange.changed(left.current, right.current).ifPresent(sink);
+                }
+                left.advance();
+                right.advance();
+            }
+        }
+    }
+
+    /**
+     * 比較先の銘柄を 1 件ずつ受け取って比較を始めます。比較先はリストとして保持する必要はありません。
+     *
+     * @param sink 変更を受け取る処理
+     * @return 比較先を受け取る処理。すべて渡した後に {@link Comparison#finish()} を呼び出してください
+     */
+    public Comparison compare(Consumer<? super ListedInfoChange> sink) {
+        return new Comparison(Objects.requireNonNull(sink, "sink"));
+    }
+
+    /** 比較元の銘柄数を返します。 */
+    public int size() {
+        return baselines.size();
+    }
+
+    /**
+     * 情報適用年月日を除く項目から 64 ビットの指紋（FNV-1a）を計算します。
+     *
+     * @param info 銘柄情報
+     * @return 指紋
+     */
+    static long fingerprint(ListedInfo info) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, info.getCompanyName());
+        hash = mix(hash, info.getCompanyNameEnglish());
+        hash = mix(hash, info.getSector17Code());
+        hash = mix(hash, info.getSector17CodeName());
+        hash = mix(hash, info.getSector33Code());
+        hash = mix(hash, info.getSector33CodeName());
+        hash = mix(hash, info.getScaleCategory());
+        hash = mix(hash, info.getMarketCode());
+        hash = mix(hash, info.getMarketCodeName());
+        hash = mix(hash, info.getMarginCode());
+        hash = mix(hash, info.getMarginCodeName());
+        if (info.hasBasePrice()) {
+            BigDecimal basePrice = info.getBasePrice().stripTrailingZeros();
+            hash = mix(hash, basePrice.unscaledValue().longValue());
+            hash = mix(hash, basePrice.scale());
+        } else {
+            hash = mix(hash, Long.MIN_VALUE);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // 項目の区切り。"ab" + "c" と "a" + "bc" を区別する
+        return mix(hash, value.length());
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ (value & 0xff)) * FNV_PRIME;
+            value >>>= Byte.SIZE;
+        }
+        return hash;
+    }
+
+    /** 比較元と 1 つの比較先との比較。 */
+    public final class Comparison implements Consumer<ListedInfo> {
+        private final Consumer<? super ListedInfoChange> sink;
+        private final BitSet matched = new BitSet(baselines.size());
+        private final Set<String> listed = new HashSet<>();
+        private boolean finished;
+
+        private Comparison(Consumer<? super ListedInfoChange> sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * 比較先の銘柄を 1 件比較し、変更があれば sink に渡します。
+         *
+         * @param after 比較先の銘柄情報
+         */
+        @Override
+        public void accept(ListedInfo after) {
+            if (finished) {
+                throw new IllegalStateException("比較は終了しています。");
+            }
+            String code = Objects.requireNonNull(after, "after").getCode();
+            if (code == null) {
+                return;
+            }
+            Integer index = indexByCode.get(code);
+            if (index == null) {
+                if (listed.add(code)) {
+                    sink.accept(ListedInfoChange.listed(after));
+                }
+                return;
+            }
+            if (matched.get(index)) {
+                return;
+            }
+            matched.set(index);
+            Baseline baseline = baselines.get(index);
+            if (baseline.fingerprint != fingerprint(after)) {
+                ListedInfoChange.changed(baseline.info, after).ifPresent(sink);
+            }
+        }
+
+        /** 比較先に現れなかった比較元の銘柄を上場廃止として sink に渡します。 */
+        public void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            for (int index = matched.nextClearBit(0);
+                    index < baselines.size();
+                    index = matched.nextClearBit(index + 1)) {
+                sink.accept(ListedInfoChange.delisted(baselines.get(index).info));
+            }
+        }
+    }
+
+    private static final class Baseline {
+        private final ListedInfo info;
+        private final long fingerprint;
+
+        private Baseline(ListedInfo info, long fingerprint) {
+            this.info = info;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static final class SortedCursor {
+        private final Iterator<ListedInfo> iterator;
+        private final String name;
+        private ListedInfo current;
+
+        private SortedCursor(Iterator<ListedInfo> iterator, String name) {
+            this.iterator = Objects.requireNonNull(iterator, name);
+            this.name = name;
+            advance();
+        }
+
+        private void advance() {
+            String previous = current == null ? null : current.getCode();
+            current = null;
+            while (iterator.hasNext()) {
+                ListedInfo next = Objects.requireNonNull(iterator.next(), name);
+                String code = next.getCode();
+                if (code == null) {
+                    continue;
+                }
+                if (previous != null) {
+                    int order = code.compareTo(previous);
+                    if (order < 0) {
+                        throw new IllegalArgumentException(
+                                name + "の銘柄コードが昇順に並んでいません: " + previous + ", " + code);
+                    }
+                    if (order == 0) {
+                        continue;
+                    }
+                }
+                current = next;
+                return;
+            }
+        }
+    }
+}
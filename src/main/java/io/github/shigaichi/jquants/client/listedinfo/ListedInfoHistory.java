@@ -0,0 +1,230 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 基準日付ごとの全銘柄のスナップショットを、変更のない銘柄情報を共有しながら保持する履歴。
+ *
+ * <p>各日付は直前の日付からの差分（追加・変更された銘柄と削除された銘柄）として保持し、{@code keyframeInterval} 件ごとに全銘柄を持つキーフレームを置きます。
+ * そのため {@link #asOf(String)} が辿る差分は高々 {@code keyframeInterval - 1} 件です。情報適用年月日以外の項目が変わらない銘柄は、前の日付と同じ
+ * {@link ListedInfo} インスタンスを共有します。このため返す銘柄情報の {@link ListedInfo#getDate()} は、その内容が最初に登録された日付になります。
+ *
+ * <pre>{@code
+ * ListedInfoHistory history = ListedInfoHistory.builder().build();
+ * client.loadListedInfoHistory(history, dates);
+ * List<ListedInfo> universe = history.asOf("2024-03-29").orElseThrow();
+ * }</pre>
+ */
+public final class ListedInfoHistory {
+    private final int keyframeInterval;
+    private final NavigableMap<LocalDate, Version> versions = new TreeMap<>();
+
+    private ListedInfoHistory(Builder builder) {
+        if (builder.keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframeIntervalは1以上で指定してください。");
+        }
+        this.keyframeInterval = builder.keyframeInterval;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 基準日付のスナップショットを登録します。同じ日付が登録済みの場合は置き換えます。
+     *
+     * @param date 基準日付（YYYY-MM-DD または YYYYMMDD）
+     * @param snapshot 全銘柄のスナップショット。銘柄コードのない要素や 2 件目以降の重複した銘柄コードは無視します
+     */
+    public synchronized void put(String date, Collection<ListedInfo> snapshot) {
+        LocalDate key = parseDate(date);
+        Objects.requireNonNull(snapshot, "snapshot");
+        Map.Entry<LocalDate, Version> previousEntry = versions.lowerEntry(key);
+        Version previous = previousEntry == null ? null : previousEntry.getValue();
+        Map<String, Record> previousRecords = previous == null ? Map.of() : previous.materialize();
+
+        Map<String, Record> upserts = new HashMap<>();
+        Set<String> codes = new HashSet<>();
+        for (ListedInfo info : snapshot) {
+            String code = Objects.requireNonNull(info, "info").getCode();
+            if (code == null || !codes.add(code)) {
+                continue;
+            }
+            long fingerprint = ListedInfoDiff.fingerprint(info);
+            Record record = previousRecords.get(code);
+            if (record == null || record.fingerprint != fingerprint) {
+                upserts.put(code, new Record(info, fingerprint));
+            } else if (previous == null || previous.depth + 1 >= keyframeInterval) {
+                upserts.put(code, record);
+            }
+        }
+
+        Version version;
+        if (previous == null || previous.depth + 1 >= keyframeInterval) {
+            version = new Version(null, 0, upserts, Set.of());
+        } else {
+            Set<String> removals = new HashSet<>(previousRecords.keySet());
+            removals.removeAll(codes);
+            version = new Version(previous, previous.depth + 1, upserts, removals);
+        }
+        versions.put(key, version);
+    }
+
+    /**
+     * 基準日付時点の全銘柄を返します。
+     *
+     * @param date 基準日付（YYYY-MM-DD または YYYYMMDD）
+     * @return 基準日付以前で最も新しい登録日付の全銘柄（銘柄コード順）。基準日付以前の登録がない場合は empty
+     */
+    public synchronized Optional<List<ListedInfo>> asOf(String date) {
+        Map.Entry<LocalDate, Version> entry = versions.floorEntry(parseDate(date));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        List<ListedInfo> result = new ArrayList<>();
+        entry.getValue().materialize().values().forEach(record -> result.add(record.info));
+        result.sort(Comparator.comparing(ListedInfo::getCode));
+        return Optional.of(result);
+    }
+
+    /**
+     * 基準日付時点の 1 銘柄を返します。全銘柄を組み立てず、キーフレームまでの差分だけを辿ります。
+     *
+     * @param date 基準日付（YYYY-MM-DD または YYYYMMDD）
+     * @param code 銘柄コード（4桁または5桁）
+     * @return 銘柄情報。基準日付以前の登録がない場合や、その時点で上場していない場合は empty
+     */
+    public synchronized Optional<ListedInfo> asOf(String date, String code) {
+        Map.Entry<LocalDate, Version> entry = versions.floorEntry(parseDate(date));
+        if (entry == null || code == null) {
+            return Optional.empty();
+        }
+        String canonicalCode = code.length() == 4 ? code + "0" : code;
+        for (Version version = entry.getValue(); version != null; version = version.base) {
+            Record record = version.upserts.get(canonicalCode);
+            if (record != null) {
+                return Optional.of(record.info);
+            }
+            if (version.removals.contains(canonicalCode)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** 登録済みの基準日付（昇順、YYYY-MM-DD）を返します。 */
+    public synchronized List<String> getDates() {
+        List<String> dates = new ArrayList<>(versions.size());
+        versions.keySet().forEach(date -> dates.add(date.toString()));
+        return dates;
+    }
+
+    /** 登録済みの基準日付の数を返します。 */
+    public synchronized int size() {
+        return versions.size();
+    }
+
+    /**
+     * 基準日付の登録がキーフレームかどうかを返します。
+     *
+     * @param date 基準日付
+     * @return 基準日付の登録がキーフレームの場合は true
+     */
+    synchronized boolean isKeyframe(String date) {
+        Version version = versions.get(parseDate(date));
+        return version != null && version.base == null;
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            throw new IllegalArgumentException("dateが指定されていません。");
+        }
+        try {
+            return LocalDate.parse(
+                    date,
+                    date.length() == 8
+                            ? DateTimeFormatter.BASIC_ISO_DATE
+                            : DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("dateはYYYY-MM-DDまたはYYYYMMDD形式で指定してください。", e);
+        }
+    }
+
+    private static final class Record {
+        private final ListedInfo info;
+        private final long fingerprint;
+
+        private Record(ListedInfo info, long fingerprint) {
+            this.info = info;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /** キーフレーム（base が null）または base からの差分。 */
+    private static final class Version {
+        private final Version base;
+        private final int depth;
+        private final Map<String, Record> upserts;
+        private final Set<String> removals;
+
+        private Version(
+                Version base, int depth, Map<String, Record> upserts, Set<String> removals) {
+            this.base = base;
+            this.depth = depth;
+            this.upserts = upserts;
+            this.removals = removals;
+        }
+
+        private Map<String, Record> materialize() {
+            Deque<Version> chain = new ArrayDeque<>();
+            for (Version version = this; version != null; version = version.base) {
+                chain.push(version);
+            }
+            Map<String, Record> records = new HashMap<>(chain.peek().upserts);
+            chain.pop();
+            while (!chain.isEmpty()) {
+                Version delta = chain.pop();
+                records.keySet().removeAll(delta.removals);
+                records.putAll(delta.upserts);
+            }
+            return records;
+        }
+    }
+
+    public static final class Builder {
+        private int keyframeInterval = 20;
+
+        private Builder() {}
+
+        /**
+         * 全銘柄を保持するキーフレームの間隔を設定します。
+         *
+         * @param keyframeInterval 全銘柄を保持するキーフレームの間隔（登録件数）。1 の場合はすべてキーフレーム
+         * @return this
+         */
+        public Builder keyframeInterval(int keyframeInterval) {
+            this.keyframeInterval = keyframeInterval;
+            return this;
+        }
+
+        public ListedInfoHistory build() {
+            return new ListedInfoHistory(this);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 銘柄情報のスナップショットに対する読み取り専用の索引。
+ *
+ * <p>銘柄コードからの検索はハッシュ表で、業種・市場区分・貸借信用区分・規模の各コードによる絞り込みはコードごとの {@link BitSet}
+ * の積で行います。
+ *
+ * <pre>{@code
+ * ListedInfoIndex index = ListedInfoIndex.of(response.getInfo());
+ * List<ListedInfo> primeBanks =
+ *         index.where(Field.MARKET, "0111").and(Field.SECTOR33, "7050").toList();
+ * }</pre>
+ */
+public final class ListedInfoIndex {
+    /** 絞り込みに使える項目。 */
+    public enum Field {
+        /** 17業種コード。 */
+        SECTOR17,
+        /** 33業種コード。 */
+        SECTOR33,
+        /** 市場区分コード。 */
+        MARKET,
+        /** 貸借信用区分コード。 */
+        MARGIN,
+        /** 規模コード。 */
+        SCALE;
+
+        private String valueOf(ListedInfo info) {
+            switch (this) {
+                case SECTOR17:
+                    return info.getSector17Code();
+                case SECTOR33:
+                    return info.getSector33Code();
+                case MARKET:
+                    return info.getMarketCode();
+                case MARGIN:
+                    return info.getMarginCode();
+                case SCALE:
+                    return info.getScaleCategory();
+                default:
+                    throw new AssertionError(this);
+            }
+        }
+    }
+
+    private final List<ListedInfo> rows;
+    private final Map<String, Integer> rowsByCode;
+    private final Map<Field, Map<String, BitSet>> postings;
+
+    private ListedInfoIndex(List<ListedInfo> rows) {
+        this.rows = rows;
+        this.rowsByCode = new HashMap<>(rows.size() * 4 / 3 + 1);
+        this.postings = new EnumMap<>(Field.class);
+        for (Field field : Field.values()) {
+            postings.put(field, new HashMap<>());
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            ListedInfo info = rows.get(row);
+            String code = canonicalCode(info.getCode());
+            if (code != null) {
+                rowsByCode.putIfAbsent(code, row);
+            }
+            for (Field field : Field.values()) {
+                String value = field.valueOf(info);
+                if (value != null) {
+                    postings.get(field).computeIfAbsent(value, v -> new BitSet()).set(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * 銘柄情報のスナップショットから索引を生成します。
+     *
+     * @param infos 銘柄情報のスナップショット
+     * @return 索引
+     */
+    public static ListedInfoIndex of(Collection<ListedInfo> infos) {
+        List<ListedInfo> rows = new ArrayList<>(infos.size());
+        for (ListedInfo info : infos) {
+            rows.add(Objects.requireNonNull(info, "info"));
+        }
+        return new ListedInfoIndex(Collections.unmodifiableList(rows));
+    }
+
+    /** 銘柄数を返します。 */
+    public int size() {
+        return rows.size();
+    }
+
+    /** 索引に含まれるすべての銘柄情報を返します。 */
+    public List<ListedInfo> getAll() {
+        return rows;
+    }
+
+    /**
+     * 銘柄コードで検索します。同じ銘柄コードが複数ある場合は先頭の行を返します。
+     *
+     * @param code 銘柄コード（4桁または5桁）
+     * @return 銘柄情報
+     */
+    public Optional<ListedInfo> get(String code) {
+        Integer row = rowsByCode.get(canonicalCode(code));
+        return row == null ? Optional.empty() : Optional.of(rows.get(row));
+    }
+
+    /**
+     * 項目ごとに索引に含まれるコードの一覧を返します。
+     *
+     * @param field 項目
+     * @return 索引に含まれるコードの一覧
+     */
+    public Set<String> values(Field field) {
+        return Collections.unmodifiableSet(postings.get(field).keySet());
+    }
+
+    /**
+     * 指定した項目のコードに一致する銘柄で絞り込みを始めます。
+     *
+     * @param field 項目
+     * @param value コード
+     * @return 絞り込み条件
+     */
+    public Selection where(Field field, String value) {
+        return new Selection().and(field, value);
+    }
+
+    /** 条件のない（すべての銘柄に一致する）絞り込み条件を返します。 */
+    public Selection all() {
+        return new Selection();
+    }
+
+    private BitSet posting(Field field, String value) {
+        return postings.get(Objects.requireNonNull(field, "field")).get(value);
+    }
+
+    private static String canonicalCode(String code) {
+        return code != null && code.length() == 4 ? code + "0" : code;
+    }
+
+    /**
+     * 索引に対する絞り込み条件。条件は論理積で結合し、結果の取得時に件数の少ない条件から順に積をとります。
+     *
+     * <p>インスタンスはスレッドセーフではありません。
+     */
+    public final class Selection {
+        private final List<BitSet> conditions = new ArrayList<>();
+
+        private Selection() {}
+
+        /**
+         * 項目がコードに一致する条件を追加します。
+         *
+         * @param field 項目
+         * @param value コード
+         * @return this
+         */
+        public Selection and(Field field, String value) {
+            BitSet posting = posting(field, value);
+            conditions.add(posting == null ? new BitSet() : posting);
+            return this;
+        }
+
+        /**
+         * 指定したコードのいずれかに一致する条件を追加します。
+         *
+         * @param field 項目
+         * @param values コード
+         * @return this
+         */
+        public Selection andAnyOf(Field field, Collection<String> values) {
+            BitSet union = new BitSet();
+            for (String value : values) {
+                BitSet posting = posting(field, value);
+                if (posting != null) {
+                    union.or(posting);
+                }
+            }
+            conditions.add(union);
+            return this;
+        }
+
+        /** 条件に一致する行番号の集合を返します。 */
+        public BitSet toBitSet() {
+            if (conditions.isEmpty()) {
+                BitSet all = new BitSet(rows.size());
+                all.set(0, rows.size());
+                return all;
+            }
+            List<BitSet> ordered = new ArrayList<>(conditions);
+            ordered.sort(Comparator.comparingInt(BitSet::cardinality));
+            BitSet result = (BitSet) ordered.get(0).clone();
+            for (int i = 1; i < ordered.size() && !result.isEmpty(); i++) {
+                result.and(ordered.get(i));
+            }
+            return result;
+        }
+
+        /** 条件に一致する銘柄数を返します。 */
+        public int count() {
+            return toBitSet().cardinality();
+        }
+
+        /** 条件に一致する銘柄情報（スナップショット内の順序）を返します。 */
+        public List<ListedInfo> toList() {
+            BitSet matched = toBitSet();
+            List<ListedInfo> result = new ArrayList<>(matched.cardinality());
+            for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+                result.add(rows.get(row));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 会社名（日本語・英語）の検索用索引。
+ *
+ * <p>会社名は NFKC 正規化と小文字化を施したうえで、前方一致用のトライ木と、部分一致用の文字 1-gram・2-gram の転置索引に登録します。検索結果は
+ * 完全一致、前方一致、部分一致の順に、同じ順位の中では会社名の短い順に並べます。前方一致だけで件数が足りる場合は部分一致の候補を調べません。
+ *
+ * <p>{@link #update(Collection)} は銘柄コードごとに前回のスナップショットとの差分だけを索引に反映します。検索と更新は複数のスレッドから並行して呼び出せます。
+ */
+public final class ListedInfoNameIndex {
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int SUBSTRING = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotsByCode = new HashMap<>();
+    private final List<Slot> slots = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final TrieNode root = new TrieNode();
+    private final Map<String, BitSet> grams = new HashMap<>();
+
+    private ListedInfoNameIndex() {}
+
+    /**
+     * 銘柄情報のスナップショットから会社名の索引を生成します。
+     *
+     * @param snapshot 銘柄情報のスナップショット
+     * @return 索引
+     */
+    public static ListedInfoNameIndex of(Collection<ListedInfo> snapshot) {
+        ListedInfoNameIndex index = new ListedInfoNameIndex();
+        index.update(snapshot);
+        return index;
+    }
+
+    /**
+     * 新しいスナップショットを反映します。会社名の変わらない銘柄はそのまま残し、追加・削除・会社名の変わった銘柄だけを索引に反映します。
+     *
+     * @param snapshot 銘柄情報のスナップショット。銘柄コードのない要素は無視します
+     */
+    public void update(Collection<ListedInfo> snapshot) {
+        Map<String, ListedInfo> latest = new LinkedHashMap<>();
+        for (ListedInfo info : snapshot) {
+            Objects.requireNonNull(info, "info");
+            if (info.getCode() != null) {
+                latest.putIfAbsent(info.getCode(), info);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (String code : new ArrayList<>(slotsByCode.keySet())) {
+                if (!latest.containsKey(code)) {
+                    remove(slotsByCode.remove(code));
+                }
+            }
+            for (ListedInfo info : latest.values()) {
+                Integer slot = slotsByCode.get(info.getCode());
+                if (slot == null) {
+                    slotsByCode.put(info.getCode(), add(info));
+                    continue;
+                }
+                Slot current = slots.get(slot);
+                String japanese = normalize(info.getCompanyName());
+                String english = normalize(info.getCompanyNameEnglish());
+                if (Objects.equals(current.japanese, japanese)
+                        && Objects.equals(current.english, english)) {
+                    slots.set(slot, new Slot(info, current.japanese, current.english));
+                } else {
+                    remove(slot);
+                    slotsByCode.put(info.getCode(), add(info));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 索引に登録されている銘柄数を返します。 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByCode.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 会社名を検索します。
+     *
+     * @param query 検索語（日本語または英語。大文字・小文字、全角・半角は区別しません）
+     * @param limit 最大件数
+     * @return 一致した銘柄情報（順位の高い順）。検索語が空白の場合は空のリスト
+     */
+    public List<ListedInfo> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limitは1以上で指定してください。");
+        }
+        String normalized = normalize(query);
+        if (normalized == null || normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match> best = new PriorityQueue<>(Match.ORDER.reversed());
+            Set<Integer> seen = new HashSet<>();
+            TrieNode node = root.find(normalized);
+            if (node != null) {
+                for (int i = 0; i < node.size; i++) {
+                    offer(best, seen, node.slots[i], normalized, limit);
+                }
+            }
+            if (best.size() < limit) {
+                BitSet candidates = candidates(normalized);
+                for (int slot = candidates.nextSetBit(0);
+                        slot >= 0;
+                        slot = candidates.nextSetBit(slot + 1)) {
+                    offer(best, seen, slot, normalized, limit);
+                }
+            }
+
+            Match[] ranked = best.toArray(new Match[0]);
+            Arrays.sort(ranked, Match.ORDER);
+            List<ListedInfo> result = new ArrayList<>(ranked.length);
+            for (Match match : ranked) {
+                result.add(slots.get(match.slot).info);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void offer(
+            PriorityQueue<Match> best, Set<Integer> seen, int slot, String query, int limit) {
+        if (!seen.add(slot)) {
+            return;
+        }
+        Slot entry = slots.get(slot);
+        Match match = null;
+        for (String name : new String[] {entry.japanese, entry.english}) {
+            if (name == null) {
+                continue;
+            }
+            int tier = name.equals(query) ? EXACT : name.startsWith(query) ? PREFIX : SUBSTRING;
+            if (tier == SUBSTRING && !name.contains(query)) {
+                continue;
+            }
+            Match candidate = new Match(slot, tier, name.length(), entry.info.getCode());
+            if (match == null || Match.ORDER.compare(candidate, match) < 0) {
+                match = candidate;
+            }
+        }
+        if (match == null) {
+            return;
+        }
+        if (best.size() < limit) {
+            best.add(match);
+        } else if (Match.ORDER.compare(match, best.peek()) < 0) {
+            best.poll();
+            best.add(match);
+        }
+    }
+
+    private BitSet candidates(String query) {
+        List<BitSet> postings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            BitSet posting = grams.get(gram);
+            if (posting == null) {
+                return new BitSet();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet result = (BitSet) postings.get(0).clone();
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.and(postings.get(i));
+        }
+        return result;
+    }
+
+    private int add(ListedInfo info) {
+        Slot entry =
+                new Slot(
+                        info,
+                        normalize(info.getCompanyName()),
+                        normalize(info.getCompanyNameEnglish()));
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = slots.size();
+            slots.add(entry);
+        } else {
+            slot = freeSlots.pop();
+            slots.set(slot, entry);
+        }
+        for (String name : entry.names()) {
+            root.insert(name, slot);
+            for (String gram : grams(name)) {
+                grams.computeIfAbsent(gram, g -> new BitSet()).set(slot);
+            }
+        }
+        return slot;
+    }
+
+    private void remove(int slot) {
+        Slot entry = slots.get(slot);
+        for (String name : entry.names()) {
+            root.remove(name, 0, slot);
+            for (String gram : grams(name)) {
+                BitSet posting = grams.get(gram);
+                if (posting != null) {
+                    posting.clear(slot);
+                    if (posting.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    /**
+     * 文字列に含まれる 1-gram（1 文字の場合）または 2-gram の集合を返します。
+     *
+     * @param text 正規化済みの文字列
+     * @return gram の集合
+     */
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        if (text.length() == 1) {
+            result.add(text);
+            return result;
+        }
+        for (int i = 0; i + 2 <= text.length(); i++) {
+            result.add(text.substring(i, i + 2));
+        }
+        for (int i = 0; i < text.length(); i++) {
+            result.add(text.substring(i, i + 1));
+        }
+        return result;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized =
+                Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).strip();
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static final class Slot {
+        private final ListedInfo info;
+        private final String japanese;
+        private final String english;
+
+        private Slot(ListedInfo info, String japanese, String english) {
+            this.info = info;
+            this.japanese = japanese;
+            this.english = english;
+        }
+
+        private List<String> names() {
+            List<String> names = new ArrayList<>(2);
+            if (japanese != null) {
+                names.add(japanese);
+            }
+            if (english != null && !english.equals(japanese)) {
+                names.add(english);
+            }
+            return names;
+        }
+    }
+
+    private static final class Match {
+        private static final Comparator<Match> ORDER =
+                Comparator.<Match>comparingInt(m -> m.tier)
+                        .thenComparingInt(m -> m.length)
+                        .thenComparing(m -> m.code);
+
+        private final int slot;
+        private final int tier;
+        private final int length;
+        private final String code;
+
+        private Match(int slot, int tier, int length, String code) {
+            this.slot = slot;
+            this.tier = tier;
+            this.length = length;
+            this.code = code;
+        }
+    }
+
+    /** 前方一致用のトライ木の節。節を通るすべての会社名のスロット番号を保持します。 */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private int[] slots = new int[1];
+        private int size;
+
+        private void insert(String name, int slot) {
+            TrieNode node = this;
+            for (int i = 0; i < name.length(); i++) {
+                node = node.children.computeIfAbsent(name.charAt(i), c -> new TrieNode());
+                node.addSlot(slot);
+            }
+        }
+
+        private void remove(String name, int depth, int slot) {
+            if (depth == name.length()) {
+                return;
+            }
+            TrieNode child = children.get(name.charAt(depth));
+            if (child == null) {
+                return;
+            }
+            child.removeSlot(slot);
+            child.remove(name, depth + 1, slot);
+            if (child.size == 0) {
+                children.remove(name.charAt(depth));
+            }
+        }
+
+        private TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        private void addSlot(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private void removeSlot(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
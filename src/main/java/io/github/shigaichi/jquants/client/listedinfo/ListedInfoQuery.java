@@ -1,5 +1,6 @@
 package io.github.shigaichi.jquants.client.listedinfo;
 
+import java.util.Objects;
 import java.util.Optional;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -41,6 +42,44 @@ public final class ListedInfoQuery {
         return Optional.ofNullable(paginationKey);
     }
 
+    /**
+     * 同じ検索条件でページング用キーだけを差し替えたクエリを返します。
+     *
+     * @param paginationKey ページング用キー。null または空白の場合はキーなし。
+     * @return 新しいクエリ
+     */
+    public ListedInfoQuery withPaginationKey(String paginationKey) {
+        return builder().code(code).date(date).paginationKey(paginationKey).build();
+    }
+
+    /**
+     * API 上同じ結果になるクエリが等しくなるよう正規化したクエリを返します。
+     *
+     * <p>日付は YYYY-MM-DD に、4桁の銘柄コードは末尾に 0 を付けた5桁に揃えます（例: {@code 20240101} と
+     * {@code 2024-01-01}、{@code 8697} と {@code 86970} は同じクエリになります）。
+     *
+     * @return 正規化したクエリ
+     */
+    public ListedInfoQuery canonicalize() {
+        String canonicalCode = code != null && code.length() == 4 ? code + "0" : code;
+        String canonicalDate =
+                date != null && date.length() == 8 && date.chars().allMatch(Character::isDigit)
+                        ? date.substring(0, 4)
+                                + "-"
+                                + date.substring(4, 6)
+                                + "-"
+                                + date.substring(6)
+                        : date;
+        if (Objects.equals(canonicalCode, code) && Objects.equals(canonicalDate, date)) {
+            return this;
+        }
+        return builder()
+                .code(canonicalCode)
+                .date(canonicalDate)
+                .paginationKey(paginationKey)
+                .build();
+    }
+
     public static final class Builder {
         private String code;
         private String date;
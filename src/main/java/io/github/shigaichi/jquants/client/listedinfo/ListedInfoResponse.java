@@ -1,31 +1,53 @@
 package io.github.shigaichi.jquants.client.listedinfo;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
 import lombok.ToString;
 
-@Getter
+/**
+ * /listed/info のレスポンス。
+ *
+ * <p>不変オブジェクトのため、同時に同じ検索条件で呼び出した複数のスレッドで共有されます。
+ */
 @ToString
 @EqualsAndHashCode
-@NoArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class ListedInfoResponse {
+public final class ListedInfoResponse {
     /** 銘柄情報リスト。 */
-    @JsonProperty("info")
-    private List<ListedInfo> info = Collections.emptyList();
+    private final List<ListedInfo> info;
 
     /** ページング用キー。 */
-    @JsonProperty("pagination_key")
-    private String paginationKey;
+    private final String paginationKey;
+
+    public ListedInfoResponse() {
+        this(null, null);
+    }
+
+    /**
+     * @param info 銘柄情報リスト。null の場合は空
+     * @param paginationKey ページング用キー
+     */
+    @JsonCreator
+    public ListedInfoResponse(
+            @JsonProperty("info") List<ListedInfo> info,
+            @JsonProperty("pagination_key") String paginationKey) {
+        this.info =
+                info == null
+                        ? List.of()
+                        : info.stream()
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toUnmodifiableList());
+        this.paginationKey = paginationKey;
+    }
 
     public List<ListedInfo> getInfo() {
-        return info == null ? Collections.emptyList() : Collections.unmodifiableList(info);
+        return info;
     }
 
     public Optional<String> getPaginationKey() {
@@ -0,0 +1,345 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * 全銘柄のスナップショットを保存するバイナリファイル。
+ *
+ * <p>ファイルは次の順に構成します（数値はすべてビッグエンディアン）。
+ *
+ * <ol>
+ *   <li>ヘッダ（32 バイト）: マジック {@code JQLI}、形式バージョン、行の幅、行数、文字列数、行・文字列オフセット表・文字列本体の開始位置
+ *   <li>行（固定長）: 情報適用年月日の epoch day、銘柄コードの値、各文字列項目の文字列番号（未設定は -1）、基準値段の仮数部と桁数
+ *   <li>文字列オフセット表: 文字列番号ごとの文字列本体内の開始位置（文字列数 + 1 件）
+ *   <li>文字列本体: 重複を除いた UTF-8 文字列
+ *   <li>CRC-32: 先頭からここまでのチェックサム（8 バイト）
+ * </ol>
+ *
+ * <p>行は銘柄コード順に並べます。{@link #open(Path)} はファイルを {@link FileChannel#map} でメモリに割り当て、JSON の解析なしに {@link #get(int)}
+ * や {@link #find(String)} の呼び出し時に 1 行ずつ {@link ListedInfo} を組み立てます。
+ *
+ * <pre>{@code
+ * ListedInfoSnapshotFile.write(path, snapshot);
+ * try (ListedInfoSnapshotFile file = ListedInfoSnapshotFile.open(path)) {
+ *     ListedInfo jpx = file.find("8697").orElseThrow();
+ * }
+ * }</pre>
+ *
+ * <p>インスタンスは複数のスレッドから読み取れます。
+ */
+public final class ListedInfoSnapshotFile implements Closeable {
+    /** 現在の形式バージョン。 */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4A514C49; // "JQLI"
+    private static final int HEADER_SIZE = 32;
+    private static final int CHECKSUM_SIZE = Long.BYTES;
+    private static final int NO_STRING = -1;
+    private static final int STRING_FIELDS = 12;
+    private static final int ROW_WIDTH =
+            Integer.BYTES * 2 + Integer.BYTES * STRING_FIELDS + Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final int stringCount;
+    private final int rowsOffset;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final String[] strings;
+
+    private ListedInfoSnapshotFile(FileChannel channel, ByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        int limit = buffer.limit();
+        if (limit < HEADER_SIZE + CHECKSUM_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("スナップショットファイルではありません。");
+        }
+        int version = Short.toUnsignedInt(buffer.getShort(4));
+        if (version != FORMAT_VERSION) {
+            throw new IOException("対応していない形式バージョンです: " + version);
+        }
+        if (Short.toUnsignedInt(buffer.getShort(6)) != ROW_WIDTH) {
+            throw new IOException("スナップショットファイルの行の幅が不正です。");
+        }
+        this.rowCount = buffer.getInt(8);
+        this.stringCount = buffer.getInt(12);
+        this.rowsOffset = buffer.getInt(16);
+        this.stringOffsetsOffset = buffer.getInt(20);
+        this.stringDataOffset = buffer.getInt(24);
+        if (rowCount < 0
+                || stringCount < 0
+                || rowsOffset != HEADER_SIZE
+                || stringOffsetsOffset != rowsOffset + (long) rowCount * ROW_WIDTH
+                || stringDataOffset != stringOffsetsOffset + (stringCount + 1L) * Integer.BYTES
+                || stringDataOffset > limit - CHECKSUM_SIZE
+                || stringDataOffset + (long) buffer.getInt(stringDataOffset - Integer.BYTES)
+                        != limit - CHECKSUM_SIZE) {
+            throw new IOException("スナップショットファイルのヘッダが不正です。");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(limit - CHECKSUM_SIZE));
+        if (crc.getValue() != buffer.getLong(limit - CHECKSUM_SIZE)) {
+            throw new IOException("スナップショットファイルのチェックサムが一致しません。");
+        }
+        this.strings = new String[stringCount];
+    }
+
+    /**
+     * スナップショットをファイルに書き込みます。同じディレクトリの一時ファイルに書いてからリネームします。
+     *
+     * @param path 書き込み先
+     * @param snapshot 全銘柄のスナップショット
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public static void write(Path path, Collection<ListedInfo> snapshot) throws IOException {
+        Path target = Objects.requireNonNull(path, "path").toAbsolutePath();
+        List<ListedInfo> rows = new ArrayList<>(snapshot.size());
+        for (ListedInfo info : snapshot) {
+            rows.add(Objects.requireNonNull(info, "info"));
+        }
+        rows.sort(
+                Comparator.comparing(ListedInfo::getCode, Comparator.nullsLast(String::compareTo)));
+
+        Map<String, Integer> stringIds = new LinkedHashMap<>();
+        ByteBuffer rowBuffer = ByteBuffer.allocate(Math.multiplyExact(rows.size(), ROW_WIDTH));
+        for (ListedInfo info : rows) {
+            rowBuffer.putInt(info.getEpochDay());
+            rowBuffer.putInt(info.getCodeValue());
+            rowBuffer.putInt(
+                    stringId(
+                            stringIds,
+                            info.getCodeValue() == ListedInfo.NO_CODE ? info.getCode() : null));
+            rowBuffer.putInt(stringId(stringIds, info.getCompanyName()));
+            rowBuffer.putInt(stringId(stringIds, info.getCompanyNameEnglish()));
+            rowBuffer.putInt(stringId(stringIds, info.getSector17Code()));
+            rowBuffer.putInt(stringId(stringIds, info.getSector17CodeName()));
+            rowBuffer.putInt(stringId(stringIds, info.getSector33Code()));
+            rowBuffer.putInt(stringId(stringIds, info.getSector33CodeName()));
+            rowBuffer.putInt(stringId(stringIds, info.getScaleCategory()));
+            rowBuffer.putInt(stringId(stringIds, info.getMarketCode()));
+            rowBuffer.putInt(stringId(stringIds, info.getMarketCodeName()));
+            rowBuffer.putInt(stringId(stringIds, info.getMarginCode()));
+            rowBuffer.putInt(stringId(stringIds, info.getMarginCodeName()));
+            rowBuffer.putLong(info.getBasePriceUnscaled());
+            rowBuffer.putInt(info.hasBasePrice() ? info.getBasePriceScale() : NO_STRING);
+        }
+
+        List<byte[]> encoded = new ArrayList<>(stringIds.size());
+        int stringBytes = 0;
+        for (String value : stringIds.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            stringBytes = Math.addExact(stringBytes, bytes.length);
+        }
+        int stringOffsetsOffset = HEADER_SIZE + rowBuffer.capacity();
+        int stringDataOffset = stringOffsetsOffset + (encoded.size() + 1) * Integer.BYTES;
+        int size = Math.addExact(Math.addExact(stringDataOffset, stringBytes), CHECKSUM_SIZE);
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC);
+        out.putShort((short) FORMAT_VERSION);
+        out.putShort((short) ROW_WIDTH);
+        out.putInt(rows.size());
+        out.putInt(encoded.size());
+        out.putInt(HEADER_SIZE);
+        out.putInt(stringOffsetsOffset);
+        out.putInt(stringDataOffset);
+        out.putInt(0);
+        out.put(rowBuffer.flip());
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            out.putInt(offset);
+            offset += bytes.length;
+        }
+        out.putInt(offset);
+        encoded.forEach(out::put);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putLong(crc.getValue());
+
+        Path directory = target.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, ".jquants-listed-info", ".tmp");
+        try {
+            Files.write(temp, out.array());
+            try {
+                Files.move(
+                        temp,
+                        target,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * ファイルをメモリに割り当てて開きます。ヘッダとチェックサムを検証します。
+     *
+     * @param path スナップショットファイル
+     * @return 開いたファイル。使用後は close してください
+     * @throws IOException 読み込みに失敗した場合や、ファイルの形式が不正な場合
+     */
+    public static ListedInfoSnapshotFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ListedInfoSnapshotFile(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** 銘柄数を返します。 */
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * 指定した行の銘柄情報を組み立てて返します。
+     *
+     * @param index 行番号（銘柄コード順）
+     * @return 銘柄情報
+     */
+    public ListedInfo get(int index) {
+        Objects.checkIndex(index, rowCount);
+        int row = rowsOffset + index * ROW_WIDTH;
+        ListedInfo.Builder builder =
+                ListedInfo.builder()
+                        .epochDay(buffer.getInt(row))
+                        .packedCode(buffer.getInt(row + Integer.BYTES), string(row, 0))
+                        .companyName(string(row, 1))
+                        .companyNameEnglish(string(row, 2))
+                        .sector17Code(string(row, 3))
+                        .sector17CodeName(string(row, 4))
+                        .sector33Code(string(row, 5))
+                        .sector33CodeName(string(row, 6))
+                        .scaleCategory(string(row, 7))
+                        .marketCode(string(row, 8))
+                        .marketCodeName(string(row, 9))
+                        .marginCode(string(row, 10))
+                        .marginCodeName(string(row, 11));
+        int basePrice = row + Integer.BYTES * (2 + STRING_FIELDS);
+        int scale = buffer.getInt(basePrice + Long.BYTES);
+        if (scale != NO_STRING) {
+            builder.basePrice(buffer.getLong(basePrice), scale);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 銘柄コードで二分探索します。
+     *
+     * @param code 銘柄コード（4桁または5桁）
+     * @return 銘柄情報
+     */
+    public Optional<ListedInfo> find(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        String canonicalCode = code.length() == 4 ? code + "0" : code;
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            String midCode = code(mid);
+            int order = midCode == null ? 1 : midCode.compareTo(canonicalCode);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return Optional.of(get(mid));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** すべての銘柄情報を要素の取得時に組み立てるリストを返します。 */
+    public List<ListedInfo> asList() {
+        return new AbstractList<>() {
+            @Override
+            public ListedInfo get(int index) {
+                return ListedInfoSnapshotFile.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private String code(int index) {
+        int row = rowsOffset + index * ROW_WIDTH;
+        int codeValue = buffer.getInt(row + Integer.BYTES);
+        return codeValue == ListedInfo.NO_CODE ? string(row, 0) : ListedInfo.decodeCode(codeValue);
+    }
+
+    /**
+     * 行の文字列項目を文字列番号から読み出します。
+     *
+     * @param row 行の開始位置
+     * @param field 文字列項目の番号（0: 英数字 5 桁で表せない銘柄コード、1: 会社名、…、11: 貸借信用区分名）
+     * @return 文字列
+     */
+    private String string(int row, int field) {
+        int id = buffer.getInt(row + Integer.BYTES * (2 + field));
+        if (id == NO_STRING) {
+            return null;
+        }
+        if (id < 0 || id >= stringCount) {
+            throw new IllegalStateException("スナップショットファイルの文字列番号が不正です: " + id);
+        }
+        String value = strings[id];
+        if (value == null) {
+            int start = buffer.getInt(stringOffsetsOffset + id * Integer.BYTES);
+            int end = buffer.getInt(stringOffsetsOffset + (id + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            buffer.duplicate().position(stringDataOffset + start).get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            // 同じ文字列を複数回組み立てても結果は等しいため、競合しても問題ない
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    private static int stringId(Map<String, Integer> ids, String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        return ids.computeIfAbsent(value, v -> ids.size());
+    }
+}
@@ -0,0 +1,392 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 銘柄情報を列ごとに保持する読み取り専用のテーブル。
+ *
+ * <p>日付・業種・規模・市場区分・貸借信用区分のように値の種類が少ない項目は、コードと名称の組を辞書に登録し、行ごとには辞書の番号だけを 1〜4
+ * バイトで保持します。番号の格納先は {@link Builder#offHeap(boolean)} でヒープ外の {@link ByteBuffer} にできます。銘柄コードや会社名など行ごとに異なる項目は配列で保持します。
+ *
+ * <pre>{@code
+ * ListedInfoTable table = ListedInfoTable.builder().addAll(response.getInfo()).build();
+ * table.forEach(row -> System.out.println(row.getCode() + " " + row.getSector33CodeName()));
+ * }</pre>
+ */
+public final class ListedInfoTable {
+    static final int DATE = 0;
+    static final int SECTOR17 = 1;
+    static final int SECTOR33 = 2;
+    static final int SCALE = 3;
+    static final int MARKET = 4;
+    static final int MARGIN = 5;
+    private static final int COLUMN_COUNT = 6;
+
+    private final int size;
+    private final String[] codes;
+    private final String[] companyNames;
+    private final String[] companyNamesEnglish;
+    private final BigDecimal[] basePrices;
+    private final Dictionary[] dictionaries;
+    private final int[] offsets;
+    private final ByteBuffer ids;
+
+    private ListedInfoTable(Builder builder) {
+        List<ListedInfo> rows = builder.rows;
+        this.size = rows.size();
+        this.codes = new String[size];
+        this.companyNames = new String[size];
+        this.companyNamesEnglish = new String[size];
+        this.basePrices = new BigDecimal[size];
+
+        DictionaryBuilder[] dictionaryBuilders = new DictionaryBuilder[COLUMN_COUNT];
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            dictionaryBuilders[column] = new DictionaryBuilder();
+        }
+        int[][] encoded = new int[COLUMN_COUNT][size];
+        for (int row = 0; row < size; row++) {
+            ListedInfo info = rows.get(row);
+            codes[row] = info.getCode();
+            companyNames[row] = info.getCompanyName();
+            companyNamesEnglish[row] = info.getCompanyNameEnglish();
+            basePrices[row] = info.getBasePrice();
+            encoded[DATE][row] = dictionaryBuilders[DATE].idOf(info.getDate(), null);
+            encoded[SECTOR17][row] =
+                    dictionaryBuilders[SECTOR17].idOf(
+                            info.getSector17Code(), info.getSector17CodeName());
+            encoded[SECTOR33][row] =
+                    dictionaryBuilders[SECTOR33].idOf(
+                            info.getSector33Code(), info.getSector33CodeName());
+            encoded[SCALE][row] = dictionaryBuilders[SCALE].idOf(info.getScaleCategory(), null);
+            encoded[MARKET][row] =
+                    dictionaryBuilders[MARKET].idOf(info.getMarketCode(), info.getMarketCodeName());
+            encoded[MARGIN][row] =
+                    dictionaryBuilders[MARGIN].idOf(info.getMarginCode(), info.getMarginCodeName());
+        }
+
+        this.dictionaries = new Dictionary[COLUMN_COUNT];
+        this.offsets = new int[COLUMN_COUNT];
+        int capacity = 0;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            dictionaries[column] = dictionaryBuilders[column].build();
+            offsets[column] = capacity;
+            capacity =
+                    Math.addExact(capacity, Math.multiplyExact(size, dictionaries[column].width));
+        }
+        ByteBuffer buffer =
+                builder.offHeap
+                        ? ByteBuffer.allocateDirect(capacity)
+                        : ByteBuffer.allocate(capacity);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            int width = dictionaries[column].width;
+            for (int row = 0; row < size; row++) {
+                int position = offsets[column] + row * width;
+                int id = encoded[column][row];
+                if (width == Byte.BYTES) {
+                    buffer.put(position, (byte) id);
+                } else if (width == Short.BYTES) {
+                    buffer.putShort(position, (short) id);
+                } else {
+                    buffer.putInt(position, id);
+                }
+            }
+        }
+        this.ids = buffer;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 銘柄情報からヒープ上に保持するテーブルを生成します。
+     *
+     * @param infos 銘柄情報
+     * @return ヒープ上に保持するテーブル
+     */
+    public static ListedInfoTable of(Collection<ListedInfo> infos) {
+        return builder().addAll(infos).build();
+    }
+
+    /** 行数を返します。 */
+    public int size() {
+        return size;
+    }
+
+    /** 辞書番号をヒープ外に保持しているかどうかを返します。 */
+    public boolean isOffHeap() {
+        return ids.isDirect();
+    }
+
+    /**
+     * 指定した行を参照するビューを返します。ビューは値を複製せず、テーブルの列を直接参照します。
+     *
+     * @param index 行番号
+     * @return 行のビュー
+     */
+    public Row row(int index) {
+        Objects.checkIndex(index, size);
+        Row row = new Row();
+        row.index = index;
+        return row;
+    }
+
+    /**
+     * すべての行を順に処理します。
+     *
+     * <p>走査中は同じ {@link Row} インスタンスを行番号だけ移動して使い回すため、行ごとの割り当ては発生しません。{@code action}
+     * の外で行を保持する場合は {@link Row#toListedInfo()} で複製してください。
+     *
+     * @param action 各行に対する処理
+     */
+    public void forEach(Consumer<? super Row> action) {
+        Row row = new Row();
+        for (int index = 0; index < size; index++) {
+            row.index = index;
+            action.accept(row);
+        }
+    }
+
+    /**
+     * 指定した行の {@link ListedInfo} を返します。
+     *
+     * @param index 行番号
+     * @return 指定した行の {@link ListedInfo}
+     */
+    public ListedInfo get(int index) {
+        return row(index).toListedInfo();
+    }
+
+    /** すべての行の {@link ListedInfo} を返します。 */
+    public List<ListedInfo> toList() {
+        List<ListedInfo> list = new ArrayList<>(size);
+        forEach(row -> list.add(row.toListedInfo()));
+        return list;
+    }
+
+    int dictionarySize(int column) {
+        return dictionaries[column].codes.length;
+    }
+
+    int idWidth(int column) {
+        return dictionaries[column].width;
+    }
+
+    private int id(int column, int row) {
+        int width = dictionaries[column].width;
+        int position = offsets[column] + row * width;
+        if (width == Byte.BYTES) {
+            return Byte.toUnsignedInt(ids.get(position));
+        }
+        if (width == Short.BYTES) {
+            return Short.toUnsignedInt(ids.getShort(position));
+        }
+        return ids.getInt(position);
+    }
+
+    private String code(int column, int row) {
+        return dictionaries[column].codes[id(column, row)];
+    }
+
+    private String name(int column, int row) {
+        return dictionaries[column].names[id(column, row)];
+    }
+
+    /** テーブルの 1 行を参照するビュー。 */
+    public final class Row {
+        private int index;
+
+        private Row() {}
+
+        /** 行番号を返します。 */
+        public int getIndex() {
+            return index;
+        }
+
+        /** 情報適用年月日（YYYY-MM-DD）を返します。 */
+        public String getDate() {
+            return code(DATE, index);
+        }
+
+        /** 銘柄コードを返します。 */
+        public String getCode() {
+            return codes[index];
+        }
+
+        /** 会社名（日本語）を返します。 */
+        public String getCompanyName() {
+            return companyNames[index];
+        }
+
+        /** 会社名（英語）を返します。 */
+        public String getCompanyNameEnglish() {
+            return companyNamesEnglish[index];
+        }
+
+        /** 17業種コードを返します。 */
+        public String getSector17Code() {
+            return code(SECTOR17, index);
+        }
+
+        /** 17業種コード名を返します。 */
+        public String getSector17CodeName() {
+            return name(SECTOR17, index);
+        }
+
+        /** 33業種コードを返します。 */
+        public String getSector33Code() {
+            return code(SECTOR33, index);
+        }
+
+        /** 33業種コード名を返します。 */
+        public String getSector33CodeName() {
+            return name(SECTOR33, index);
+        }
+
+        /** 規模コードを返します。 */
+        public String getScaleCategory() {
+            return code(SCALE, index);
+        }
+
+        /** 市場区分コードを返します。 */
+        public String getMarketCode() {
+            return code(MARKET, index);
+        }
+
+        /** 市場区分名を返します。 */
+        public String getMarketCodeName() {
+            return name(MARKET, index);
+        }
+
+        /** 貸借信用区分コードを返します。 */
+        public String getMarginCode() {
+            return code(MARGIN, index);
+        }
+
+        /** 貸借信用区分名を返します。 */
+        public String getMarginCodeName() {
+            return name(MARGIN, index);
+        }
+
+        /** 制限値幅算出の基準となる値段を返します。 */
+        public BigDecimal getBasePrice() {
+            return basePrices[index];
+        }
+
+        /** この行の値を複製した {@link ListedInfo} を返します。 */
+        public ListedInfo toListedInfo() {
+            return ListedInfo.builder()
+                    .date(getDate())
+                    .code(getCode())
+                    .companyName(getCompanyName())
+                    .companyNameEnglish(getCompanyNameEnglish())
+                    .sector17Code(getSector17Code())
+                    .sector17CodeName(getSector17CodeName())
+                    .sector33Code(getSector33Code())
+                    .sector33CodeName(getSector33CodeName())
+                    .scaleCategory(getScaleCategory())
+                    .marketCode(getMarketCode())
+                    .marketCodeName(getMarketCodeName())
+                    .marginCode(getMarginCode())
+                    .marginCodeName(getMarginCodeName())
+                    .basePrice(getBasePrice())
+                    .build();
+        }
+
+        @Override
+        public String toString() {
+            return "ListedInfoTable.Row(index=" + index + ", code=" + getCode() + ")";
+        }
+    }
+
+    private static final class Dictionary {
+        private final String[] codes;
+        private final String[] names;
+        private final int width;
+
+        private Dictionary(String[] codes, String[] names) {
+            this.codes = codes;
+            this.names = names;
+            if (codes.length <= 1 << Byte.SIZE) {
+                this.width = Byte.BYTES;
+            } else if (codes.length <= 1 << Short.SIZE) {
+                this.width = Short.BYTES;
+            } else {
+                this.width = Integer.BYTES;
+            }
+        }
+    }
+
+    private static final class DictionaryBuilder {
+        private final Map<List<String>, Integer> ids = new HashMap<>();
+        private final List<String> codes = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+
+        private int idOf(String code, String name) {
+            return ids.computeIfAbsent(
+                    Arrays.asList(code, name),
+                    key -> {
+                        codes.add(code);
+                        names.add(name);
+                        return codes.size() - 1;
+                    });
+        }
+
+        private Dictionary build() {
+            return new Dictionary(codes.toArray(new String[0]), names.toArray(new String[0]));
+        }
+    }
+
+    public static final class Builder {
+        private final List<ListedInfo> rows = new ArrayList<>();
+        private boolean offHeap;
+
+        private Builder() {}
+
+        /**
+         * 銘柄情報を 1 行追加します。
+         *
+         * @param info 追加する銘柄情報
+         * @return this
+         */
+        public Builder add(ListedInfo info) {
+            rows.add(Objects.requireNonNull(info, "info"));
+            return this;
+        }
+
+        /**
+         * 銘柄情報をまとめて追加します。
+         *
+         * @param infos 追加する銘柄情報
+         * @return this
+         */
+        public Builder addAll(Collection<ListedInfo> infos) {
+            infos.forEach(this::add);
+            return this;
+        }
+
+        /**
+         * 辞書番号をヒープ外の {@link ByteBuffer} に保持するかどうかを設定します。
+         *
+         * @param offHeap 辞書番号をヒープ外の {@link ByteBuffer} に保持する場合は true
+         * @return this
+         */
+        public Builder offHeap(boolean offHeap) {
+            this.offHeap = offHeap;
+            return this;
+        }
+
+        public ListedInfoTable build() {
+            return new ListedInfoTable(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.shigaichi.jquants.client.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import lombok.ToString;
+
+/**
+ * {@link MetricsRegistry} が集計した 1 エンドポイント分の値。
+ */
+@ToString
+public final class EndpointSnapshot {
+    private final long requestCount;
+    private final long responseCount;
+    private final long failureCount;
+    private final long bytesReceived;
+    private final long compressedBytes;
+    private final long decompressedBytes;
+    private final long retryCount;
+    private final long cacheHitCount;
+    private final long cacheStaleHitCount;
+    private final long cacheMissCount;
+    private final Map<Integer, Long> statusCounts;
+    private final LatencyHistogram.Snapshot latency;
+    private final LatencyHistogram.Snapshot decodeTime;
+
+    EndpointSnapshot(
+            long requestCount,
+            long responseCount,
+            long failureCount,
+            long bytesReceived,
+            long compressedBytes,
+            long decompressedBytes,
+            long retryCount,
+            long cacheHitCount,
+            long cacheStaleHitCount,
+            long cacheMissCount,
+            Map<Integer, Long> statusCounts,
+            LatencyHistogram.Snapshot latency,
+            LatencyHistogram.Snapshot decodeTime) {
+        this.requestCount = requestCount;
+        this.responseCount = responseCount;
+        this.failureCount = failureCount;
+        this.bytesReceived = bytesReceived;
+        this.compressedBytes = compressedBytes;
+        this.decompressedBytes = decompressedBytes;
+        this.retryCount = retryCount;
+        this.cacheHitCount = cacheHitCount;
+        this.cacheStaleHitCount = cacheStaleHitCount;
+        this.cacheMissCount = cacheMissCount;
+        this.statusCounts = Collections.unmodifiableMap(statusCounts);
+        this.latency = latency;
+        this.decodeTime = decodeTime;
+    }
+
+    /** 送信を開始したリクエスト数（再試行を含む）を返します。 */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /** レスポンスを受信した数を返します。 */
+    public long getResponseCount() {
+        return responseCount;
+    }
+
+    /** 通信失敗などでレスポンスを受信できなかった数を返します。 */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /** 受信したボディの合計バイト数を返します。 */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /** 圧縮されて届いたレスポンスの、展開前のバイト数の合計を返します。 */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * 圧縮されて届いたレスポンスの、展開後のバイト数の合計を返します。
+     *
+     * @return 圧縮されて届いたレスポンスの、展開後のバイト数の合計。{@link #getCompressedBytes()} との差が圧縮により削減した転送量です
+     */
+    public long getDecompressedBytes() {
+        return decompressedBytes;
+    }
+
+    /** 再試行した回数を返します。 */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /** キャッシュの有効期間内の値を返した回数を返します。 */
+    public long getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    /** キャッシュの期限切れの値を返した回数を返します。 */
+    public long getCacheStaleHitCount() {
+        return cacheStaleHitCount;
+    }
+
+    /** キャッシュに値がなかった回数を返します。 */
+    public long getCacheMissCount() {
+        return cacheMissCount;
+    }
+
+    /**
+     * ステータスコードごとのレスポンス数（ステータスコードの昇順）を返します。
+     *
+     * @return ステータスコードごとのレスポンス数（ステータスコードの昇順）。範囲外のステータスコードは 0 に集計します
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    /** 送信開始からレスポンス受信（失敗を含む）までの時間の分布（ナノ秒）を返します。 */
+    public LatencyHistogram.Snapshot getLatency() {
+        return latency;
+    }
+
+    /** レスポンスボディのデコードに要した時間の分布（ナノ秒）を返します。 */
+    public LatencyHistogram.Snapshot getDecodeTime() {
+        return decodeTime;
+    }
+}
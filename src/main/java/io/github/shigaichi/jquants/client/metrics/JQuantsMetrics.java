@@ -0,0 +1,98 @@
+package io.github.shigaichi.jquants.client.metrics;
+
+import java.time.Duration;
+
+/**
+ * リクエストの実行状況を受け取るリスナー。
+ *
+ * <p>{@link io.github.shigaichi.jquants.client.JQuantsSession.Builder#metrics(JQuantsMetrics)}
+ * で指定すると、セッションから生成したクライアントのリクエスト経路から呼び出されます。エンドポイントはベース URL からの相対パス（例: {@code
+ * /listed/info}、{@code /token/auth_refresh}）です。
+ *
+ * <p>各メソッドはリクエストを処理するスレッドから同期的に呼び出されるため、実装はスレッドセーフかつ短時間で完了し、例外を送出しないようにしてください。
+ * 既定の実装として {@link MetricsRegistry} を提供します。
+ */
+public interface JQuantsMetrics {
+    /** 何も記録しない実装。 */
+    JQuantsMetrics NOOP = new JQuantsMetrics() {};
+
+    /** キャッシュの参照結果。 */
+    enum CacheResult {
+        /** 有効期間内の値を返した */
+        HIT,
+        /** 期限切れの値を返し、バックグラウンドで再取得した */
+        STALE_HIT,
+        /** 値がなく API を呼び出した */
+        MISS
+    }
+
+    /**
+     * HTTP リクエストの送信を開始したときに呼び出されます。再試行した場合は試行ごとに呼び出されます。
+     *
+     * @param endpoint エンドポイント
+     */
+    default void requestStarted(String endpoint) {}
+
+    /**
+     * HTTP レスポンスを受信したときに呼び出されます。
+     *
+     * <p>ボディを InputStream で受け取る場合は、ボディを close した時点で読み込んだバイト数とともに呼び出されます。
+     *
+     * @param endpoint エンドポイント
+     * @param statusCode ステータスコード
+     * @param bytesReceived 受信したボディのバイト数
+     * @param elapsedNanos 送信開始からの経過時間（ナノ秒）
+     */
+    default void requestCompleted(
+            String endpoint, int statusCode, long bytesReceived, long elapsedNanos) {}
+
+    /**
+     * gzip または deflate で圧縮されたレスポンスボディを展開したときに、{@link #requestCompleted} の後で呼び出されます。
+     *
+     * <p>{@code bytesReceived} には展開前のバイト数が渡されます。
+     *
+     * @param endpoint エンドポイント
+     * @param contentEncoding Content-Encoding（小文字）
+     * @param compressedBytes 受信した（展開前の）バイト数
+     * @param decompressedBytes 展開後のバイト数
+     */
+    default void responseDecompressed(
+            String endpoint,
+            String contentEncoding,
+            long compressedBytes,
+            long decompressedBytes) {}
+
+    /**
+     * 通信失敗などでレスポンスを受信できなかったときに呼び出されます。
+     *
+     * @param endpoint エンドポイント
+     * @param error 失敗の原因
+     * @param elapsedNanos 送信開始からの経過時間（ナノ秒）
+     */
+    default void requestFailed(String endpoint, Throwable error, long elapsedNanos) {}
+
+    /**
+     * レスポンスボディのデコードが完了したときに呼び出されます。
+     *
+     * @param endpoint エンドポイント
+     * @param elapsedNanos デコードに要した時間（ナノ秒）
+     */
+    default void responseDecoded(String endpoint, long elapsedNanos) {}
+
+    /**
+     * 再試行を予約したときに呼び出されます。
+     *
+     * @param endpoint エンドポイント
+     * @param retry 何回目の再試行か（1 始まり）
+     * @param delay 再試行までの待機時間
+     */
+    default void retryScheduled(String endpoint, int retry, Duration delay) {}
+
+    /**
+     * キャッシュを参照したときに呼び出されます。
+     *
+     * @param endpoint エンドポイント
+     * @param result 参照結果
+     */
+    default void cacheAccessed(String endpoint, CacheResult result) {}
+}
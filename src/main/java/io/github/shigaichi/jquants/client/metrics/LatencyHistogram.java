@@ -0,0 +1,172 @@
+package io.github.shigaichi.jquants.client.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.ToString;
+
+/**
+ * 対数スケールのバケットで値（ナノ秒）の分布を記録するロックフリーなヒストグラム。
+ *
+ * <p>2 のべき乗ごとの範囲を {@value #SUB_BUCKET_COUNT} 個に等分したバケットで数えるため、パーセンタイルの相対誤差は最大でも 1/{@value
+ * #SUB_BUCKET_COUNT} 程度です。記録はバケットの加算のみで、メモリ使用量は値の範囲によらず一定です。
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 値を記録します。負の値は 0 として記録します。
+     *
+     * @param value 値（ナノ秒）
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.getAndIncrement(bucketIndex(v));
+        count.increment();
+        sum.add(v);
+        min.accumulate(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * 現時点の分布を複製します。記録と並行して呼び出せますが、各値が同じ時点のものであることは保証しません。
+     *
+     * @return スナップショット
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(
+                counts, total, sum.sum(), total == 0 ? 0 : min.get(), total == 0 ? 0 : max.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    }
+
+    static long upperBound(int index) {
+        int shift = index < SUB_BUCKET_COUNT ? 0 : index / SUB_BUCKET_COUNT - 1;
+        long upper = lowerBound(index) + (1L << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+
+    /** ある時点のヒストグラムの内容。 */
+    @ToString(exclude = "counts")
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        /** 記録した値の数を返します。 */
+        public long getCount() {
+            return count;
+        }
+
+        /** 記録した値の合計を返します。 */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * 最小値を返します。
+         *
+         * @return 最小値。記録がない場合は 0
+         */
+        public long getMin() {
+            return min;
+        }
+
+        /**
+         * 最大値を返します。
+         *
+         * @return 最大値。記録がない場合は 0
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * 平均値を返します。
+         *
+         * @return 平均値。記録がない場合は 0
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * 指定したパーセンタイルの値を、その値を含むバケットの上限で返します。0 の場合は最小値を返します。
+         *
+         * @param percentile パーセンタイル（0 以上 100 以下）
+         * @return 値。記録がない場合は 0
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0)) {
+                throw new IllegalArgumentException("percentileは0以上100以下で指定してください。");
+            }
+            if (count == 0 || percentile == 0.0) {
+                return min;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.max(min, Math.min(max, upperBound(i)));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * 指定した値以下のバケットに含まれる件数を返します。Prometheus 形式の累積バケットの出力などに用います。
+         *
+         * <p>value を含むバケットは、そのバケットの上限が value 以下の場合に限り数えます。
+         *
+         * @param value 値
+         * @return 件数
+         */
+        public long getCountAtOrBelow(long value) {
+            long total = 0;
+            for (int i = 0; i < counts.length && upperBound(i) <= value; i++) {
+                total += counts[i];
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.shigaichi.jquants.client.metrics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * エンドポイントごとのカウンタとレイテンシのヒストグラムをメモリ上に集計する {@link JQuantsMetrics} の既定の実装。
+ *
+ * <p>集計はロックを取らずに行い、{@link #snapshot()} で任意の時点の値を取り出せます。
+ *
+ * <pre>{@code
+ * MetricsRegistry metrics = new MetricsRegistry();
+ * JQuantsSession session = JQuantsSession.builder().metrics(metrics).build();
+ * ...
+ * long p99 = metrics.snapshot("/listed/info").orElseThrow().getLatency().getValueAtPercentile(99.0);
+ * }</pre>
+ */
+public final class MetricsRegistry implements JQuantsMetrics {
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestStarted(String endpoint) {
+        metrics(endpoint).started.increment();
+    }
+
+    @Override
+    public void requestCompleted(
+            String endpoint, int statusCode, long bytesReceived, long elapsedNanos) {
+        EndpointMetrics metrics = metrics(endpoint);
+        metrics.completed.increment();
+        metrics.statusCounts.getAndIncrement(statusIndex(statusCode));
+        metrics.bytesReceived.add(Math.max(0, bytesReceived));
+        metrics.latency.record(elapsedNanos);
+    }
+
+    @Override
+    public void responseDecompressed(
+            String endpoint, String contentEncoding, long compressedBytes, long decompressedBytes) {
+        EndpointMetrics metrics = metrics(endpoint);
+        metrics.compressedBytes.add(Math.max(0, compressedBytes));
+        metrics.decompressedBytes.add(Math.max(0, decompressedBytes));
+    }
+
+    @Override
+    public void requestFailed(String endpoint, Throwable error, long elapsedNanos) {
+        EndpointMetrics metrics = metrics(endpoint);
+        metrics.failed.increment();
+        metrics.latency.record(elapsedNanos);
+    }
+
+    @Override
+    public void responseDecoded(String endpoint, long elapsedNanos) {
+        metrics(endpoint).decode.record(elapsedNanos);
+    }
+
+    @Override
+    public void retryScheduled(String endpoint, int retry, Duration delay) {
+        metrics(endpoint).retries.increment();
+    }
+
+    @Override
+    public void cacheAccessed(String endpoint, CacheResult result) {
+        EndpointMetrics metrics = metrics(endpoint);
+        switch (result) {
+            case HIT:
+                metrics.cacheHits.increment();
+                break;
+            case STALE_HIT:
+                metrics.cacheStaleHits.increment();
+                break;
+            default:
+                metrics.cacheMisses.increment();
+                break;
+        }
+    }
+
+    /** エンドポイントごとの集計結果（エンドポイント名の昇順）を返します。 */
+    public Map<String, EndpointSnapshot> snapshot() {
+        Map<String, EndpointSnapshot> snapshots = new TreeMap<>();
+        endpoints.forEach((endpoint, metrics) -> snapshots.put(endpoint, metrics.snapshot()));
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * 指定したエンドポイントの集計結果を返します。
+     *
+     * @param endpoint エンドポイント
+     * @return 集計結果。まだ記録がない場合は empty
+     */
+    public Optional<EndpointSnapshot> snapshot(String endpoint) {
+        return Optional.ofNullable(endpoints.get(endpoint)).map(EndpointMetrics::snapshot);
+    }
+
+    private EndpointMetrics metrics(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        return metrics != null
+                ? metrics
+                : endpoints.computeIfAbsent(endpoint, e -> new EndpointMetrics());
+    }
+
+    private static int statusIndex(int statusCode) {
+        return statusCode >= 100 && statusCode < EndpointMetrics.STATUS_CODE_LIMIT ? statusCode : 0;
+    }
+
+    private static final class EndpointMetrics {
+        private static final int STATUS_CODE_LIMIT = 600;
+
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LongAdder compressedBytes = new LongAdder();
+        private final LongAdder decompressedBytes = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheStaleHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+        private final AtomicLongArray statusCounts = new AtomicLongArray(STATUS_CODE_LIMIT);
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram decode = new LatencyHistogram();
+
+        private EndpointSnapshot snapshot() {
+            Map<Integer, Long> statuses = new TreeMap<>();
+            for (int i = 0; i < STATUS_CODE_LIMIT; i++) {
+                long count = statusCounts.get(i);
+                if (count > 0) {
+                    statuses.put(i, count);
+                }
+            }
+            return new EndpointSnapshot(
+                    started.sum(),
+                    completed.sum(),
+                    failed.sum(),
+                    bytesReceived.sum(),
+                    compressedBytes.sum(),
+                    decompressedBytes.sum(),
+                    retries.sum(),
+                    cacheHits.sum(),
+                    cacheStaleHits.sum(),
+                    cacheMisses.sum(),
+                    statuses,
+                    latency.snapshot(),
+                    decode.snapshot());
+        }
+    }
+}
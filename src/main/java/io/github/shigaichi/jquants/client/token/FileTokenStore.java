@@ -0,0 +1,94 @@
+package io.github.shigaichi.jquants.client.token;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * トークンを JSON ファイルに保存するストア。
+ *
+ * <p>書き込みは同じディレクトリの一時ファイルに書いてからリネームするため、読み込み側が書きかけの内容を見ることはありません。
+ * POSIX ファイルシステムでは所有者のみ読み書きできる権限（rw-------）で作成します。
+ */
+public final class FileTokenStore implements TokenStore {
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Set<PosixFilePermission> OWNER_ONLY =
+            PosixFilePermissions.fromString("rw-------");
+
+    private final Path path;
+
+    /**
+     * @param path 保存先のファイル
+     */
+    public FileTokenStore(Path path) {
+        this.path = Objects.requireNonNull(path, "path").toAbsolutePath();
+    }
+
+    /**
+     * 保存済みのトークンを読み込みます。ファイルが存在しない場合や内容が壊れている場合は empty を返します。
+     */
+    @Override
+    public Optional<StoredToken> load() throws IOException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(OBJECT_MAPPER.readValue(content, StoredToken.class));
+        } catch (JsonProcessingException e) {
+            // 壊れたファイルは未保存として扱い、次回の保存で上書きする
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(StoredToken token) throws IOException {
+        Objects.requireNonNull(token, "token");
+        byte[] content = OBJECT_MAPPER.writeValueAsBytes(token);
+        Path directory = path.getParent();
+        Files.createDirectories(directory);
+
+        Path temp = Files.createTempFile(directory, ".jquants-token", ".tmp", ownerOnly(directory));
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(
+                        temp,
+                        path,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** 保存先のファイルを返します。 */
+    public Path getPath() {
+        return path;
+    }
+
+    private static FileAttribute<?>[] ownerOnly(Path directory) throws IOException {
+        if (!Files.getFileStore(directory).supportsFileAttributeView("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(OWNER_ONLY)};
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.shigaichi.jquants.client.token;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 固定の ID トークンを返すプロバイダ。トークンが拒否されても更新しません。
+ */
+final class FixedIdTokenProvider implements IdTokenProvider {
+    private final String idToken;
+
+    FixedIdTokenProvider(String idToken) {
+        this.idToken = Objects.requireNonNull(idToken, "idToken");
+    }
+
+    @Override
+    public String getIdToken() {
+        return idToken;
+    }
+
+    @Override
+    public Optional<String> renewIdToken(String rejectedIdToken) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.shigaichi.jquants.client.token;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * API 呼び出しに用いる ID トークンを提供します。
+ *
+ * <p>実装はスレッドセーフである必要があります。
+ */
+public interface IdTokenProvider {
+    /**
+     * 現在有効な ID トークンを返します。必要に応じて更新します。
+     *
+     * @return ID トークン
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    String getIdToken() throws IOException, InterruptedException;
+
+    /**
+     * API に ID トークンが拒否された（401）際に呼び出され、再試行に用いる ID トークンを返します。
+     *
+     * @param rejectedIdToken 拒否された ID トークン
+     * @return 再試行に用いる ID トークン。再試行しない場合は empty
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    Optional<String> renewIdToken(String rejectedIdToken) throws IOException, InterruptedException;
+
+    /**
+     * 固定の ID トークンを返し、更新を行わないプロバイダを生成します。
+     *
+     * @param idToken ID トークン
+     * @return プロバイダ
+     */
+    static IdTokenProvider of(String idToken) {
+        return new FixedIdTokenProvider(idToken);
+    }
+}
@@ -0,0 +1,328 @@
+package io.github.shigaichi.jquants.client.token;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * リフレッシュトークンを保持し、ID トークンの期限切れが近づいた場合や API に拒否された場合に更新するプロバイダ。
+ *
+ * <p>更新は同時に 1 つだけ実行され、更新中に呼び出したスレッドはその完了を待って新しいトークンを受け取ります。
+ * 有効なトークンの取得はロックを取らずに行われます。
+ */
+public final class RefreshingIdTokenProvider implements IdTokenProvider {
+    /** ID トークンの有効期間（J-Quants API の仕様では 24 時間）。 */
+    public static final Duration DEFAULT_ID_TOKEN_VALIDITY = Duration.ofHours(24);
+
+    /** リフレッシュトークンの有効期間（J-Quants API の仕様では 1 週間）。 */
+    public static final Duration DEFAULT_REFRESH_TOKEN_VALIDITY = Duration.ofDays(7);
+
+    /** 期限切れのどれだけ前に更新するか。 */
+    public static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofMinutes(5);
+
+    private final String refreshToken;
+    private final Instant refreshTokenIssuedAt;
+    private final TokenStore tokenStore;
+    private final TokenRefresher refresher;
+    private final Duration idTokenValidity;
+    private final Duration refreshMargin;
+    private final Clock clock;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile IssuedIdToken current;
+
+    private RefreshingIdTokenProvider(Builder builder) {
+        this.refreshToken = requireNonEmpty(builder.refreshToken, "refreshToken");
+        this.refresher = Objects.requireNonNull(builder.refresher, "refresher");
+        this.idTokenValidity = Objects.requireNonNull(builder.idTokenValidity, "idTokenValidity");
+        this.refreshMargin = Objects.requireNonNull(builder.refreshMargin, "refreshMargin");
+        this.clock = Objects.requireNonNull(builder.clock, "clock");
+        this.tokenStore = builder.tokenStore;
+        this.refreshTokenIssuedAt =
+                builder.refreshTokenIssuedAt == null
+                        ? clock.instant()
+                        : builder.refreshTokenIssuedAt;
+        if (StringUtils.isNotBlank(builder.idToken)) {
+            Instant issuedAt =
+                    builder.idTokenIssuedAt == null ? clock.instant() : builder.idTokenIssuedAt;
+            this.current = new IssuedIdToken(builder.idToken, issuedAt);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getIdToken() throws IOException, InterruptedException {
+        IssuedIdToken token = current;
+        if (token != null && !needsRefresh(token)) {
+            return token.idToken;
+        }
+
+        refreshLock.lockInterruptibly();
+        try {
+            token = current;
+            if (token != null && !needsRefresh(token)) {
+                return token.idToken;
+            }
+            try {
+                return refreshLocked().idToken;
+            } catch (IOException | RuntimeException e) {
+                // 更新に失敗しても期限内のトークンがあればそれを使い続ける
+                if (token != null && clock.instant().isBefore(expiresAt(token))) {
+                    return token.idToken;
+                }
+                throw e;
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<String> renewIdToken(String rejectedIdToken)
+            throws IOException, InterruptedException {
+        refreshLock.lockInterruptibly();
+        try {
+            IssuedIdToken token = current;
+            if (token != null && !token.idToken.equals(rejectedIdToken)) {
+                // 待機中に他のスレッドが更新済み
+                return Optional.of(token.idToken);
+            }
+            return Optional.of(refreshLocked().idToken);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 現在保持している ID トークンの発行時刻を返します。
+     *
+     * @return 発行時刻。まだ取得していない場合は empty
+     */
+    public Optional<Instant> getIdTokenIssuedAt() {
+        IssuedIdToken token = current;
+        return token == null ? Optional.empty() : Optional.of(token.issuedAt);
+    }
+
+    private IssuedIdToken refreshLocked() throws IOException, InterruptedException {
+        String idToken = refresher.refresh(refreshToken);
+        if (StringUtils.isBlank(idToken)) {
+            throw new IllegalStateException("IDトークンの更新結果が空です。");
+        }
+        IssuedIdToken token = new IssuedIdToken(idToken, clock.instant());
+        current = token;
+        if (tokenStore != null) {
+            try {
+                tokenStore.save(toStoredToken(token));
+            } catch (IOException ignored) {
+                // 保存できなくても取得したトークンは利用できるため処理を継続する
+            }
+        }
+        return token;
+    }
+
+    private StoredToken toStoredToken(IssuedIdToken token) {
+        StoredToken storedToken = new StoredToken();
+        storedToken.setIdToken(token.idToken);
+        storedToken.setIdTokenIssuedAt(token.issuedAt.toEpochMilli());
+        storedToken.setRefreshToken(refreshToken);
+        storedToken.setRefreshTokenIssuedAt(refreshTokenIssuedAt.toEpochMilli());
+        return storedToken;
+    }
+
+    private boolean needsRefresh(IssuedIdToken token) {
+        return !clock.instant().isBefore(expiresAt(token).minus(refreshMargin));
+    }
+
+    private Instant expiresAt(IssuedIdToken token) {
+        return token.issuedAt.plus(idTokenValidity);
+    }
+
+    private static String requireNonEmpty(String value, String fieldName) {
+        if (StringUtils.isBlank(value)) {
+            throw new IllegalArgumentException(fieldName + "が指定されていません。");
+        }
+        return value;
+    }
+
+    private static final class IssuedIdToken {
+        private final String idToken;
+        private final Instant issuedAt;
+
+        private IssuedIdToken(String idToken, Instant issuedAt) {
+            this.idToken = idToken;
+            this.issuedAt = issuedAt;
+        }
+    }
+
+    public static final class Builder {
+        private String refreshToken;
+        private Instant refreshTokenIssuedAt;
+        private TokenRefresher refresher;
+        private String idToken;
+        private Instant idTokenIssuedAt;
+        private TokenStore tokenStore;
+        private Duration idTokenValidity = DEFAULT_ID_TOKEN_VALIDITY;
+        private Duration refreshTokenValidity = DEFAULT_REFRESH_TOKEN_VALIDITY;
+        private Duration refreshMargin = DEFAULT_REFRESH_MARGIN;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * ID トークンの更新に用いるリフレッシュトークンを設定します。発行時刻は現在時刻とみなします。
+         *
+         * @param refreshToken ID トークンの更新に用いるリフレッシュトークン（必須）
+         * @return this
+         */
+        public Builder refreshToken(String refreshToken) {
+            return refreshToken(refreshToken, null);
+        }
+
+        /**
+         * ID トークンの更新に用いるリフレッシュトークンを発行時刻とともに設定します。
+         *
+         * @param refreshToken ID トークンの更新に用いるリフレッシュトークン（必須）
+         * @param issuedAt 発行時刻。null の場合は現在時刻
+         * @return this
+         */
+        public Builder refreshToken(String refreshToken, Instant issuedAt) {
+            this.refreshToken = refreshToken;
+            this.refreshTokenIssuedAt = issuedAt;
+            return this;
+        }
+
+        /**
+         * リフレッシュトークンから ID トークンを取得する処理を設定します。
+         *
+         * @param refresher リフレッシュトークンから ID トークンを取得する処理（必須）
+         * @return this
+         */
+        public Builder refresher(TokenRefresher refresher) {
+            this.refresher = refresher;
+            return this;
+        }
+
+        /**
+         * 取得済みの ID トークンを初期値として設定します。未設定の場合は最初の呼び出しで取得します。
+         *
+         * @param idToken ID トークン
+         * @param issuedAt 発行時刻。null の場合は現在時刻
+         * @return this
+         */
+        public Builder idToken(String idToken, Instant issuedAt) {
+            this.idToken = idToken;
+            this.idTokenIssuedAt = issuedAt;
+            return this;
+        }
+
+        /**
+         * ID トークンの有効期間を設定します。未設定の場合は {@link RefreshingIdTokenProvider#DEFAULT_ID_TOKEN_VALIDITY} です。
+         *
+         * @param idTokenValidity ID トークンの有効期間
+         * @return this
+         */
+        public Builder idTokenValidity(Duration idTokenValidity) {
+            this.idTokenValidity = idTokenValidity;
+            return this;
+        }
+
+        /**
+         * リフレッシュトークンの有効期間を設定します。未設定の場合は {@link RefreshingIdTokenProvider#DEFAULT_REFRESH_TOKEN_VALIDITY} です。
+         *
+         * @param refreshTokenValidity リフレッシュトークンの有効期間
+         * @return this
+         */
+        public Builder refreshTokenValidity(Duration refreshTokenValidity) {
+            this.refreshTokenValidity = refreshTokenValidity;
+            return this;
+        }
+
+        /**
+         * 更新したトークンの保存先を設定します。
+         *
+         * @param tokenStore 保存先
+         * @return this
+         */
+        public Builder tokenStore(TokenStore tokenStore) {
+            this.tokenStore = tokenStore;
+            return this;
+        }
+
+        /**
+         * ID トークンの期限切れのどれだけ前に更新するかを設定します。未設定の場合は {@link RefreshingIdTokenProvider#DEFAULT_REFRESH_MARGIN} です。
+         *
+         * @param refreshMargin 期限切れより前に更新を始める期間
+         * @return this
+         */
+        public Builder refreshMargin(Duration refreshMargin) {
+            this.refreshMargin = refreshMargin;
+            return this;
+        }
+
+        /**
+         * 有効期限の判定と発行時刻の記録に用いる時計を設定します。
+         *
+         * @param clock 有効期限の判定と発行時刻の記録に用いる時計
+         * @return this
+         */
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public RefreshingIdTokenProvider build() {
+            return new RefreshingIdTokenProvider(this);
+        }
+
+        /**
+         * {@link #tokenStore(TokenStore)} に保存済みのトークンを引き継いでプロバイダを生成します。
+         *
+         * <p>保存済みのリフレッシュトークンが有効であればログインせずにそれを使い、ID トークンも有効期限内であれば再利用します。
+         * 保存済みのトークンがない場合やリフレッシュトークンが期限切れの場合は authenticator でログインし、結果を保存します。
+         *
+         * @param authenticator ログイン処理
+         * @return プロバイダ
+         * @throws IOException 通信失敗時、またはストアの読み書きに失敗した場合
+         * @throws InterruptedException 通信割り込み時
+         */
+        public RefreshingIdTokenProvider buildFromStore(TokenAuthenticator authenticator)
+                throws IOException, InterruptedException {
+            Objects.requireNonNull(tokenStore, "tokenStore");
+            Objects.requireNonNull(authenticator, "authenticator");
+            Optional<StoredToken> stored = tokenStore.load().filter(this::isRefreshTokenUsable);
+            if (stored.isPresent()) {
+                StoredToken token = stored.get();
+                refreshToken(
+                        token.getRefreshToken(),
+                        Instant.ofEpochMilli(token.getRefreshTokenIssuedAt()));
+                idToken(token.getIdToken(), Instant.ofEpochMilli(token.getIdTokenIssuedAt()));
+                return build();
+            }
+
+            IdTokenResponse response = authenticator.authenticate();
+            Instant issuedAt = clock.instant();
+            refreshToken(response.getRefreshToken(), issuedAt);
+            idToken(response.getIdToken(), issuedAt);
+            RefreshingIdTokenProvider provider = build();
+            if (provider.current != null) {
+                tokenStore.save(provider.toStoredToken(provider.current));
+            }
+            return provider;
+        }
+
+        private boolean isRefreshTokenUsable(StoredToken token) {
+            if (StringUtils.isBlank(token.getRefreshToken())) {
+                return false;
+            }
+            Instant expiresAt =
+                    Instant.ofEpochMilli(token.getRefreshTokenIssuedAt())
+                            .plus(refreshTokenValidity);
+            return clock.instant().isBefore(expiresAt.minus(refreshMargin));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.shigaichi.jquants.client.token;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * {@link TokenStore} に保存するトークンと発行時刻。
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@ToString(exclude = {"idToken", "refreshToken"})
+public class StoredToken {
+    /** IDトークン。 */
+    @JsonProperty("idToken")
+    private String idToken;
+
+    /** IDトークンの発行時刻（エポックミリ秒）。 */
+    @JsonProperty("idTokenIssuedAt")
+    private long idTokenIssuedAt;
+
+    /** リフレッシュトークン。 */
+    @JsonProperty("refreshToken")
+    private String refreshToken;
+
+    /** リフレッシュトークンの発行時刻（エポックミリ秒）。 */
+    @JsonProperty("refreshTokenIssuedAt")
+    private long refreshTokenIssuedAt;
+}
@@ -0,0 +1,20 @@
+package io.github.shigaichi.jquants.client.token;
+
+import java.io.IOException;
+
+/**
+ * ログインして ID トークンとリフレッシュトークンを取得する処理。
+ *
+ * <p>通常は {@code () -> JQuantsClient.authenticateUser(mailAddress, password, baseUri)} を指定します。
+ */
+@FunctionalInterface
+public interface TokenAuthenticator {
+    /**
+     * ID トークンとリフレッシュトークンを取得します。
+     *
+     * @return 取得したトークン
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    IdTokenResponse authenticate() throws IOException, InterruptedException;
+}
@@ -0,0 +1,21 @@
+package io.github.shigaichi.jquants.client.token;
+
+import java.io.IOException;
+
+/**
+ * リフレッシュトークンから ID トークンを取得する処理。
+ *
+ * <p>通常は {@code refreshToken -> JQuantsClient.refreshIdToken(refreshToken, baseUri)} を指定します。
+ */
+@FunctionalInterface
+public interface TokenRefresher {
+    /**
+     * リフレッシュトークンを用いて ID トークンを取得します。
+     *
+     * @param refreshToken リフレッシュトークン
+     * @return 新規に取得した ID トークン
+     * @throws IOException 通信失敗時
+     * @throws InterruptedException 通信割り込み時
+     */
+    String refresh(String refreshToken) throws IOException, InterruptedException;
+}
@@ -0,0 +1,27 @@
+package io.github.shigaichi.jquants.client.token;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * 取得したトークンをプロセスの再起動をまたいで保持するストア。
+ *
+ * @see FileTokenStore
+ */
+public interface TokenStore {
+    /**
+     * 保存済みのトークンを読み込みます。
+     *
+     * @return 保存済みのトークン。保存されていない場合は empty
+     * @throws IOException 読み込みに失敗した場合
+     */
+    Optional<StoredToken> load() throws IOException;
+
+    /**
+     * トークンを保存します。既存の内容は置き換えられます。
+     *
+     * @param token 保存するトークン
+     * @throws IOException 書き込みに失敗した場合
+     */
+    void save(StoredToken token) throws IOException;
+}
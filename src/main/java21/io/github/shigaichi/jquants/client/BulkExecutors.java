@@ -0,0 +1,24 @@
+package io.github.shigaichi.jquants.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 複数銘柄の一括取得で用いる Executor を生成します（JDK 21 以降）。
+ *
+ * <p>タスクごとに仮想スレッドを生成します。同時実行数は呼び出し側で制限します。
+ */
+final class BulkExecutors {
+    private BulkExecutors() {}
+
+    /**
+     * 一括取得のタスクを実行する Executor を生成します。
+     *
+     * @param parallelism 同時に実行する最大数（仮想スレッドでは呼び出し側の Semaphore で制限する）
+     * @return 呼び出し側で shutdown する Executor
+     */
+    static ExecutorService newExecutor(int parallelism) {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("jquants-bulk-", 1).factory());
+    }
+}
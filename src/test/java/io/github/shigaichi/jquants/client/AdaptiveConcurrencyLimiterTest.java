@@ -0,0 +1,223 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.shigaichi.jquants.client.AdaptiveConcurrencyLimiter.Outcome;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String ENDPOINT = "/v1/listed/info";
+
+    @Test
+    @DisplayName("上限を超えた要求は待機し、返却されると到着順に実行枠を得る")
+    void queuesAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder().initialLimit(1).maxLimit(1).build();
+
+        CompletableFuture<Void> first = limiter.acquire();
+        CompletableFuture<Void> second = limiter.acquire();
+        CompletableFuture<Void> third = limiter.acquire();
+
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(2, limiter.getQueueDepth());
+
+        limiter.release();
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+        assertEquals(1, limiter.getQueueDepth());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("正常な応答が続くと上限を 1 ずつ増やし、429 で乗算的に減らす")
+    void additiveIncreaseMultiplicativeDecrease() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder()
+                        .initialLimit(4)
+                        .maxLimit(10)
+                        .backoffRatio(0.5)
+                        .nanoTime(now::get)
+                        .build();
+
+        for (int i = 0; i < 3; i++) {
+            completeWithLatency(limiter, now, 10 * MILLIS, Outcome.SUCCESS, 4);
+        }
+        assertEquals(7, limiter.getLimit());
+
+        assertTrue(limiter.acquire().isDone());
+        limiter.release(ENDPOINT, now.get(), Outcome.OVERLOAD);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("同時に実行していたリクエストが続けて過負荷になっても、上限を減らすのは 1 回だけ")
+    void decreasesOncePerWindow() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder()
+                        .initialLimit(8)
+                        .backoffRatio(0.5)
+                        .nanoTime(now::get)
+                        .build();
+
+        List<Long> starts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.acquire().isDone());
+            starts.add(limiter.startTime());
+        }
+        now.addAndGet(10 * MILLIS);
+        for (long start : starts) {
+            limiter.release(ENDPOINT, start, Outcome.OVERLOAD);
+        }
+        assertEquals(4, limiter.getLimit());
+
+        // 減らした後に開始したリクエストの過負荷では再び減らす
+        now.addAndGet(MILLIS);
+        completeWithLatency(limiter, now, 10 * MILLIS, Outcome.OVERLOAD, 1);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("レイテンシの水準が変わっても基準値が追従し、上限は再び増える")
+    void recoversAfterLatencyShift() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder()
+                        .initialLimit(10)
+                        .maxLimit(20)
+                        .latencyTolerance(2.0)
+                        .backoffRatio(0.9)
+                        .baselineWindow(3)
+                        .nanoTime(now::get)
+                        .build();
+
+        completeWithLatency(limiter, now, 10 * MILLIS, Outcome.SUCCESS, 10);
+        assertEquals(11, limiter.getLimit());
+
+        // 基準値の 3 倍のレイテンシは悪化とみなして減らす
+        completeWithLatency(limiter, now, 30 * MILLIS, Outcome.SUCCESS, 11);
+        completeWithLatency(limiter, now, 30 * MILLIS, Outcome.SUCCESS, 9);
+        assertEquals(8, limiter.getLimit());
+
+        // 10 ミリ秒の観測値が窓から外れると 30 ミリ秒が基準値になり、上限を増やす
+        for (int i = 0; i < 3; i++) {
+            completeWithLatency(limiter, now, 30 * MILLIS, Outcome.SUCCESS, limiter.getLimit());
+        }
+        assertEquals(11, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("レイテンシの基準値はエンドポイントごとに求める")
+    void keepsBaselinePerEndpoint() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder()
+                        .initialLimit(1)
+                        .maxLimit(10)
+                        .latencyTolerance(2.0)
+                        .nanoTime(now::get)
+                        .build();
+
+        assertTrue(limiter.acquire().isDone());
+        long start = limiter.startTime();
+        now.addAndGet(MILLIS);
+        limiter.release("/v1/listed/info", start, Outcome.SUCCESS);
+
+        // 遅いエンドポイントの応答を速いエンドポイントの基準値と比べない
+        assertTrue(limiter.acquire().isDone());
+        start = limiter.startTime();
+        now.addAndGet(50 * MILLIS);
+        limiter.release("/v1/prices/daily_quotes", start, Outcome.SUCCESS);
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("レイテンシが最小値の許容倍率を超えると上限を減らす")
+    void decreasesOnLatencyIncrease() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder()
+                        .initialLimit(10)
+                        .maxLimit(20)
+                        .latencyTolerance(2.0)
+                        .backoffRatio(0.8)
+                        .nanoTime(now::get)
+                        .build();
+
+        completeWithLatency(limiter, now, 10 * MILLIS, Outcome.SUCCESS, 10);
+        assertEquals(11, limiter.getLimit());
+        completeWithLatency(limiter, now, 50 * MILLIS, Outcome.SUCCESS, 11);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("上限を使い切っていない場合は上限を増やさない")
+    void doesNotGrowUnusedLimit() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder().initialLimit(10).nanoTime(now::get).build();
+
+        for (int i = 0; i < 5; i++) {
+            completeWithLatency(limiter, now, MILLIS, Outcome.SUCCESS, 1);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("executor は 429 応答を過負荷として上限を減らす")
+    void executorReportsTooManyRequests() throws Exception {
+        HttpResponse<String> tooManyRequests = mock(HttpResponse.class);
+        when(tooManyRequests.statusCode()).thenReturn(429);
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any())).thenReturn(tooManyRequests);
+        when(delegate.sendAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(tooManyRequests));
+        AdaptiveConcurrencyLimiter limiter =
+                AdaptiveConcurrencyLimiter.builder().initialLimit(8).backoffRatio(0.5).build();
+        ConcurrencyLimitingRequestExecutor executor =
+                new ConcurrencyLimitingRequestExecutor(delegate, limiter);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("https://example.com")).build();
+
+        executor.send(request);
+        assertEquals(4, limiter.getLimit());
+        executor.sendAsync(request).get();
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static void completeWithLatency(
+            AdaptiveConcurrencyLimiter limiter,
+            AtomicLong now,
+            long latency,
+            Outcome outcome,
+            int concurrent) {
+        List<Long> starts = new ArrayList<>();
+        for (int i = 0; i < concurrent; i++) {
+            assertTrue(limiter.acquire().isDone());
+            starts.add(limiter.startTime());
+        }
+        now.addAndGet(latency);
+        limiter.release(ENDPOINT, starts.get(0), outcome);
+        for (int i = 1; i < concurrent; i++) {
+            limiter.release(ENDPOINT, starts.get(i), Outcome.IGNORED);
+        }
+    }
+}
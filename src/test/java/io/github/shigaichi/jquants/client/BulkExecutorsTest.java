@@ -0,0 +1,42 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BulkExecutorsTest {
+    /** java21 プロファイルでパッケージ済みのマルチリリース JAR に対してテストする場合に true を設定するシステムプロパティ。 */
+    private static final String MULTI_RELEASE_JAR = "jquants.test.multiReleaseJar";
+
+    @Test
+    @DisplayName("一括取得のタスクは jquants-bulk- で始まる名前のスレッドで実行する")
+    void runsTasksOnBulkThreads() throws Exception {
+        Thread thread = runOnBulkExecutor();
+
+        assertThat(thread.getName()).startsWith("jquants-bulk-");
+    }
+
+    @Test
+    @DisplayName("マルチリリース JAR を JDK 21 以降で実行した場合は仮想スレッドで実行する")
+    void runsTasksOnVirtualThreadsFromMultiReleaseJar() throws Exception {
+        assumeTrue(Boolean.getBoolean(MULTI_RELEASE_JAR));
+
+        Thread thread = runOnBulkExecutor();
+
+        // release 11 でコンパイルするため Thread#isVirtual はリフレクションで呼び出す
+        assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(thread));
+    }
+
+    private static Thread runOnBulkExecutor() throws Exception {
+        ExecutorService executor = BulkExecutors.newExecutor(2);
+        try {
+            return executor.submit(Thread::currentThread).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.shigaichi.jquants.client.metrics.EndpointSnapshot;
+import io.github.shigaichi.jquants.client.metrics.MetricsRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HttpClientRequestExecutorTest {
+    private static final String BODY = createBody();
+    private static final int BODY_BYTES = BODY.getBytes(StandardCharsets.UTF_8).length;
+
+    private final List<String> acceptEncodings = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private URI baseUri;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(
+                "/",
+                exchange -> {
+                    String acceptEncoding =
+                            exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                    acceptEncodings.add(String.valueOf(acceptEncoding));
+                    String encoding = exchange.getRequestURI().getPath().substring(1);
+                    byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+                    if (acceptEncoding != null && !encoding.equals("identity")) {
+                        body = compress(body, encoding);
+                        exchange.getResponseHeaders()
+                                .add(
+                                        "Content-Encoding",
+                                        encoding.startsWith("deflate") ? "deflate" : encoding);
+                    }
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+        server.createContext(
+                "/empty/",
+                exchange -> {
+                    int status =
+                            Integer.parseInt(
+                                    exchange.getRequestURI()
+                                            .getPath()
+                                            .substring("/empty/".length()));
+                    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(status, -1);
+                    exchange.close();
+                });
+        server.start();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "deflate", "deflate-raw", "identity"})
+    @DisplayName("Accept-Encoding を送信し、圧縮されたボディを展開して返す")
+    void decompressesBody(String encoding) throws Exception {
+        HttpClientRequestExecutor executor = new HttpClientRequestExecutor(newHttpClient());
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(encoding)).GET().build();
+
+        HttpResponse<String> response = executor.send(request);
+        HttpResponse<String> asyncResponse = executor.sendAsync(request).get();
+        HttpResponse<InputStream> streamingResponse = executor.sendStreaming(request);
+        String streamed;
+        try (InputStream body = streamingResponse.body()) {
+            streamed = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        assertEquals(BODY, response.body());
+        assertEquals(BODY, asyncResponse.body());
+        assertEquals(BODY, streamed);
+        assertEquals(List.of("gzip, deflate", "gzip, deflate", "gzip, deflate"), acceptEncodings);
+        assertEquals(!encoding.equals("identity"), response instanceof DecompressedHttpResponse);
+        if (response instanceof DecompressedHttpResponse) {
+            DecompressedHttpResponse<?> decompressed = (DecompressedHttpResponse<?>) response;
+            long compressedBytes = decompressed.getCompressedBytes();
+            assertEquals(BODY_BYTES, decompressed.getDecompressedBytes());
+            assertTrue(compressedBytes < BODY_BYTES / 4);
+            assertEquals(compressedBytes, HttpClientRequestExecutor.bodyLength(response));
+            DecompressedHttpResponse<?> streamedResponse =
+                    (DecompressedHttpResponse<?>) streamingResponse;
+            assertEquals(compressedBytes, streamedResponse.getCompressedBytes());
+            assertEquals(BODY_BYTES, streamedResponse.getDecompressedBytes());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {204, 401, 503})
+    @DisplayName("Content-Encoding が付いた空のボディは展開せずに空のまま返す")
+    void returnsEmptyCompressedBody(int status) throws Exception {
+        HttpClientRequestExecutor executor = new HttpClientRequestExecutor(newHttpClient());
+        HttpRequest request =
+                HttpRequest.newBuilder(baseUri.resolve("empty/" + status)).GET().build();
+
+        HttpResponse<String> response = executor.send(request);
+        HttpResponse<String> asyncResponse = executor.sendAsync(request).get();
+        HttpResponse<InputStream> streamingResponse = executor.sendStreaming(request);
+
+        assertEquals(status, response.statusCode());
+        assertEquals("", response.body());
+        assertEquals(status, asyncResponse.statusCode());
+        assertEquals("", asyncResponse.body());
+        try (InputStream body = streamingResponse.body()) {
+            assertEquals(-1, body.read());
+        }
+    }
+
+    @Test
+    @DisplayName("圧縮を無効にした場合は Accept-Encoding を送信しない")
+    void compressionDisabled() throws Exception {
+        HttpClientRequestExecutor executor = new HttpClientRequestExecutor(newHttpClient(), false);
+
+        HttpResponse<String> response =
+                executor.send(HttpRequest.newBuilder(baseUri.resolve("gzip")).GET().build());
+
+        assertEquals(BODY, response.body());
+        assertFalse(response instanceof DecompressedHttpResponse);
+        assertEquals(List.of("null"), acceptEncodings);
+    }
+
+    @Test
+    @DisplayName("展開前後のバイト数をメトリクスに通知する")
+    void reportsCompressedBytes() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        HttpRequestExecutor executor =
+                new MetricsRequestExecutor(
+                        new HttpClientRequestExecutor(newHttpClient()),
+                        metrics,
+                        new EndpointResolver(baseUri));
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("gzip")).GET().build();
+
+        executor.send(request);
+        try (InputStream body = executor.sendStreaming(request).body()) {
+            body.readAllBytes();
+        }
+
+        EndpointSnapshot snapshot = metrics.snapshot("/gzip").orElseThrow();
+        assertEquals(2L * BODY_BYTES, snapshot.getDecompressedBytes());
+        assertEquals(snapshot.getBytesReceived(), snapshot.getCompressedBytes());
+        assertTrue(snapshot.getCompressedBytes() < BODY_BYTES / 2);
+    }
+
+    private static HttpClient newHttpClient() {
+        return HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    private static byte[] compress(byte[] body, String encoding) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream out;
+        if (encoding.equals("gzip")) {
+            out = new GZIPOutputStream(bytes);
+        } else {
+            out =
+                    new DeflaterOutputStream(
+                            bytes,
+                            new Deflater(Deflater.DEFAULT_COMPRESSION, encoding.endsWith("raw")));
+        }
+        try (out) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String createBody() {
+        List<String> info = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            info.add(
+                    String.format(
+                            "{\"Code\":\"%05d\",\"CompanyName\":\"銘柄%d\",\"MarketCode\":\"0111\"}",
+                            10000 + i, i));
+        }
+        return "{\"info\":[" + String.join(",", info) + "]}";
+    }
+}
@@ -1,27 +1,48 @@
 package io.github.shigaichi.jquants.client;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoBulkResult;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoChange;
 import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
 import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import io.github.shigaichi.jquants.client.token.IdTokenProvider;
 import io.github.shigaichi.jquants.client.token.IdTokenResponse;
+import io.github.shigaichi.jquants.client.token.RefreshingIdTokenProvider;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -304,6 +325,594 @@ class JQuantsClientTest {
         assertTrue(exception.getMessage().contains("refreshtokenが不正です"));
     }
 
+    @Test
+    @DisplayName("getListedInfoAsync: 非同期に銘柄一覧を取得し、指定した Executor でデコードする")
+    void fetchListedInfoAsync() throws Exception {
+        HttpResponse<String> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body())
+                .thenReturn("{\"info\": [{\"Code\": \"86970\"}], \"pagination_key\": \"next-1\"}");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(httpResponse));
+
+        List<String> decodeThreads = new ArrayList<>();
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        executor,
+                        command -> {
+                            decodeThreads.add("decode");
+                            command.run();
+                        });
+
+        ListedInfoResponse response =
+                client.getListedInfoAsync(ListedInfoQuery.builder().code("86970").build()).get();
+
+        assertEquals("86970", response.getInfo().get(0).getCode());
+        assertEquals(Optional.of("next-1"), response.getPaginationKey());
+        // ID トークンの取得とデコードの両方を指定した Executor で実行する
+        assertEquals(List.of("decode", "decode"), decodeThreads);
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(executor).sendAsync(requestCaptor.capture());
+        assertEquals(
+                JQuantsClient.DEFAULT_BASE_URL + "/listed/info?code=86970",
+                requestCaptor.getValue().uri().toString());
+    }
+
+    @Test
+    @DisplayName("getListedInfoAsync: エラー応答の場合は JQuantsApiException で完了する")
+    void fetchListedInfoAsyncCompletesExceptionallyOnError() {
+        HttpResponse<String> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(400);
+        when(httpResponse.body()).thenReturn("{\"message\":\"無効なリクエスト\"}");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(httpResponse));
+
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+
+        CompletionException exception =
+                assertThrows(
+                        CompletionException.class, () -> client.getListedInfoAsync(null).join());
+        assertThat(exception.getCause()).isInstanceOf(JQuantsApiException.class);
+        assertThat(exception.getCause().getMessage()).contains("status=400");
+    }
+
+    @Test
+    @DisplayName("authenticateUserAsync: refreshTokenのみ返す場合は非同期にauth_refreshを呼び出す")
+    void authenticateUserAsyncWithRefreshTokenOnly() throws Exception {
+        HttpResponse<String> authResponse = mock(HttpResponse.class);
+        when(authResponse.statusCode()).thenReturn(200);
+        when(authResponse.body()).thenReturn("{\"refreshToken\":\"refresh-token\"}");
+
+        HttpResponse<String> refreshResponse = mock(HttpResponse.class);
+        when(refreshResponse.statusCode()).thenReturn(200);
+        when(refreshResponse.body()).thenReturn("{\"idToken\":\"renewed-id-token\"}");
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(requestCaptor.capture()))
+                .thenReturn(
+                        CompletableFuture.completedFuture(authResponse),
+                        CompletableFuture.completedFuture(refreshResponse));
+
+        IdTokenResponse response =
+                JQuantsClient.authenticateUserAsync(
+                                "user@example.com",
+                                "password",
+                                JQuantsClient.DEFAULT_BASE_URI,
+                                executor,
+                                Runnable::run)
+                        .get();
+
+        assertEquals("renewed-id-token", response.getIdToken());
+        assertEquals("refresh-token", response.getRefreshToken());
+        List<HttpRequest> requests = requestCaptor.getAllValues();
+        assertEquals(2, requests.size());
+        assertEquals(
+                JQuantsClient.DEFAULT_BASE_URL + "/token/auth_refresh?refreshtoken=refresh-token",
+                requests.get(1).uri().toString());
+    }
+
+    @Test
+    @DisplayName("refreshIdTokenAsync: リフレッシュトークンから非同期にIDトークンを取得する")
+    void refreshIdTokenAsync() throws Exception {
+        HttpResponse<String> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body()).thenReturn("{\"idToken\":\"renewed-id-token\"}");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(httpResponse));
+
+        String idToken =
+                JQuantsClient.refreshIdTokenAsync(
+                                "refresh-token",
+                                JQuantsClient.DEFAULT_BASE_URI,
+                                executor,
+                                Runnable::run)
+                        .get();
+
+        assertEquals("renewed-id-token", idToken);
+    }
+
+    @Test
+    @DisplayName("forEachListedInfo: レスポンスをストリーミングでデコードし、1件ずつ consumer に渡す")
+    void forEachListedInfoStreamsRecords() throws Exception {
+        String responseBody =
+                "{\"meta\": {\"nested\": [1, {\"info\": []}]},"
+                        + " \"info\": [{\"Code\": \"86970\", \"Extra\": {\"a\": 1}},"
+                        + " {\"Code\": \"72030\", \"BasePrice\": 2500.5}],"
+                        + " \"pagination_key\": \"next-1\"}";
+        HttpResponse<InputStream> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body())
+                .thenReturn(
+                        new ByteArrayInputStream(responseBody.getBytes(StandardCharsets.UTF_8)));
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendStreaming(any())).thenReturn(httpResponse);
+
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+
+        List<ListedInfo> received = new ArrayList<>();
+        Optional<String> paginationKey =
+                client.forEachListedInfo(
+                        ListedInfoQuery.builder().date("2024-02-09").build(), received::add);
+
+        assertEquals(2, received.size());
+        assertEquals("86970", received.get(0).getCode());
+        assertEquals("72030", received.get(1).getCode());
+        assertEquals("2500.5", received.get(1).getBasePrice().toPlainString());
+        assertEquals(Optional.of("next-1"), paginationKey);
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(executor).sendStreaming(requestCaptor.capture());
+        assertEquals(
+                JQuantsClient.DEFAULT_BASE_URL + "/listed/info?date=2024-02-09",
+                requestCaptor.getValue().uri().toString());
+    }
+
+    @Test
+    @DisplayName("forEachListedInfo: info の null 要素は読み飛ばし、後続の銘柄と pagination_key を返す")
+    void forEachListedInfoSkipsNullElements() throws Exception {
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        streamingExecutor(
+                                "{\"info\": [null, {\"Code\": \"86970\"}, null, {\"Code\":"
+                                        + " \"72030\"}], \"pagination_key\": \"next-1\"}"));
+
+        List<ListedInfo> received = new ArrayList<>();
+        Optional<String> paginationKey = client.forEachListedInfo(null, received::add);
+
+        assertThat(received).extracting(ListedInfo::getCode).containsExactly("86970", "72030");
+        assertEquals(Optional.of("next-1"), paginationKey);
+    }
+
+    @Test
+    @DisplayName("forEachListedInfo: info の要素がオブジェクトでない場合は途中で打ち切らずに例外をスローする")
+    void forEachListedInfoRejectsNonObjectElements() throws Exception {
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        streamingExecutor(
+                                "{\"info\": [{\"Code\": \"86970\"}, 1, {\"Code\": \"72030\"}],"
+                                        + " \"pagination_key\": \"next-1\"}"));
+
+        List<ListedInfo> received = new ArrayList<>();
+        assertThrows(JsonParseException.class, () -> client.forEachListedInfo(null, received::add));
+        assertThat(received).extracting(ListedInfo::getCode).containsExactly("86970");
+    }
+
+    @Test
+    @DisplayName("forEachListedInfo: エラー応答の場合に例外をスローする")
+    void forEachListedInfoThrowsOnErrorResponse() throws Exception {
+        String responseBody = "{\"message\":\"無効なリクエスト\"}";
+        HttpResponse<InputStream> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(400);
+        when(httpResponse.body())
+                .thenReturn(
+                        new ByteArrayInputStream(responseBody.getBytes(StandardCharsets.UTF_8)));
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendStreaming(any())).thenReturn(httpResponse);
+
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+
+        List<ListedInfo> received = new ArrayList<>();
+        JQuantsApiException exception =
+                assertThrows(
+                        JQuantsApiException.class,
+                        () -> client.forEachListedInfo(null, received::add));
+        assertThat(exception.getMessage()).contains("status=400");
+        assertThat(exception.getMessage()).contains("無効なリクエスト");
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    @DisplayName("401 応答の場合はトークンプロバイダから更新したトークンで 1 回だけ再試行する")
+    void retriesWithRenewedTokenOnUnauthorized() throws Exception {
+        HttpResponse<String> unauthorized = mock(HttpResponse.class);
+        when(unauthorized.statusCode()).thenReturn(401);
+        when(unauthorized.body())
+                .thenReturn("{\"message\":\"The incoming token is invalid or expired.\"}");
+
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("{\"info\": [{\"Code\": \"86970\"}]}");
+
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.send(requestCaptor.capture())).thenReturn(unauthorized, ok);
+
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(token -> "renewed-token")
+                        .idToken("expired-token", null)
+                        .build();
+        JQuantsClient client =
+                new JQuantsClient(
+                        provider, JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+
+        ListedInfoResponse response = client.getListedInfo(null);
+
+        assertEquals("86970", response.getInfo().get(0).getCode());
+        List<HttpRequest> requests = requestCaptor.getAllValues();
+        assertEquals(
+                "Bearer expired-token",
+                requests.get(0).headers().firstValue("Authorization").orElse(""));
+        assertEquals(
+                "Bearer renewed-token",
+                requests.get(1).headers().firstValue("Authorization").orElse(""));
+    }
+
+    @Test
+    @DisplayName("getListedInfoAsync: 401 応答の場合は更新したトークンで再試行する")
+    void retriesAsyncWithRenewedTokenOnUnauthorized() throws Exception {
+        HttpResponse<String> unauthorized = mock(HttpResponse.class);
+        when(unauthorized.statusCode()).thenReturn(401);
+        when(unauthorized.body()).thenReturn("{}");
+
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("{\"info\": [{\"Code\": \"86970\"}]}");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any()))
+                .thenReturn(
+                        CompletableFuture.completedFuture(unauthorized),
+                        CompletableFuture.completedFuture(ok));
+
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(token -> "renewed-token")
+                        .idToken("expired-token", null)
+                        .build();
+        JQuantsClient client =
+                new JQuantsClient(
+                        provider, JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+
+        ListedInfoResponse response = client.getListedInfoAsync(null).get();
+
+        assertEquals("86970", response.getInfo().get(0).getCode());
+    }
+
+    @Test
+    @DisplayName("getListedInfoAsync: トークンの取得は呼び出しスレッドで行わず、失敗は Future の例外で通知する")
+    void acquiresTokenAsynchronously() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IdTokenProvider provider = mock(IdTokenProvider.class);
+        when(provider.getIdToken())
+                .thenAnswer(
+                        invocation -> {
+                            release.await();
+                            throw new JQuantsApiException("更新失敗", 500);
+                        });
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        ExecutorService decodeExecutor = Executors.newSingleThreadExecutor();
+        try {
+            JQuantsClient client =
+                    new JQuantsClient(
+                            provider, JQuantsClient.DEFAULT_BASE_URI, executor, decodeExecutor);
+
+            // トークンの取得を待たずに Future を返す
+            CompletableFuture<ListedInfoResponse> response = client.getListedInfoAsync(null);
+            assertFalse(response.isDone());
+
+            release.countDown();
+            CompletionException exception = assertThrows(CompletionException.class, response::join);
+            assertThat(exception.getCause()).isInstanceOf(JQuantsApiException.class);
+            verify(executor, times(0)).sendAsync(any());
+        } finally {
+            decodeExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("固定トークンの場合は 401 応答でも再試行せずに例外をスローする")
+    void doesNotRetryWithFixedToken() throws Exception {
+        HttpResponse<String> unauthorized = mock(HttpResponse.class);
+        when(unauthorized.statusCode()).thenReturn(401);
+        when(unauthorized.body()).thenReturn("{\"message\":\"expired\"}");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.send(any())).thenReturn(unauthorized);
+
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+
+        JQuantsApiException exception =
+                assertThrows(JQuantsApiException.class, () -> client.getListedInfo(null));
+        assertEquals(401, exception.getStatusCode());
+        verify(executor, times(1)).send(any());
+    }
+
+    @Test
+    @DisplayName("キャッシュを指定した場合、同じ検索条件は表記が異なっても API を 1 回だけ呼び出す")
+    void listedInfoCacheReusesResponse() throws Exception {
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("{\"info\": [{\"Code\": \"86970\"}]}");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.send(any())).thenReturn(ok);
+
+        ListedInfoCache cache = ListedInfoCache.builder().build();
+        JQuantsClient client =
+                new JQuantsClient(
+                        IdTokenProvider.of("dummy-token"),
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        executor,
+                        Runnable::run,
+                        cache);
+
+        ListedInfoResponse first =
+                client.getListedInfo(ListedInfoQuery.builder().code("8697").build());
+        ListedInfoResponse second =
+                client.getListedInfoAsync(ListedInfoQuery.builder().code("86970").build()).get();
+        client.getListedInfo(ListedInfoQuery.builder().code("86970").paginationKey("k").build());
+
+        assertEquals(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        verify(executor, times(2)).send(any());
+    }
+
+    @Test
+    @DisplayName("実行中の呼び出しと同じ検索条件の呼び出しはリクエストとデコード結果を共有する")
+    void coalescesConcurrentIdenticalCalls() throws Exception {
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("{\"info\": [{\"Code\": \"86970\"}]}");
+
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(pending, CompletableFuture.completedFuture(ok));
+
+        JQuantsClient client =
+                new JQuantsClient(
+                        IdTokenProvider.of("dummy-token"),
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        executor,
+                        Runnable::run);
+
+        CompletableFuture<ListedInfoResponse> first =
+                client.getListedInfoAsync(ListedInfoQuery.builder().code("8697").build());
+        CompletableFuture<ListedInfoResponse> second =
+                client.getListedInfoAsync(ListedInfoQuery.builder().code("86970").build());
+        second.cancel(false);
+        CompletableFuture<ListedInfoResponse> third =
+                client.getListedInfoAsync(ListedInfoQuery.builder().code("86970").build());
+        verify(executor, times(1)).sendAsync(any());
+
+        pending.complete(ok);
+        assertSame(first.get(), third.get());
+        assertEquals("86970", first.get().getInfo().get(0).getCode());
+
+        // 完了後の呼び出しは新たにリクエストを送る
+        client.getListedInfoAsync(ListedInfoQuery.builder().code("86970").build()).get();
+        verify(executor, times(2)).sendAsync(any());
+    }
+
+    @Test
+    @DisplayName("共有した呼び出しが失敗した場合は待機していた呼び出しも同じ例外で完了する")
+    void coalescedCallsShareFailure() {
+        HttpResponse<String> error = mock(HttpResponse.class);
+        when(error.statusCode()).thenReturn(500);
+        when(error.body()).thenReturn("{\"message\":\"error\"}");
+
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(pending);
+
+        JQuantsClient client =
+                new JQuantsClient(
+                        IdTokenProvider.of("dummy-token"),
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        executor,
+                        Runnable::run);
+
+        CompletableFuture<ListedInfoResponse> first = client.getListedInfoAsync(null);
+        CompletableFuture<ListedInfoResponse> second = client.getListedInfoAsync(null);
+        pending.complete(error);
+
+        CompletionException firstError = assertThrows(CompletionException.class, first::join);
+        CompletionException secondError = assertThrows(CompletionException.class, second::join);
+        assertThat(firstError.getCause()).isInstanceOf(JQuantsApiException.class);
+        assertSame(firstError.getCause(), secondError.getCause());
+    }
+
+    @Test
+    @DisplayName("トークンの取得に失敗した呼び出しは実行中の登録を解除し、次の呼び出しは改めて取得する")
+    void releasesInFlightCallWhenTokenProviderThrows() throws Exception {
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("{\"info\": [{\"Code\": \"86970\"}]}");
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(ok));
+        IdTokenProvider provider = mock(IdTokenProvider.class);
+        when(provider.getIdToken())
+                .thenThrow(new IllegalStateException("取得失敗"))
+                .thenReturn("dummy-token");
+
+        JQuantsClient client =
+                new JQuantsClient(
+                        provider, JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+
+        CompletionException exception =
+                assertThrows(
+                        CompletionException.class, () -> client.getListedInfoAsync(null).join());
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+        verify(executor, times(0)).sendAsync(any());
+
+        assertEquals(
+                "86970",
+                client.getListedInfoAsync(null)
+                        .get(1, TimeUnit.SECONDS)
+                        .getInfo()
+                        .get(0)
+                        .getCode());
+        verify(executor, times(1)).sendAsync(any());
+    }
+
+    @Test
+    @DisplayName("Executor が受け付けない場合は失敗した Future を返し、次の呼び出しは改めて取得する")
+    void releasesInFlightCallWhenExecutorRejects() throws Exception {
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("{\"info\": [{\"Code\": \"86970\"}]}");
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(ok));
+        AtomicBoolean reject = new AtomicBoolean(true);
+        Executor decodeExecutor =
+                command -> {
+                    if (reject.getAndSet(false)) {
+                        throw new RejectedExecutionException();
+                    }
+                    command.run();
+                };
+
+        JQuantsClient client =
+                new JQuantsClient(
+                        IdTokenProvider.of("dummy-token"),
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        executor,
+                        decodeExecutor);
+
+        CompletableFuture<ListedInfoResponse> rejected = client.getListedInfoAsync(null);
+        CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+        assertThat(exception.getCause()).isInstanceOf(RejectedExecutionException.class);
+
+        assertEquals(
+                "86970",
+                client.getListedInfoAsync(null)
+                        .get(1, TimeUnit.SECONDS)
+                        .getInfo()
+                        .get(0)
+                        .getCode());
+    }
+
+    @Test
+    @DisplayName("ListedInfoResponse の銘柄情報リストは変更できない")
+    void listedInfoResponseIsImmutable() {
+        ListedInfoResponse response = new ListedInfoResponse(new ArrayList<>(), null);
+
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> response.getInfo().add(ListedInfo.builder().build()));
+    }
+
+    @Test
+    @DisplayName("複数銘柄を一括取得し、失敗した銘柄は結果と分けて返す")
+    void fetchListedInfoForMultipleCodes() throws Exception {
+        HttpResponse<String> toyota = mock(HttpResponse.class);
+        when(toyota.statusCode()).thenReturn(200);
+        when(toyota.body()).thenReturn("{\"info\": [{\"Code\": \"72030\"}]}");
+        HttpResponse<String> jpx = mock(HttpResponse.class);
+        when(jpx.statusCode()).thenReturn(200);
+        when(jpx.body()).thenReturn("{\"info\": [{\"Code\": \"86970\"}]}");
+        HttpResponse<String> notFound = mock(HttpResponse.class);
+        when(notFound.statusCode()).thenReturn(400);
+        when(notFound.body()).thenReturn("{\"message\":\"invalid code\"}");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.send(any()))
+                .thenAnswer(
+                        invocation -> {
+                            String uri = invocation.<HttpRequest>getArgument(0).uri().toString();
+                            if (uri.contains("code=72030")) {
+                                return toyota;
+                            }
+                            return uri.contains("code=86970") ? jpx : notFound;
+                        });
+
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+
+        ListedInfoBulkResult result =
+                client.getListedInfo(List.of("72030", "99999", "86970", "72030"), "2024-02-09", 2);
+
+        assertEquals(List.of("72030", "86970"), new ArrayList<>(result.getResults().keySet()));
+        assertEquals("86970", result.getResults().get("86970").get(0).getCode());
+        assertEquals(List.of("99999"), new ArrayList<>(result.getFailures().keySet()));
+        assertThat(result.getFailures().get("99999")).isInstanceOf(JQuantsApiException.class);
+        verify(executor, times(3)).send(any());
+    }
+
+    @Test
+    @DisplayName("一括取得の同時実行数は parallelism 以下に抑えられる")
+    void bulkFetchRespectsParallelism() throws Exception {
+        HttpResponse<String> ok = mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenReturn("{\"info\": []}");
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.send(any()))
+                .thenAnswer(
+                        invocation -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            Thread.sleep(5);
+                            running.decrementAndGet();
+                            return ok;
+                        });
+
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            codes.add(String.valueOf(10000 + i * 10));
+        }
+
+        ListedInfoBulkResult result = client.getListedInfo(codes, null, 3);
+
+        assertTrue(result.isComplete());
+        assertEquals(30, result.getResults().size());
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(3);
+    }
+
+    private static HttpRequestExecutor streamingExecutor(String responseBody) throws Exception {
+        HttpResponse<InputStream> httpResponse = mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body())
+                .thenReturn(
+                        new ByteArrayInputStream(responseBody.getBytes(StandardCharsets.UTF_8)));
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendStreaming(any())).thenReturn(httpResponse);
+        return executor;
+    }
+
     private static String extractBody(HttpRequest request) throws InterruptedException {
         CountDownLatch latch = new CountDownLatch(1);
         StringBuilder builder = new StringBuilder();
@@ -363,6 +972,47 @@ class JQuantsClientTest {
                 () -> JQuantsClient.authenticateUser("user@example.com", "   "));
     }
 
+    @Test
+    @DisplayName("diffListedInfo: 比較元を取得し、比較先をストリーミングで比較する")
+    void diffListedInfoBetweenDates() throws Exception {
+        HttpResponse<String> before = mock(HttpResponse.class);
+        when(before.statusCode()).thenReturn(200);
+        when(before.body())
+                .thenReturn(
+                        "{\"info\": [{\"Code\": \"86970\", \"MarketCode\": \"0111\"},"
+                                + " {\"Code\": \"13010\", \"MarketCode\": \"0111\"}]}");
+        HttpResponse<InputStream> after = mock(HttpResponse.class);
+        when(after.statusCode()).thenReturn(200);
+        when(after.body())
+                .thenReturn(
+                        new ByteArrayInputStream(
+                                ("{\"info\": [{\"Code\": \"86970\", \"MarketCode\": \"0112\"},"
+                                     + " {\"Code\": \"130A0\", \"MarketCode\": \"0111\"}]}")
+                                        .getBytes(StandardCharsets.UTF_8)));
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.send(any())).thenReturn(before);
+        when(executor.sendStreaming(any())).thenReturn(after);
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+
+        List<ListedInfoChange> changes = client.diffListedInfo("2024-01-04", "2024-01-05");
+
+        assertThat(changes)
+                .extracting(ListedInfoChange::getType, ListedInfoChange::getCode)
+                .containsExactly(
+                        tuple(ListedInfoChange.Type.CHANGED, "86970"),
+                        tuple(ListedInfoChange.Type.LISTED, "130A0"),
+                        tuple(ListedInfoChange.Type.DELISTED, "13010"));
+        assertThat(changes.get(0).getChangedFields())
+                .containsExactly(ListedInfoChange.Field.MARKET);
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(executor).sendStreaming(requestCaptor.capture());
+        assertEquals(
+                JQuantsClient.DEFAULT_BASE_URL + "/listed/info?date=2024-01-05",
+                requestCaptor.getValue().uri().toString());
+    }
+
     @Test
     @DisplayName("refreshIdToken: refreshToken が null/空文字の場合に IllegalArgumentException を送出する")
     void refreshIdTokenThrowIllegalArgumentExceptionWithInvalidInputs() {
@@ -0,0 +1,132 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JQuantsEventTest {
+    private static final String LISTED_INFO_BODY =
+            "{\"info\":[{\"Code\":\"86970\"},{\"Code\":\"13010\"}]}";
+
+    @TempDir Path directory;
+
+    private HttpServer server;
+    private URI baseUri;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(
+                "/",
+                exchange -> {
+                    String path = exchange.getRequestURI().getPath();
+                    String body =
+                            path.equals("/v1/token/auth_refresh")
+                                    ? "{\"idToken\":\"id-token\"}"
+                                    : LISTED_INFO_BODY;
+                    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, bytes.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(bytes);
+                    }
+                });
+        server.start();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort() + "/v1");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("API 呼び出し・デコード・トークン取得を JFR イベントとして記録する")
+    void recordsEvents() throws Exception {
+        Path file = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording();
+                JQuantsSession session =
+                        JQuantsSession.builder()
+                                .baseUri(baseUri)
+                                .version(HttpClient.Version.HTTP_1_1)
+                                .build()) {
+            recording.enable(JQuantsRequestEvent.class);
+            recording.enable(JQuantsDecodeEvent.class);
+            recording.enable(JQuantsTokenRefreshEvent.class);
+            recording.start();
+
+            String idToken = session.refreshIdToken("secret-refresh-token");
+            JQuantsClient client = session.newClient(idToken);
+            client.getListedInfo(null);
+            client.forEachListedInfo(null, info -> {});
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> requests = eventsNamed(events, "io.github.shigaichi.jquants.Request");
+        assertThat(requests)
+                .extracting(
+                        e -> e.getString("method"),
+                        e -> e.getString("endpoint"),
+                        e -> e.getString("query"),
+                        e -> e.getInt("statusCode"))
+                .containsExactlyInAnyOrder(
+                        tuple("POST", "/v1/token/auth_refresh", "refreshtoken=***", 200),
+                        tuple("GET", "/v1/listed/info", null, 200),
+                        tuple("GET", "/v1/listed/info", null, 200));
+        assertThat(requests)
+                .filteredOn(e -> e.getString("endpoint").equals("/v1/listed/info"))
+                .extracting(e -> e.getLong("payloadSize"))
+                .containsOnly((long) LISTED_INFO_BODY.length());
+
+        assertThat(eventsNamed(events, "io.github.shigaichi.jquants.Decode"))
+                .extracting(e -> e.getString("endpoint"), e -> e.getInt("records"))
+                .containsExactlyInAnyOrder(
+                        tuple("/token/auth_refresh", 1),
+                        tuple("/listed/info", 2),
+                        tuple("/listed/info", 2));
+
+        List<RecordedEvent> refreshes =
+                eventsNamed(events, "io.github.shigaichi.jquants.TokenRefresh");
+        assertEquals(1, refreshes.size());
+        assertEquals("/token/auth_refresh", refreshes.get(0).getString("endpoint"));
+        assertThat(refreshes.get(0).getBoolean("success")).isTrue();
+    }
+
+    @Test
+    @DisplayName("トークンや認証情報のクエリパラメータを伏せ字にする")
+    void redactsSecrets() {
+        assertEquals(
+                "code=86970&refreshtoken=***&Password=***&flag",
+                JQuantsRequestEvent.redactQuery("code=86970&refreshtoken=abc&Password=p&flag"));
+        assertNull(JQuantsRequestEvent.redactQuery(null));
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import io.github.shigaichi.jquants.client.metrics.EndpointSnapshot;
+import io.github.shigaichi.jquants.client.metrics.MetricsRegistry;
+import io.github.shigaichi.jquants.client.token.IdTokenResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JQuantsSessionTest {
+    private HttpServer server;
+    private URI baseUri;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(
+                "/",
+                exchange -> {
+                    requests.add(
+                            exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+                    String path = exchange.getRequestURI().getPath();
+                    if (path.equals("/v1/token/auth_user")) {
+                        respond(exchange, "{\"refreshToken\":\"refresh-token\"}");
+                    } else if (path.equals("/v1/token/auth_refresh")) {
+                        respond(exchange, "{\"idToken\":\"id-token\"}");
+                    } else if (path.equals("/v1/listed/info")) {
+                        respond(exchange, "{\"info\":[{\"Code\":\"86970\"}]}");
+                    } else {
+                        respond(exchange, "");
+                    }
+                });
+        server.start();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort() + "/v1");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("1 つの HttpClient でトークン取得と API 呼び出しを行う")
+    void sharesHttpClientForTokenAndDataCalls() throws Exception {
+        try (JQuantsSession session =
+                JQuantsSession.builder()
+                        .baseUri(baseUri)
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(3))
+                        .build()) {
+            session.warmUp();
+            IdTokenResponse tokens = session.authenticateUser("user@example.com", "password");
+            JQuantsClient client =
+                    session.newClient(
+                            session.tokenProviderBuilder()
+                                    .refreshToken(tokens.getRefreshToken())
+                                    .idToken(tokens.getIdToken(), null)
+                                    .build());
+            ListedInfoResponse response = client.getListedInfo(null);
+
+            assertEquals("id-token", tokens.getIdToken());
+            assertEquals("86970", response.getInfo().get(0).getCode());
+            assertEquals(Duration.ofSeconds(3), session.getHttpClient().connectTimeout().get());
+            assertEquals(
+                    List.of(
+                            "HEAD /v1",
+                            "POST /v1/token/auth_user",
+                            "POST /v1/token/auth_refresh",
+                            "GET /v1/listed/info"),
+                    requests);
+        }
+    }
+
+    @Test
+    @DisplayName("メトリクスをエンドポイントごとに集計する")
+    void recordsMetricsPerEndpoint() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        try (JQuantsSession session =
+                JQuantsSession.builder()
+                        .baseUri(baseUri)
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .listedInfoCache(ListedInfoCache.builder().build())
+                        .metrics(metrics)
+                        .build()) {
+            session.refreshIdToken("refresh-token");
+            JQuantsClient client = session.newClient("id-token");
+            client.getListedInfo(null);
+            client.getListedInfo(null);
+            client.getListedInfoAsync(null).get();
+            client.forEachListedInfo(null, info -> {});
+        }
+
+        int bodyLength = "{\"info\":[{\"Code\":\"86970\"}]}".length();
+        EndpointSnapshot listedInfo = metrics.snapshot("/listed/info").orElseThrow();
+        assertEquals(2, listedInfo.getRequestCount());
+        assertEquals(2, listedInfo.getResponseCount());
+        assertEquals(Map.of(200, 2L), listedInfo.getStatusCounts());
+        assertEquals(2L * bodyLength, listedInfo.getBytesReceived());
+        assertEquals(1, listedInfo.getCacheMissCount());
+        assertEquals(2, listedInfo.getCacheHitCount());
+        assertEquals(2, listedInfo.getLatency().getCount());
+        assertEquals(2, listedInfo.getDecodeTime().getCount());
+        assertTrue(listedInfo.getLatency().getMin() > 0);
+
+        EndpointSnapshot refresh = metrics.snapshot("/token/auth_refresh").orElseThrow();
+        assertEquals(1, refresh.getRequestCount());
+        assertEquals(0, refresh.getFailureCount());
+        assertEquals(
+                List.of("/listed/info", "/token/auth_refresh"),
+                List.copyOf(metrics.snapshot().keySet()));
+    }
+
+    @Test
+    @DisplayName("close 後は利用できない")
+    void rejectsUseAfterClose() {
+        JQuantsSession session = JQuantsSession.builder().baseUri(baseUri).build();
+        assertEquals(HttpClient.Version.HTTP_2, session.getHttpClient().version());
+
+        session.close();
+        session.close();
+
+        assertTrue(session.isClosed());
+        assertThrows(IllegalStateException.class, () -> session.newClient("id-token"));
+        assertThrows(IllegalStateException.class, session::warmUp);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            // JDK 11 の HttpServer は HEAD の応答後に接続を閉じることがあり、再利用した接続で送る POST は再試行されないため失敗する
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
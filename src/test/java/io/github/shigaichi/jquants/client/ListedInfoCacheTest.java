@@ -0,0 +1,165 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoCacheTest {
+    private static final Instant NOW = Instant.parse("2024-02-09T00:00:00Z");
+    private static final ListedInfoQuery KEY =
+            ListedInfoQuery.builder().code("86970").date("2024-02-09").build();
+
+    @Test
+    @DisplayName("TTL 内は保存した値を返し、TTL を過ぎると miss になる")
+    void returnsValueWithinTimeToLive() {
+        MutableClock clock = new MutableClock(NOW);
+        ListedInfoCache cache =
+                ListedInfoCache.builder().timeToLive(Duration.ofMinutes(10)).clock(clock).build();
+        ListedInfoResponse response = new ListedInfoResponse();
+
+        assertEquals(Optional.empty(), cache.get(KEY, ListedInfoCacheTest::noRefresh));
+        cache.put(KEY, response);
+        clock.advance(Duration.ofMinutes(9));
+        assertSame(response, cache.get(KEY, ListedInfoCacheTest::noRefresh).orElseThrow());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(Optional.empty(), cache.get(KEY, ListedInfoCacheTest::noRefresh));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("TTL 経過後の猶予期間は古い値を返し、再取得は 1 回だけ実行して結果で置き換える")
+    void staleWhileRevalidate() {
+        MutableClock clock = new MutableClock(NOW);
+        ListedInfoCache cache =
+                ListedInfoCache.builder()
+                        .timeToLive(Duration.ofMinutes(10))
+                        .staleWhileRevalidate(Duration.ofMinutes(5))
+                        .clock(clock)
+                        .build();
+        ListedInfoResponse stale = new ListedInfoResponse();
+        ListedInfoResponse fresh = new ListedInfoResponse();
+        cache.put(KEY, stale);
+        clock.advance(Duration.ofMinutes(11));
+
+        AtomicInteger refreshCount = new AtomicInteger();
+        CompletableFuture<ListedInfoResponse> refresh = new CompletableFuture<>();
+        Supplier<CompletableFuture<ListedInfoResponse>> refresher =
+                () -> {
+                    refreshCount.incrementAndGet();
+                    return refresh;
+                };
+
+        assertSame(stale, cache.get(KEY, refresher).orElseThrow());
+        assertSame(stale, cache.get(KEY, refresher).orElseThrow());
+        assertEquals(1, refreshCount.get());
+        assertEquals(2, cache.getStaleHitCount());
+
+        refresh.complete(fresh);
+        assertSame(fresh, cache.get(KEY, ListedInfoCacheTest::noRefresh).orElseThrow());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("再取得に失敗した場合は次の参照で再び再取得する")
+    void retriesRefreshAfterFailure() {
+        MutableClock clock = new MutableClock(NOW);
+        ListedInfoCache cache =
+                ListedInfoCache.builder()
+                        .timeToLive(Duration.ofMinutes(10))
+                        .staleWhileRevalidate(Duration.ofMinutes(5))
+                        .clock(clock)
+                        .build();
+        cache.put(KEY, new ListedInfoResponse());
+        clock.advance(Duration.ofMinutes(11));
+
+        AtomicInteger refreshCount = new AtomicInteger();
+        Supplier<CompletableFuture<ListedInfoResponse>> refresher =
+                () -> {
+                    refreshCount.incrementAndGet();
+                    return CompletableFuture.failedFuture(new IllegalStateException("失敗"));
+                };
+
+        assertTrue(cache.get(KEY, refresher).isPresent());
+        assertTrue(cache.get(KEY, refresher).isPresent());
+        assertEquals(2, refreshCount.get());
+    }
+
+    @Test
+    @DisplayName("件数上限を超えると最も長く参照されていないエントリを破棄する")
+    void evictsLeastRecentlyUsed() {
+        ListedInfoCache cache = ListedInfoCache.builder().maximumSize(2).build();
+        ListedInfoQuery first = ListedInfoQuery.builder().code("10000").build();
+        ListedInfoQuery second = ListedInfoQuery.builder().code("20000").build();
+        ListedInfoQuery third = ListedInfoQuery.builder().code("30000").build();
+
+        cache.put(first, new ListedInfoResponse());
+        cache.put(second, new ListedInfoResponse());
+        cache.get(first, ListedInfoCacheTest::noRefresh);
+        cache.put(third, new ListedInfoResponse());
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.get(first, ListedInfoCacheTest::noRefresh).isPresent());
+        assertEquals(Optional.empty(), cache.get(second, ListedInfoCacheTest::noRefresh));
+    }
+
+    @Test
+    @DisplayName("キーは正規化され、pagination_key を含むクエリはキャッシュ対象外になる")
+    void keyOfCanonicalizesQuery() {
+        ListedInfoQuery shortForm = ListedInfoQuery.builder().code("8697").date("20240209").build();
+
+        assertEquals(Optional.of(KEY), ListedInfoCache.keyOf(shortForm));
+        assertEquals(
+                Optional.empty(),
+                ListedInfoCache.keyOf(
+                        ListedInfoQuery.builder().code("86970").paginationKey("key").build()));
+        assertEquals(Optional.of(ListedInfoQuery.builder().build()), ListedInfoCache.keyOf(null));
+    }
+
+    private static CompletableFuture<ListedInfoResponse> noRefresh() {
+        throw new AssertionError("再取得しない");
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
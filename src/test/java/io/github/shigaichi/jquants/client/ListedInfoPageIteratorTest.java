@@ -0,0 +1,177 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ListedInfoPageIteratorTest {
+    @Test
+    @DisplayName("pagination_key を辿って全ページの銘柄を順に返す")
+    void streamsAllPages() {
+        CompletableFuture<HttpResponse<String>> page1 =
+                page("[{\"Code\":\"10010\"},{\"Code\":\"10020\"}]", "key-2");
+        CompletableFuture<HttpResponse<String>> page2 = page("[{\"Code\":\"10030\"}]", "key-3");
+        CompletableFuture<HttpResponse<String>> page3 = page("[{\"Code\":\"10040\"}]", null);
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        when(executor.sendAsync(requestCaptor.capture())).thenReturn(page1, page2, page3);
+
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+
+        List<String> codes;
+        try (Stream<ListedInfo> stream =
+                client.streamListedInfo(ListedInfoQuery.builder().date("20240209").build())) {
+            codes = stream.map(ListedInfo::getCode).collect(Collectors.toList());
+        }
+
+        assertEquals(List.of("10010", "10020", "10030", "10040"), codes);
+        List<String> uris = new ArrayList<>();
+        requestCaptor.getAllValues().forEach(request -> uris.add(request.uri().toString()));
+        assertEquals(
+                List.of(
+                        JQuantsClient.DEFAULT_BASE_URL + "/listed/info?date=20240209",
+                        JQuantsClient.DEFAULT_BASE_URL
+                                + "/listed/info?date=20240209&pagination_key=key-2",
+                        JQuantsClient.DEFAULT_BASE_URL
+                                + "/listed/info?date=20240209&pagination_key=key-3"),
+                uris);
+    }
+
+    @Test
+    @DisplayName("現在のページを処理している間に指定したページ数だけ先読みする")
+    void prefetchesNextPages() {
+        List<ListedInfoQuery> requested = new ArrayList<>();
+        List<CompletableFuture<ListedInfoResponse>> responses =
+                List.of(
+                        CompletableFuture.completedFuture(
+                                decode("[{\"Code\":\"10010\"}]", "key-2")),
+                        new CompletableFuture<>(),
+                        new CompletableFuture<>());
+        ListedInfoPageIterator iterator =
+                new ListedInfoPageIterator(
+                        query -> {
+                            requested.add(query);
+                            return responses.get(requested.size() - 1);
+                        },
+                        null,
+                        2);
+
+        // 1 ページ目の取得完了と同時に 2 ページ目を要求する
+        assertTrue(iterator.hasNext());
+        assertEquals(2, requested.size());
+        assertEquals("key-2", requested.get(1).getPaginationKey().orElseThrow());
+
+        // 2 ページ目の完了を待たずに利用者は 1 ページ目を処理でき、完了すると 3 ページ目を要求する
+        responses.get(1).complete(decode("[{\"Code\":\"10020\"}]", "key-3"));
+        assertEquals(3, requested.size());
+        assertEquals("key-3", requested.get(2).getPaginationKey().orElseThrow());
+
+        assertEquals("10010", iterator.next().getCode());
+        assertEquals("10020", iterator.next().getCode());
+
+        // close 後は先読み中のページを待たずに終了する
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    @DisplayName("ページ取得が失敗した場合は走査中に JQuantsApiException を送出する")
+    void propagatesApiError() {
+        HttpResponse<String> errorResponse = mock(HttpResponse.class);
+        when(errorResponse.statusCode()).thenReturn(500);
+        when(errorResponse.body()).thenReturn("{\"message\":\"内部エラー\"}");
+
+        CompletableFuture<HttpResponse<String>> page1 = page("[{\"Code\":\"10010\"}]", "key-2");
+
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any()))
+                .thenReturn(page1, CompletableFuture.completedFuture(errorResponse));
+
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+
+        try (Stream<ListedInfo> stream = client.streamListedInfo(null, 0)) {
+            JQuantsApiException exception =
+                    assertThrows(
+                            JQuantsApiException.class,
+                            () -> stream.forEach(info -> assertThat(info.getCode()).isNotNull()));
+            assertEquals(500, exception.getStatusCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Stream を close すると先読み中のページの送信中のリクエストの Future を取り消す")
+    void cancelsInFlightRequestOnClose() {
+        CompletableFuture<HttpResponse<String>> page1 = page("[{\"Code\":\"10010\"}]", "key-2");
+        CompletableFuture<HttpResponse<String>> sending = new CompletableFuture<>();
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(page1, sending);
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+
+        try (Stream<ListedInfo> stream = client.streamListedInfo(null, 1)) {
+            assertEquals("10010", stream.iterator().next().getCode());
+        }
+
+        assertTrue(sending.isCancelled());
+    }
+
+    @Test
+    @DisplayName("prefetchPages に負の値を指定した場合は IllegalArgumentException を送出する")
+    void rejectsNegativePrefetch() {
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        mock(HttpRequestExecutor.class));
+
+        assertThrows(IllegalArgumentException.class, () -> client.streamListedInfo(null, -1));
+    }
+
+    private static ListedInfoResponse decode(String info, String paginationKey) {
+        try {
+            return new ObjectMapper()
+                    .readValue(body(info, paginationKey), ListedInfoResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CompletableFuture<HttpResponse<String>> page(String info, String paginationKey) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn(body(info, paginationKey));
+        return CompletableFuture.completedFuture(response);
+    }
+
+    private static String body(String info, String paginationKey) {
+        String key = paginationKey == null ? "null" : "\"" + paginationKey + "\"";
+        return "{\"info\":" + info + ",\"pagination_key\":" + key + "}";
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoQuery;
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoResponse;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoPublisherTest {
+    @Test
+    @DisplayName("要求数に応じて銘柄を発行し、取得済みの銘柄を発行し終えるまで次ページを取得しない")
+    void fetchesNextPageOnDemand() {
+        List<ListedInfoQuery> requested = new ArrayList<>();
+        List<ListedInfoResponse> pages =
+                List.of(
+                        decode("[{\"Code\":\"10010\"},{\"Code\":\"10020\"}]", "key-2"),
+                        decode("[{\"Code\":\"10030\"}]", null));
+        ListedInfoPublisher publisher =
+                new ListedInfoPublisher(
+                        query -> {
+                            requested.add(query);
+                            return CompletableFuture.completedFuture(
+                                    pages.get(requested.size() - 1));
+                        },
+                        ListedInfoQuery.builder().date("20240209").build());
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // 要求があるまで取得しない
+        assertTrue(requested.isEmpty());
+
+        subscriber.subscription.request(1);
+        assertEquals(List.of("10010"), subscriber.codes);
+        assertEquals(1, requested.size());
+
+        // 1 ページ目の残りを発行する間は 2 ページ目を取得しない
+        subscriber.subscription.request(1);
+        assertEquals(List.of("10010", "10020"), subscriber.codes);
+        assertEquals(1, requested.size());
+
+        subscriber.subscription.request(5);
+        assertEquals(List.of("10010", "10020", "10030"), subscriber.codes);
+        assertEquals(2, requested.size());
+        assertEquals("key-2", requested.get(1).getPaginationKey().orElseThrow());
+        assertEquals("20240209", requested.get(1).getDate().orElseThrow());
+        assertTrue(subscriber.completed);
+        assertThat(subscriber.error).isNull();
+    }
+
+    @Test
+    @DisplayName("cancel すると取得中のページを取り消し、以降はシグナルを送らない")
+    void cancelsInFlightPage() {
+        CompletableFuture<ListedInfoResponse> page = new CompletableFuture<>();
+        ListedInfoPublisher publisher = new ListedInfoPublisher(query -> page, null);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        assertTrue(page.isCancelled());
+        assertTrue(subscriber.codes.isEmpty());
+        assertFalse(subscriber.completed);
+        assertThat(subscriber.error).isNull();
+    }
+
+    @Test
+    @DisplayName("1 未満の要求数は IllegalArgumentException で onError に渡す")
+    void rejectsNonPositiveRequest() {
+        ListedInfoPublisher publisher =
+                new ListedInfoPublisher(
+                        query -> CompletableFuture.completedFuture(decode("[]", null)), null);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("クライアントの Publisher は API エラーを JQuantsApiException で onError に渡す")
+    void publishesApiError() {
+        HttpResponse<String> errorResponse = mock(HttpResponse.class);
+        when(errorResponse.statusCode()).thenReturn(500);
+        when(errorResponse.body()).thenReturn("{\"message\":\"内部エラー\"}");
+        HttpResponse<String> firstPage = mock(HttpResponse.class);
+        when(firstPage.statusCode()).thenReturn(200);
+        when(firstPage.body())
+                .thenReturn("{\"info\":[{\"Code\":\"10010\"}],\"pagination_key\":\"key-2\"}");
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any()))
+                .thenReturn(
+                        CompletableFuture.completedFuture(firstPage),
+                        CompletableFuture.completedFuture(errorResponse));
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        client.publishListedInfo(null).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(List.of("10010"), subscriber.codes);
+        assertThat(subscriber.error).isInstanceOf(JQuantsApiException.class);
+        assertEquals(500, ((JQuantsApiException) subscriber.error).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("クライアントの Publisher を cancel すると送信中のリクエストの Future を取り消す")
+    void cancelsInFlightRequest() {
+        CompletableFuture<HttpResponse<String>> sending = new CompletableFuture<>();
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any())).thenReturn(sending);
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        client.publishListedInfo(null).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        assertTrue(sending.isCancelled());
+    }
+
+    private static ListedInfoResponse decode(String info, String paginationKey) {
+        String key = paginationKey == null ? "null" : "\"" + paginationKey + "\"";
+        try {
+            return new ObjectMapper()
+                    .readValue(
+                            "{\"info\":" + info + ",\"pagination_key\":" + key + "}",
+                            ListedInfoResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<ListedInfo> {
+        private final List<String> codes = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ListedInfo item) {
+            codes.add(item.getCode());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfo;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoQueryPlannerTest {
+
+    @Test
+    @DisplayName("時間窓内の多数の問い合わせは全銘柄取得 1 回にまとめ、ローカルで絞り込む")
+    void collapsesIntoSnapshot() throws Exception {
+        List<String> uris = Collections.synchronizedList(new ArrayList<>());
+        HttpResponse<String> firstPage =
+                response(
+                        "{\"info\":[{\"Code\":\"86970\"},{\"Code\":\"72030\"}],"
+                                + "\"pagination_key\":\"next\"}");
+        HttpResponse<String> lastPage = response("{\"info\":[{\"Code\":\"99840\"}]}");
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any()))
+                .thenAnswer(
+                        invocation -> {
+                            HttpRequest request = invocation.getArgument(0);
+                            uris.add(request.uri().toString());
+                            return CompletableFuture.completedFuture(
+                                    request.uri().getQuery().contains("pagination_key")
+                                            ? lastPage
+                                            : firstPage);
+                        });
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+        ListedInfoQueryPlanner planner =
+                ListedInfoQueryPlanner.builder(client)
+                        .batchWindow(Duration.ofMillis(100))
+                        .snapshotPageCost(1.0)
+                        .build();
+
+        CompletableFuture<List<ListedInfo>> jpx = planner.lookup("8697", "20240101");
+        CompletableFuture<Map<String, List<ListedInfo>>> others =
+                planner.lookupAll(List.of("72030", "99840", "13010"), "2024-01-01");
+
+        assertEquals("86970", jpx.get(5, TimeUnit.SECONDS).get(0).getCode());
+        Map<String, List<ListedInfo>> results = others.get(5, TimeUnit.SECONDS);
+        assertEquals("72030", results.get("72030").get(0).getCode());
+        assertEquals("99840", results.get("99840").get(0).getCode());
+        assertThat(results.get("13010")).isEmpty();
+        assertEquals(2, uris.size());
+        assertThat(uris).allSatisfy(uri -> assertThat(uri).doesNotContain("code="));
+        assertEquals(1, planner.getSnapshotBatchCount());
+        assertEquals(2, planner.getEstimatedSnapshotPages());
+    }
+
+    @Test
+    @DisplayName("問い合わせが少ない場合は銘柄ごとに呼び出す")
+    void usesPerCodeCallsForSmallBatch() throws Exception {
+        List<String> uris = Collections.synchronizedList(new ArrayList<>());
+        HttpResponse<String> jpx = response("{\"info\":[{\"Code\":\"86970\"}]}");
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendAsync(any()))
+                .thenAnswer(
+                        invocation -> {
+                            HttpRequest request = invocation.getArgument(0);
+                            uris.add(request.uri().toString());
+                            return CompletableFuture.completedFuture(jpx);
+                        });
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+        ListedInfoQueryPlanner planner =
+                ListedInfoQueryPlanner.builder(client).batchWindow(Duration.ofMillis(50)).build();
+
+        CompletableFuture<List<ListedInfo>> first = planner.lookup("86970", null);
+        CompletableFuture<List<ListedInfo>> second = planner.lookup("8697", null);
+
+        assertEquals("86970", first.get(5, TimeUnit.SECONDS).get(0).getCode());
+        assertEquals(first.get(), second.get());
+        assertEquals(1, uris.size());
+        assertThat(uris.get(0)).contains("code=86970");
+        assertEquals(1, planner.getPerCodeBatchCount());
+        assertEquals(0, planner.getSnapshotBatchCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(String body) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn(body);
+        return response;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimitingRequestExecutorTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("burst までは待たずに送信し、以降は到着順に 1/rate 秒ずつ待機する")
+    void reservesTokensInArrivalOrder() {
+        AtomicLong now = new AtomicLong();
+        RateLimitingRequestExecutor executor =
+                new RateLimitingRequestExecutor(mock(HttpRequestExecutor.class), 2.0, 2, now::get);
+
+        assertEquals(0, executor.reserve());
+        assertEquals(0, executor.reserve());
+        assertEquals(SECOND / 2, executor.reserve());
+        assertEquals(SECOND, executor.reserve());
+    }
+
+    @Test
+    @DisplayName("時間の経過でトークンを補充し、burst を超えては蓄えない")
+    void refillsUpToBurst() {
+        AtomicLong now = new AtomicLong();
+        RateLimitingRequestExecutor executor =
+                new RateLimitingRequestExecutor(mock(HttpRequestExecutor.class), 10.0, 3, now::get);
+        for (int i = 0; i < 3; i++) {
+            executor.reserve();
+        }
+
+        now.addAndGet(SECOND / 10);
+        assertEquals(0, executor.reserve());
+        assertEquals(SECOND / 10, executor.reserve());
+
+        now.addAndGet(60 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, executor.reserve());
+        }
+        assertEquals(SECOND / 10, executor.reserve());
+    }
+
+    @Test
+    @DisplayName("不正なレートや burst は IllegalArgumentException を送出する")
+    void rejectsInvalidSettings() {
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new RateLimitingRequestExecutor(delegate, 0.0, 1));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new RateLimitingRequestExecutor(delegate, 1.0, 0));
+    }
+}
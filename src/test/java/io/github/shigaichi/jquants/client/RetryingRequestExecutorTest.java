@@ -0,0 +1,254 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RetryingRequestExecutorTest {
+    private static final HttpRequest REQUEST =
+            HttpRequest.newBuilder(URI.create("https://example.com/v1/listed/info")).build();
+    private static final HttpRequest TOKEN_REQUEST =
+            HttpRequest.newBuilder(
+                            URI.create("https://example.com/token/auth_refresh?refreshtoken=x"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+    private static final RetryPolicy POLICY =
+            RetryPolicy.builder()
+                    .maxRetries(2)
+                    .initialBackoff(Duration.ofMillis(1))
+                    .maxBackoff(Duration.ofMillis(10))
+                    .build();
+
+    @Test
+    @DisplayName("429 や 503 は再試行し、成功したレスポンスを返す")
+    void retriesRetryableStatus() throws Exception {
+        HttpResponse<String> tooManyRequests = response(429, Map.of());
+        HttpResponse<String> unavailable = response(503, Map.of());
+        HttpResponse<String> ok = response(200, Map.of());
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any())).thenReturn(tooManyRequests, unavailable, ok);
+
+        HttpResponse<String> result = new RetryingRequestExecutor(delegate, POLICY).send(REQUEST);
+
+        assertEquals(200, result.statusCode());
+        assertEquals(2, RetriedHttpResponse.retryCountOf(result));
+        verify(delegate, times(3)).send(any());
+    }
+
+    @Test
+    @DisplayName("再試行回数を使い切った場合は最後のレスポンスを再試行回数とともに返す")
+    void returnsLastResponseWhenRetriesExhausted() throws Exception {
+        HttpResponse<String> unavailable = response(503, Map.of());
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any())).thenReturn(unavailable);
+
+        HttpResponse<String> result = new RetryingRequestExecutor(delegate, POLICY).send(REQUEST);
+
+        assertEquals(503, result.statusCode());
+        assertEquals(2, RetriedHttpResponse.retryCountOf(result));
+        verify(delegate, times(3)).send(any());
+    }
+
+    @Test
+    @DisplayName("400 などの再試行対象外のステータスは再試行しない")
+    void doesNotRetryClientError() throws Exception {
+        HttpResponse<String> badRequest = response(400, Map.of());
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any())).thenReturn(badRequest);
+
+        HttpResponse<String> result = new RetryingRequestExecutor(delegate, POLICY).send(REQUEST);
+
+        assertSame(badRequest, result);
+        verify(delegate, times(1)).send(any());
+    }
+
+    @Test
+    @DisplayName("トークン取得のリクエストは既定では再試行しない")
+    void doesNotRetryTokenRequestByDefault() throws Exception {
+        HttpResponse<String> unavailable = response(503, Map.of());
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any())).thenReturn(unavailable);
+        when(delegate.sendAsync(any())).thenReturn(CompletableFuture.completedFuture(unavailable));
+        RetryingRequestExecutor executor = new RetryingRequestExecutor(delegate, POLICY);
+
+        assertSame(unavailable, executor.send(TOKEN_REQUEST));
+        assertSame(unavailable, executor.sendAsync(TOKEN_REQUEST).join());
+        verify(delegate, times(1)).send(any());
+        verify(delegate, times(1)).sendAsync(any());
+    }
+
+    @Test
+    @DisplayName("retryTokenRequests を指定した場合はトークン取得のリクエストも再試行する")
+    void retriesTokenRequestWhenEnabled() throws Exception {
+        HttpResponse<String> unavailable = response(503, Map.of());
+        HttpResponse<String> ok = response(200, Map.of());
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any())).thenReturn(unavailable, ok);
+        RetryPolicy policy =
+                RetryPolicy.builder()
+                        .maxRetries(2)
+                        .initialBackoff(Duration.ofMillis(1))
+                        .maxBackoff(Duration.ofMillis(10))
+                        .retryTokenRequests(true)
+                        .build();
+
+        HttpResponse<String> result =
+                new RetryingRequestExecutor(delegate, policy).send(TOKEN_REQUEST);
+
+        assertEquals(200, result.statusCode());
+        assertEquals(1, RetriedHttpResponse.retryCountOf(result));
+        verify(delegate, times(2)).send(any());
+    }
+
+    @Test
+    @DisplayName("IOException は再試行し、使い切った場合は最後の例外に以前の例外を添えて送出する")
+    void retriesIoException() throws Exception {
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any()))
+                .thenThrow(new IOException("1"), new IOException("2"), new IOException("3"));
+
+        IOException exception =
+                assertThrows(
+                        IOException.class,
+                        () -> new RetryingRequestExecutor(delegate, POLICY).send(REQUEST));
+
+        assertEquals("3", exception.getMessage());
+        assertEquals("2", exception.getSuppressed()[0].getMessage());
+        verify(delegate, times(3)).send(any());
+    }
+
+    @Test
+    @DisplayName("非同期 API でも再試行し、IOException の後に成功したレスポンスを返す")
+    void retriesAsync() throws Exception {
+        HttpResponse<String> unavailable = response(503, Map.of());
+        HttpResponse<String> ok = response(200, Map.of());
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.sendAsync(any()))
+                .thenReturn(
+                        CompletableFuture.failedFuture(new IOException("reset")),
+                        CompletableFuture.completedFuture(unavailable),
+                        CompletableFuture.completedFuture(ok));
+
+        HttpResponse<String> result =
+                new RetryingRequestExecutor(delegate, POLICY).sendAsync(REQUEST).get();
+
+        assertEquals(200, result.statusCode());
+        assertEquals(2, RetriedHttpResponse.retryCountOf(result));
+    }
+
+    @Test
+    @DisplayName("非同期 API で再試行対象外の例外はそのまま失敗させる")
+    void doesNotRetryAsyncRuntimeException() {
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.sendAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("bug")));
+
+        CompletionException exception =
+                assertThrows(
+                        CompletionException.class,
+                        () ->
+                                new RetryingRequestExecutor(delegate, POLICY)
+                                        .sendAsync(REQUEST)
+                                        .join());
+
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+        verify(delegate, times(1)).sendAsync(any());
+    }
+
+    @Test
+    @DisplayName("非同期 API の Future を cancel すると送信中の試行も取り消し、再試行しない")
+    void cancelsAttemptAsync() {
+        CompletableFuture<HttpResponse<String>> attempt = new CompletableFuture<>();
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.sendAsync(any())).thenReturn(attempt);
+
+        CompletableFuture<HttpResponse<String>> result =
+                new RetryingRequestExecutor(delegate, POLICY).sendAsync(REQUEST);
+        result.cancel(true);
+
+        assertTrue(attempt.isCancelled());
+        verify(delegate, times(1)).sendAsync(any());
+    }
+
+    @Test
+    @DisplayName("Retry-After の秒数を待機時間として用い、上限で切り詰める")
+    void honorsRetryAfter() {
+        HttpResponse<String> response = response(429, Map.of("Retry-After", List.of("2")));
+
+        assertEquals(
+                Optional.of(Duration.ofSeconds(2)), RetryingRequestExecutor.retryAfter(response));
+        assertEquals(Duration.ofMillis(10), POLICY.backoff(1, Duration.ofSeconds(2)));
+        assertEquals(Duration.ofMillis(5), POLICY.backoff(1, Duration.ofMillis(5)));
+    }
+
+    @Test
+    @DisplayName("バックオフは指数的に増加し、ジッターで上限以下に揺らぐ")
+    void backoffGrowsExponentiallyWithJitter() {
+        RetryPolicy policy =
+                RetryPolicy.builder()
+                        .initialBackoff(Duration.ofMillis(100))
+                        .maxBackoff(Duration.ofSeconds(1))
+                        .jitter(0.5)
+                        .build();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.backoff(1, null))
+                    .isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+            assertThat(policy.backoff(3, null))
+                    .isBetween(Duration.ofMillis(200), Duration.ofMillis(400));
+            assertThat(policy.backoff(10, null))
+                    .isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    @DisplayName("再試行後のエラー応答は JQuantsApiException に再試行回数が設定される")
+    void exposesRetryCountOnApiException() throws Exception {
+        HttpResponse<String> unavailable = response(503, Map.of());
+        when(unavailable.body()).thenReturn("{\"message\":\"unavailable\"}");
+        HttpRequestExecutor delegate = mock(HttpRequestExecutor.class);
+        when(delegate.send(any())).thenReturn(unavailable);
+
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        new RetryingRequestExecutor(delegate, POLICY));
+
+        JQuantsApiException exception =
+                assertThrows(JQuantsApiException.class, () -> client.getListedInfo(null));
+        assertEquals(503, exception.getStatusCode());
+        assertEquals(2, exception.getRetryCount());
+        assertThat(exception.getMessage()).contains("retries=2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(
+            int statusCode, Map<String, List<String>> headers) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        return response;
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.shigaichi.jquants.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoSnapshotFile;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedListedInfoCacheTest {
+    private static final Instant NOW = Instant.parse("2024-01-04T00:00:00Z");
+
+    @TempDir Path directory;
+
+    @Test
+    @DisplayName("1 つのインスタンスが取得したスナップショットを他のインスタンスが共有する")
+    void sharesSnapshotAcrossInstances() throws Exception {
+        HttpRequestExecutor executor = executorReturningMarketCodes();
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+        MutableClock clock = new MutableClock(NOW);
+
+        try (SharedListedInfoCache first = newCache(clock);
+                SharedListedInfoCache second = newCache(clock)) {
+            assertTrue(second.current().isEmpty());
+            assertEquals("0111", first.get(client).find("8697").orElseThrow().getMarketCode());
+            assertEquals("0111", second.get(client).find("8697").orElseThrow().getMarketCode());
+            assertSame(second.get(client), second.current().orElseThrow());
+            verify(executor, times(1)).sendStreaming(any());
+
+            clock.advance(Duration.ofMinutes(11));
+            assertEquals("0112", second.get(client).find("8697").orElseThrow().getMarketCode());
+            assertEquals(2, first.generation());
+            assertEquals(
+                    "0112",
+                    first.current().orElseThrow().find("8697").orElseThrow().getMarketCode());
+            verify(executor, times(2)).sendStreaming(any());
+        }
+    }
+
+    @Test
+    @DisplayName("古い世代のスナップショットファイルを削除する")
+    void deletesObsoleteGenerations() throws Exception {
+        JQuantsClient client =
+                new JQuantsClient(
+                        "dummy-token",
+                        JQuantsClient.DEFAULT_BASE_URI,
+                        executorReturningMarketCodes());
+        MutableClock clock = new MutableClock(NOW);
+
+        try (SharedListedInfoCache cache = newCache(clock)) {
+            for (int i = 0; i < 4; i++) {
+                cache.get(client);
+                clock.advance(Duration.ofMinutes(11));
+            }
+        }
+
+        assertTrue(Files.notExists(directory.resolve("listed-info-1.bin")));
+        assertTrue(Files.exists(directory.resolve("listed-info-2.bin")));
+        assertTrue(Files.exists(directory.resolve("listed-info-4.bin")));
+    }
+
+    @Test
+    @DisplayName("再取得に失敗した場合は期限切れのスナップショットを返す")
+    void servesStaleSnapshotWhenRefreshFails() throws Exception {
+        HttpRequestExecutor executor = executorReturningMarketCodes();
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+        MutableClock clock = new MutableClock(NOW);
+
+        try (SharedListedInfoCache cache = newCache(clock)) {
+            cache.get(client);
+            doThrow(new IOException("通信失敗")).when(executor).sendStreaming(any());
+            clock.advance(Duration.ofMinutes(11));
+
+            assertEquals("0111", cache.get(client).find("8697").orElseThrow().getMarketCode());
+            assertEquals(1, cache.generation());
+            verify(executor, times(2)).sendStreaming(any());
+        }
+    }
+
+    @Test
+    @DisplayName("他のスレッドが再取得している間は待たずに期限切れのスナップショットを返す")
+    void doesNotWaitForRefreshInProgress() throws Exception {
+        HttpResponse<InputStream> response = responseReturningMarketCodes();
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendStreaming(any())).thenReturn(response);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JQuantsClient client =
+                new JQuantsClient("dummy-token", JQuantsClient.DEFAULT_BASE_URI, executor);
+        MutableClock clock = new MutableClock(NOW);
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+
+        try (SharedListedInfoCache cache = newCache(clock)) {
+            ListedInfoSnapshotFile stale = cache.get(client);
+            doAnswer(
+                            invocation -> {
+                                started.countDown();
+                                release.await();
+                                return response;
+                            })
+                    .when(executor)
+                    .sendStreaming(any());
+            clock.advance(Duration.ofMinutes(11));
+
+            Future<ListedInfoSnapshotFile> refreshed = refresher.submit(() -> cache.get(client));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertSame(stale, cache.get(client));
+
+            release.countDown();
+            assertEquals(
+                    "0112",
+                    refreshed.get(5, TimeUnit.SECONDS).find("8697").orElseThrow().getMarketCode());
+        } finally {
+            release.countDown();
+            refresher.shutdown();
+        }
+    }
+
+    private SharedListedInfoCache newCache(Clock clock) throws Exception {
+        return SharedListedInfoCache.builder(directory)
+                .timeToLive(Duration.ofMinutes(10))
+                .clock(clock)
+                .build();
+    }
+
+    private static HttpRequestExecutor executorReturningMarketCodes() throws Exception {
+        HttpResponse<InputStream> response = responseReturningMarketCodes();
+        HttpRequestExecutor executor = mock(HttpRequestExecutor.class);
+        when(executor.sendStreaming(any())).thenReturn(response);
+        return executor;
+    }
+
+    /** 1 回目の読み込みでは市場区分 0111、以降は 0112 の銘柄を返すレスポンス。 */
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<InputStream> responseReturningMarketCodes() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpResponse<InputStream> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body())
+                .thenAnswer(
+                        invocation -> {
+                            String marketCode = calls.incrementAndGet() == 1 ? "0111" : "0112";
+                            String body =
+                                    "{\"info\": [{\"Code\": \"86970\", \"MarketCode\": \""
+                                            + marketCode
+                                            + "\"}]}";
+                            return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+                        });
+        return response;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
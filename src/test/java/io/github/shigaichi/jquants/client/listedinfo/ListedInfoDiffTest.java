@@ -0,0 +1,96 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoDiffTest {
+    private static final List<ListedInfo> BEFORE =
+            List.of(
+                    info("2024-01-04", "13010", "0111", "7050", "1000"),
+                    info("2024-01-04", "72030", "0111", "3700", "2500"),
+                    info("2024-01-04", "86970", "0111", "7200", "3000"));
+    private static final List<ListedInfo> AFTER =
+            List.of(
+                    info("2024-01-05", "72030", "0111", "3700", "2500.0"),
+                    info("2024-01-05", "86970", "0112", "7250", "3000"),
+                    info("2024-01-05", "99990", "0111", "7050", "500"));
+
+    @Test
+    @DisplayName("新規上場・上場廃止・項目の変更を返し、日付だけの違いは無視する")
+    void diffsSnapshots() {
+        List<ListedInfoChange> changes = ListedInfoDiff.between(BEFORE, AFTER);
+
+        assertThat(changes)
+                .extracting(ListedInfoChange::getType, ListedInfoChange::getCode)
+                .containsExactly(
+                        tuple(ListedInfoChange.Type.CHANGED, "86970"),
+                        tuple(ListedInfoChange.Type.LISTED, "99990"),
+                        tuple(ListedInfoChange.Type.DELISTED, "13010"));
+        assertThat(changes.get(0).getChangedFields())
+                .containsExactlyInAnyOrder(
+                        ListedInfoChange.Field.MARKET, ListedInfoChange.Field.SECTOR33);
+        assertThat(changes.get(1).getBefore()).isEmpty();
+        assertThat(changes.get(2).getAfter()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("銘柄コード順の入力は突き合わせで逐次比較する")
+    void diffsSortedInputs() {
+        List<ListedInfoChange> changes = new ArrayList<>();
+
+        ListedInfoDiff.betweenSorted(BEFORE.iterator(), AFTER.iterator(), changes::add);
+
+        assertThat(changes)
+                .extracting(ListedInfoChange::getType, ListedInfoChange::getCode)
+                .containsExactly(
+                        tuple(ListedInfoChange.Type.DELISTED, "13010"),
+                        tuple(ListedInfoChange.Type.CHANGED, "86970"),
+                        tuple(ListedInfoChange.Type.LISTED, "99990"));
+    }
+
+    @Test
+    @DisplayName("昇順に並んでいない入力は IllegalArgumentException になる")
+    void rejectsUnsortedInput() {
+        List<ListedInfo> unsorted = List.of(BEFORE.get(2), BEFORE.get(0));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ListedInfoDiff.betweenSorted(unsorted.iterator(), AFTER.iterator(), c -> {}));
+    }
+
+    @Test
+    @DisplayName("比較元は複数の比較先との比較に使い回せる")
+    void reusesBaseline() {
+        ListedInfoDiff baseline = ListedInfoDiff.baseline(BEFORE);
+        List<ListedInfoChange> unchanged = new ArrayList<>();
+        ListedInfoDiff.Comparison comparison = baseline.compare(unchanged::add);
+        BEFORE.forEach(comparison);
+        comparison.finish();
+
+        List<ListedInfoChange> changed = new ArrayList<>();
+        ListedInfoDiff.Comparison second = baseline.compare(changed::add);
+        AFTER.forEach(second);
+        second.finish();
+
+        assertThat(unchanged).isEmpty();
+        assertThat(changed).hasSize(3);
+    }
+
+    private static ListedInfo info(
+            String date, String code, String marketCode, String sector33Code, String basePrice) {
+        return ListedInfo.builder()
+                .date(date)
+                .code(code)
+                .marketCode(marketCode)
+                .sector33Code(sector33Code)
+                .basePrice(new BigDecimal(basePrice))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoHistoryTest {
+
+    @Test
+    @DisplayName("基準日付以前で最も新しい登録日付の全銘柄を返す")
+    void returnsUniverseAsOfDate() {
+        ListedInfoHistory history = ListedInfoHistory.builder().build();
+        history.put("2024-01-04", List.of(info("2024-01-04", "86970", "0111")));
+        history.put(
+                "20240105",
+                List.of(info("2024-01-05", "86970", "0111"), info("2024-01-05", "13010", "0111")));
+        history.put("2024-01-09", List.of(info("2024-01-09", "86970", "0112")));
+
+        assertThat(history.asOf("2024-01-03")).isEmpty();
+        assertThat(history.asOf("2024-01-06").orElseThrow())
+                .extracting(ListedInfo::getCode)
+                .containsExactly("13010", "86970");
+        assertThat(history.asOf("2024-01-09").orElseThrow())
+                .extracting(ListedInfo::getMarketCode)
+                .containsExactly("0112");
+        assertEquals("0111", history.asOf("2024-01-08", "8697").orElseThrow().getMarketCode());
+        assertThat(history.asOf("2024-01-09", "13010")).isEmpty();
+        assertEquals(List.of("2024-01-04", "2024-01-05", "2024-01-09"), history.getDates());
+    }
+
+    @Test
+    @DisplayName("変更のない銘柄は前の日付と同じインスタンスを共有する")
+    void sharesUnchangedRecords() {
+        ListedInfoHistory history = ListedInfoHistory.builder().build();
+        history.put("2024-01-04", List.of(info("2024-01-04", "86970", "0111")));
+        history.put("2024-01-05", List.of(info("2024-01-05", "86970", "0111")));
+
+        ListedInfo first = history.asOf("2024-01-04").orElseThrow().get(0);
+        ListedInfo second = history.asOf("2024-01-05").orElseThrow().get(0);
+
+        assertSame(first, second);
+        assertEquals("2024-01-04", second.getDate());
+    }
+
+    @Test
+    @DisplayName("keyframeInterval ごとにキーフレームを置き、どの日付も同じ結果を返す")
+    void insertsKeyframes() {
+        ListedInfoHistory history = ListedInfoHistory.builder().keyframeInterval(3).build();
+        for (int day = 1; day <= 7; day++) {
+            String date = String.format("2024-02-%02d", day);
+            history.put(
+                    date,
+                    List.of(
+                            info(date, "86970", "0111"),
+                            info(date, String.format("%04d0", day), "0111")));
+        }
+
+        assertTrue(history.isKeyframe("2024-02-01"));
+        assertFalse(history.isKeyframe("2024-02-02"));
+        assertFalse(history.isKeyframe("2024-02-03"));
+        assertTrue(history.isKeyframe("2024-02-04"));
+        assertTrue(history.isKeyframe("2024-02-07"));
+        for (int day = 1; day <= 7; day++) {
+            assertThat(history.asOf(String.format("2024-02-%02d", day)).orElseThrow())
+                    .extracting(ListedInfo::getCode)
+                    .containsExactly(String.format("%04d0", day), "86970");
+        }
+    }
+
+    private static ListedInfo info(String date, String code, String marketCode) {
+        return ListedInfo.builder().date(date).code(code).marketCode(marketCode).build();
+    }
+}
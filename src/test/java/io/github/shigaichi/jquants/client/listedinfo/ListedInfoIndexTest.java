@@ -0,0 +1,69 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.shigaichi.jquants.client.listedinfo.ListedInfoIndex.Field;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoIndexTest {
+    private static final List<ListedInfo> SNAPSHOT =
+            List.of(
+                    info("72030", "0111", "3700", "2"),
+                    info("83060", "0111", "7050", "2"),
+                    info("83160", "0111", "7050", "2"),
+                    info("86970", "0111", "7200", "2"),
+                    info("99990", "0112", "7050", "3"));
+
+    @Test
+    @DisplayName("4桁と5桁のどちらの銘柄コードでも検索できる")
+    void getsByCode() {
+        ListedInfoIndex index = ListedInfoIndex.of(SNAPSHOT);
+
+        assertEquals("86970", index.get("8697").orElseThrow().getCode());
+        assertEquals("86970", index.get("86970").orElseThrow().getCode());
+        assertTrue(index.get("1301").isEmpty());
+        assertTrue(index.get(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("複数の条件の積で絞り込む")
+    void intersectsPostings() {
+        ListedInfoIndex index = ListedInfoIndex.of(SNAPSHOT);
+
+        List<ListedInfo> primeBanks =
+                index.where(Field.MARKET, "0111").and(Field.SECTOR33, "7050").toList();
+
+        assertThat(primeBanks).extracting(ListedInfo::getCode).containsExactly("83060", "83160");
+        assertEquals(0, index.where(Field.MARKET, "0111").and(Field.MARGIN, "3").count());
+        assertEquals(0, index.where(Field.SECTOR33, "9999").count());
+        assertEquals(5, index.all().count());
+    }
+
+    @Test
+    @DisplayName("同じ項目の複数のコードはいずれかに一致する条件として扱う")
+    void unionsWithinField() {
+        ListedInfoIndex index = ListedInfoIndex.of(SNAPSHOT);
+
+        List<ListedInfo> result =
+                index.where(Field.MARKET, "0111")
+                        .andAnyOf(Field.SECTOR33, List.of("3700", "7200"))
+                        .toList();
+
+        assertThat(result).extracting(ListedInfo::getCode).containsExactly("72030", "86970");
+        assertThat(index.values(Field.SECTOR33)).containsExactlyInAnyOrder("3700", "7050", "7200");
+    }
+
+    private static ListedInfo info(
+            String code, String marketCode, String sector33Code, String marginCode) {
+        return ListedInfo.builder()
+                .code(code)
+                .marketCode(marketCode)
+                .sector33Code(sector33Code)
+                .marginCode(marginCode)
+                .build();
+    }
+}
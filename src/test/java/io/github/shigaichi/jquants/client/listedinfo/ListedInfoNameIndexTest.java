@@ -0,0 +1,77 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoNameIndexTest {
+    private static final List<ListedInfo> SNAPSHOT =
+            List.of(
+                    info("72030", "トヨタ自動車", "TOYOTA MOTOR CORPORATION"),
+                    info("62010", "豊田自動織機", "TOYOTA INDUSTRIES CORPORATION"),
+                    info("86970", "日本取引所グループ", "Japan Exchange Group,Inc."),
+                    info("72670", "本田技研工業", "HONDA MOTOR CO.,LTD."),
+                    info("99990", "トヨタ", "TOYOTA"));
+
+    @Test
+    @DisplayName("完全一致、前方一致、部分一致の順に並べる")
+    void ranksExactThenPrefixThenSubstring() {
+        ListedInfoNameIndex index = ListedInfoNameIndex.of(SNAPSHOT);
+
+        assertThat(index.search("トヨタ", 10))
+                .extracting(ListedInfo::getCode)
+                .containsExactly("99990", "72030");
+        assertThat(index.search("自動", 10))
+                .extracting(ListedInfo::getCode)
+                .containsExactly("62010", "72030");
+    }
+
+    @Test
+    @DisplayName("英語名は大文字・小文字を区別せず、全角でも検索できる")
+    void foldsCaseAndWidth() {
+        ListedInfoNameIndex index = ListedInfoNameIndex.of(SNAPSHOT);
+
+        assertThat(index.search("motor", 10))
+                .extracting(ListedInfo::getCode)
+                .containsExactly("72670", "72030");
+        assertThat(index.search("ｔｏｙｏｔａ", 2))
+                .extracting(ListedInfo::getCode)
+                .containsExactly("99990", "72030");
+        assertThat(index.search("g", 10)).extracting(ListedInfo::getCode).contains("86970");
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("スナップショットの差分を反映する")
+    void updatesIncrementally() {
+        ListedInfoNameIndex index = ListedInfoNameIndex.of(SNAPSHOT);
+
+        index.update(
+                List.of(
+                        info("72030", "トヨタ自動車", "TOYOTA MOTOR CORPORATION"),
+                        info("86970", "JPX", "Japan Exchange Group,Inc."),
+                        info("13010", "極洋", "KYOKUYO CO.,LTD.")));
+
+        assertEquals(3, index.size());
+        assertThat(index.search("日本取引所", 10)).isEmpty();
+        assertThat(index.search("jpx", 10))
+                .extracting(ListedInfo::getCode)
+                .containsExactly("86970");
+        assertThat(index.search("極洋", 10)).extracting(ListedInfo::getCode).containsExactly("13010");
+        assertThat(index.search("honda", 10)).isEmpty();
+        assertThat(index.search("トヨタ", 10))
+                .extracting(ListedInfo::getCode)
+                .containsExactly("72030");
+    }
+
+    private static ListedInfo info(String code, String companyName, String companyNameEnglish) {
+        return ListedInfo.builder()
+                .code(code)
+                .companyName(companyName)
+                .companyNameEnglish(companyNameEnglish)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.shigaichi.jquants.client.listedinfo;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.DisplayName;
@@ -75,4 +76,31 @@ class ListedInfoQueryTest {
         assertTrue(queryEmpty.getPaginationKey().isEmpty());
         assertTrue(queryNull.getPaginationKey().isEmpty());
     }
+
+    @Test
+    @DisplayName("withPaginationKey はページング用キーのみ差し替えたクエリを返す")
+    void withPaginationKeyReplacesOnlyPaginationKey() {
+        ListedInfoQuery query = ListedInfoQuery.builder().code("86970").date("2024-02-09").build();
+
+        ListedInfoQuery next = query.withPaginationKey("key-002");
+
+        assertEquals("86970", next.getCode().get());
+        assertEquals("2024-02-09", next.getDate().get());
+        assertEquals("key-002", next.getPaginationKey().get());
+        assertTrue(query.getPaginationKey().isEmpty());
+    }
+
+    @Test
+    @DisplayName("canonicalize は日付を YYYY-MM-DD、4桁コードを5桁に揃える")
+    void canonicalizeNormalizesDateAndCode() {
+        ListedInfoQuery compact = ListedInfoQuery.builder().code("8697").date("20240101").build();
+        ListedInfoQuery canonical =
+                ListedInfoQuery.builder().code("86970").date("2024-01-01").build();
+
+        assertEquals(canonical, compact.canonicalize());
+        assertSame(canonical, canonical.canonicalize());
+        assertEquals(
+                ListedInfoQuery.builder().build(),
+                ListedInfoQuery.builder().build().canonicalize());
+    }
 }
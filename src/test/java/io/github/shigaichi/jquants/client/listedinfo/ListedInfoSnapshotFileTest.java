@@ -0,0 +1,86 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ListedInfoSnapshotFileTest {
+    private static final List<ListedInfo> SNAPSHOT =
+            List.of(
+                    ListedInfo.builder()
+                            .date("2024-01-04")
+                            .code("86970")
+                            .companyName("日本取引所グループ")
+                            .companyNameEnglish("Japan Exchange Group,Inc.")
+                            .sector33Code("7200")
+                            .sector33CodeName("その他金融業")
+                            .marketCode("0111")
+                            .marketCodeName("プライム")
+                            .basePrice(new BigDecimal("3012.5"))
+                            .build(),
+                    ListedInfo.builder()
+                            .date("2024-01-04")
+                            .code("130A0")
+                            .companyName("Veritas In Silico")
+                            .marketCode("0112")
+                            .marketCodeName("スタンダード")
+                            .build(),
+                    ListedInfo.builder()
+                            .date("2024-01-04")
+                            .code("13010")
+                            .marketCode("0111")
+                            .marketCodeName("プライム")
+                            .basePrice(new BigDecimal("3500"))
+                            .build());
+
+    @TempDir Path directory;
+
+    @Test
+    @DisplayName("書き込んだスナップショットを銘柄コード順に読み戻せる")
+    void roundTrips() throws IOException {
+        Path path = directory.resolve("listed-info.bin");
+        ListedInfoSnapshotFile.write(path, SNAPSHOT);
+
+        try (ListedInfoSnapshotFile file = ListedInfoSnapshotFile.open(path)) {
+            assertEquals(3, file.size());
+            assertThat(file.asList())
+                    .containsExactly(SNAPSHOT.get(2), SNAPSHOT.get(1), SNAPSHOT.get(0));
+            assertEquals(SNAPSHOT.get(0), file.find("8697").orElseThrow());
+            assertEquals(SNAPSHOT.get(1), file.find("130A0").orElseThrow());
+            assertEquals(SNAPSHOT.get(2), file.find("1301").orElseThrow());
+            assertThat(file.find("99990")).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("内容が壊れている場合は IOException になる")
+    void detectsCorruption() throws IOException {
+        Path path = directory.resolve("listed-info.bin");
+        ListedInfoSnapshotFile.write(path, SNAPSHOT);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(path, bytes);
+
+        IOException exception =
+                assertThrows(IOException.class, () -> ListedInfoSnapshotFile.open(path));
+        assertThat(exception.getMessage()).contains("チェックサム");
+    }
+
+    @Test
+    @DisplayName("スナップショットファイル以外は IOException になる")
+    void rejectsOtherFiles() throws IOException {
+        Path path = directory.resolve("listed-info.json");
+        Files.writeString(path, "{\"info\": []}");
+
+        assertThrows(IOException.class, () -> ListedInfoSnapshotFile.open(path));
+    }
+}
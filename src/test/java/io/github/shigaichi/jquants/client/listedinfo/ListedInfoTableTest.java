@@ -0,0 +1,120 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoTableTest {
+
+    @Test
+    @DisplayName("列に分解して保持した値から元の銘柄情報を復元できる")
+    void roundTrip() {
+        List<ListedInfo> infos =
+                List.of(
+                        info("86970", "日本取引所グループ", "16", "金融（除く銀行）", "7200", "その他金融業"),
+                        info("72030", "トヨタ自動車", "6", "自動車・輸送機", "3700", "輸送用機器"),
+                        ListedInfo.builder().build());
+
+        for (boolean offHeap : new boolean[] {false, true}) {
+            ListedInfoTable table =
+                    ListedInfoTable.builder().addAll(infos).offHeap(offHeap).build();
+
+            assertEquals(offHeap, table.isOffHeap());
+            assertEquals(infos, table.toList());
+            assertEquals("その他金融業", table.row(0).getSector33CodeName());
+            assertNull(table.row(2).getMarketCode());
+        }
+    }
+
+    @Test
+    @DisplayName("値の種類が少ない項目は辞書で共有し、1 バイトの番号で保持する")
+    void dictionaryEncodesLowCardinalityColumns() {
+        List<ListedInfo> infos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            infos.add(
+                    info(
+                            String.format("%04d0", i),
+                            "会社" + i,
+                            String.valueOf(i % 17),
+                            new String("業種" + i % 17),
+                            String.valueOf(i % 33),
+                            new String("業種" + i % 33)));
+        }
+
+        ListedInfoTable table = ListedInfoTable.of(infos);
+
+        assertEquals(1000, table.size());
+        assertEquals(17, table.dictionarySize(ListedInfoTable.SECTOR17));
+        assertEquals(33, table.dictionarySize(ListedInfoTable.SECTOR33));
+        assertEquals(1, table.dictionarySize(ListedInfoTable.MARKET));
+        assertEquals(Byte.BYTES, table.idWidth(ListedInfoTable.SECTOR33));
+        assertSame(table.row(0).getSector33CodeName(), table.row(33).getSector33CodeName());
+    }
+
+    @Test
+    @DisplayName("辞書の要素数が 256 を超える場合は 2 バイトの番号で保持する")
+    void widensIdsForLargeDictionaries() {
+        List<ListedInfo> infos = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            infos.add(ListedInfo.builder().epochDay(19_000 + i).build());
+        }
+
+        ListedInfoTable table = ListedInfoTable.builder().addAll(infos).offHeap(true).build();
+
+        assertEquals(Short.BYTES, table.idWidth(ListedInfoTable.DATE));
+        assertEquals(LocalDate.ofEpochDay(19_299).toString(), table.row(299).getDate());
+    }
+
+    @Test
+    @DisplayName("forEach は同じ行ビューを使い回す")
+    void forEachReusesRowView() {
+        ListedInfoTable table =
+                ListedInfoTable.of(
+                        List.of(
+                                info("86970", "日本取引所グループ", "16", "金融（除く銀行）", "7200", "その他金融業"),
+                                info("72030", "トヨタ自動車", "6", "自動車・輸送機", "3700", "輸送用機器")));
+        List<ListedInfoTable.Row> rows = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+
+        table.forEach(
+                row -> {
+                    rows.add(row);
+                    codes.add(row.getCode());
+                });
+
+        assertSame(rows.get(0), rows.get(1));
+        assertThat(codes).containsExactly("86970", "72030");
+        assertFalse(table.isOffHeap());
+        assertEquals(1, table.row(1).getIndex());
+    }
+
+    private static ListedInfo info(
+            String code,
+            String companyName,
+            String sector17Code,
+            String sector17CodeName,
+            String sector33Code,
+            String sector33CodeName) {
+        return ListedInfo.builder()
+                .date("2024-01-04")
+                .code(code)
+                .companyName(companyName)
+                .sector17Code(sector17Code)
+                .sector17CodeName(sector17CodeName)
+                .sector33Code(sector33Code)
+                .sector33CodeName(sector33CodeName)
+                .marketCode("0111")
+                .marketCodeName("プライム")
+                .basePrice(new BigDecimal("2500"))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.shigaichi.jquants.client.listedinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ListedInfoTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("JSON の各項目を読み取り、未知の項目は読み飛ばす")
+    void deserializes() throws Exception {
+        String json =
+                "{\"Date\":\"2024-01-04\",\"Code\":\"86970\",\"CompanyName\":\"日本取引所グループ\","
+                        + "\"Sector33Code\":\"7200\",\"Sector33CodeName\":\"その他金融業\","
+                        + "\"Unknown\":{\"nested\":[1,2]},\"MarketCode\":\"0111\","
+                        + "\"BasePrice\":2512.50}";
+
+        ListedInfo info = OBJECT_MAPPER.readValue(json, ListedInfo.class);
+
+        assertEquals("2024-01-04", info.getDate());
+        assertEquals(LocalDate.of(2024, 1, 4).toEpochDay(), info.getEpochDay());
+        assertEquals("86970", info.getCode());
+        assertEquals("日本取引所グループ", info.getCompanyName());
+        assertEquals("その他金融業", info.getSector33CodeName());
+        assertEquals("0111", info.getMarketCode());
+        assertEquals(new BigDecimal("2512.50"), info.getBasePrice());
+        assertEquals(251250, info.getBasePriceUnscaled());
+        assertEquals(2, info.getBasePriceScale());
+        assertNull(info.getScaleCategory());
+    }
+
+    @Test
+    @DisplayName("値のない項目や文字列の基準値段も読み取れる")
+    void deserializesNullsAndStrings() throws Exception {
+        ListedInfo info =
+                OBJECT_MAPPER.readValue(
+                        "{\"Date\":null,\"Code\":\"8697\",\"BasePrice\":\"\"}", ListedInfo.class);
+
+        assertNull(info.getDate());
+        assertEquals(ListedInfo.NO_DATE, info.getEpochDay());
+        assertEquals("8697", info.getCode());
+        assertEquals(ListedInfo.NO_CODE, info.getCodeValue());
+        assertFalse(info.hasBasePrice());
+        assertNull(info.getBasePrice());
+    }
+
+    @Test
+    @DisplayName("不正な日付は JsonMappingException になる")
+    void rejectsInvalidDate() {
+        assertThrows(
+                JsonMappingException.class,
+                () -> OBJECT_MAPPER.readValue("{\"Date\":\"2024/01/04\"}", ListedInfo.class));
+    }
+
+    @Test
+    @DisplayName("英数字 5 桁の銘柄コードは文字列と同じ順序の int に詰める")
+    void packsAlphanumericCodes() {
+        ListedInfo numeric = ListedInfo.builder().code("86970").build();
+        ListedInfo alphanumeric = ListedInfo.builder().code("130A0").build();
+
+        assertEquals("130A0", alphanumeric.getCode());
+        assertThat(ListedInfo.encodeCode("13010"))
+                .isLessThan(alphanumeric.getCodeValue())
+                .isLessThan(ListedInfo.encodeCode("13100"));
+        assertThat(alphanumeric.getCodeValue()).isLessThan(numeric.getCodeValue());
+        assertEquals(ListedInfo.NO_CODE, ListedInfo.encodeCode("130a0"));
+    }
+
+    @Test
+    @DisplayName("シリアライズすると API と同じ項目名で出力し、読み戻すと等しい")
+    void roundTripsThroughJson() throws Exception {
+        ListedInfo info =
+                ListedInfo.builder()
+                        .date("20240104")
+                        .code("72030")
+                        .companyName("トヨタ自動車")
+                        .basePrice(new BigDecimal("2.5E+3"))
+                        .build();
+
+        String json = OBJECT_MAPPER.writeValueAsString(info);
+
+        assertThat(json).contains("\"Date\":\"2024-01-04\"", "\"Code\":\"72030\"");
+        assertThat(json).doesNotContain("epochDay", "codeValue");
+        assertEquals(info, OBJECT_MAPPER.readValue(json, ListedInfo.class));
+        assertEquals(new BigDecimal("2500"), info.getBasePrice());
+        assertEquals(info, info.toBuilder().build());
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.shigaichi.jquants.client.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    @DisplayName("バケットは値の範囲を隙間なく連続して覆う")
+    void bucketsAreContiguous() {
+        assertEquals(0, LatencyHistogram.lowerBound(0));
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            assertEquals(LatencyHistogram.upperBound(i - 1) + 1, LatencyHistogram.lowerBound(i));
+        }
+        assertEquals(
+                Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.BUCKET_COUNT - 1));
+        assertEquals(
+                LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(value)
+                    .isBetween(
+                            LatencyHistogram.lowerBound(index), LatencyHistogram.upperBound(index));
+        }
+    }
+
+    @Test
+    @DisplayName("パーセンタイルを相対誤差 1/16 以内で返す")
+    void percentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), snapshot.getMin());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), snapshot.getMax());
+        assertEquals((double) TimeUnit.MICROSECONDS.toNanos(500_500), snapshot.getMean(), 1.0);
+        for (double percentile : new double[] {50.0, 90.0, 99.0, 99.9}) {
+            double expected = (double) TimeUnit.MILLISECONDS.toNanos((long) (percentile * 10));
+            assertThat((double) snapshot.getValueAtPercentile(percentile))
+                    .isBetween(expected, expected * (1.0 + 1.0 / 16));
+        }
+        assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100.0));
+        assertEquals(snapshot.getMin(), snapshot.getValueAtPercentile(0.0));
+    }
+
+    @Test
+    @DisplayName("累積件数は上限が指定値以下のバケットを数える")
+    void cumulativeCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(100);
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.getMin());
+        assertEquals(2, snapshot.getCountAtOrBelow(99));
+        assertEquals(3, snapshot.getCountAtOrBelow(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtPercentile(101.0));
+    }
+
+    @Test
+    @DisplayName("記録がない場合はすべて 0 を返す")
+    void empty() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getValueAtPercentile(99.0));
+        assertEquals(0.0, snapshot.getMean());
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.shigaichi.jquants.client.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileTokenStoreTest {
+    @TempDir Path tempDir;
+
+    @Test
+    @DisplayName("保存したトークンを読み込める")
+    void saveAndLoad() throws Exception {
+        FileTokenStore store = new FileTokenStore(tempDir.resolve("nested/token.json"));
+
+        store.save(token("id-1", "refresh-1"));
+        store.save(token("id-2", "refresh-2"));
+
+        StoredToken loaded = store.load().orElseThrow();
+        assertEquals("id-2", loaded.getIdToken());
+        assertEquals(1000L, loaded.getIdTokenIssuedAt());
+        assertEquals("refresh-2", loaded.getRefreshToken());
+        assertEquals(2000L, loaded.getRefreshTokenIssuedAt());
+        try (Stream<Path> files = Files.list(store.getPath().getParent())) {
+            // 一時ファイルが残らない
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("所有者のみ読み書きできる権限で保存する")
+    void savesWithOwnerOnlyPermissions() throws Exception {
+        Path path = tempDir.resolve("token.json");
+        new FileTokenStore(path).save(token("id", "refresh"));
+
+        if (Files.getFileStore(path).supportsFileAttributeView("posix")) {
+            assertEquals(
+                    PosixFilePermissions.fromString("rw-------"),
+                    Files.getPosixFilePermissions(path));
+        }
+    }
+
+    @Test
+    @DisplayName("ファイルが存在しない場合や壊れている場合は empty を返す")
+    void loadReturnsEmptyForMissingOrBrokenFile() throws Exception {
+        Path path = tempDir.resolve("token.json");
+        FileTokenStore store = new FileTokenStore(path);
+        assertEquals(Optional.empty(), store.load());
+
+        Files.writeString(path, "{broken");
+        assertTrue(store.load().isEmpty());
+    }
+
+    private static StoredToken token(String idToken, String refreshToken) {
+        StoredToken token = new StoredToken();
+        token.setIdToken(idToken);
+        token.setIdTokenIssuedAt(1000L);
+        token.setRefreshToken(refreshToken);
+        token.setRefreshTokenIssuedAt(2000L);
+        return token;
+    }
+}
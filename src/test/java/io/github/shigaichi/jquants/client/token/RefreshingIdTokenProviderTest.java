@@ -0,0 +1,306 @@
+package io.github.shigaichi.jquants.client.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RefreshingIdTokenProviderTest {
+    private static final Instant NOW = Instant.parse("2024-02-09T00:00:00Z");
+
+    @Test
+    @DisplayName("有効期限内の ID トークンは更新せずに返す")
+    void returnsCurrentTokenWhileValid() throws Exception {
+        AtomicInteger refreshCount = new AtomicInteger();
+        MutableClock clock = new MutableClock(NOW);
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(token -> "renewed-" + refreshCount.incrementAndGet())
+                        .idToken("initial", NOW)
+                        .clock(clock)
+                        .build();
+
+        clock.advance(Duration.ofHours(23));
+
+        assertEquals("initial", provider.getIdToken());
+        assertEquals(0, refreshCount.get());
+    }
+
+    @Test
+    @DisplayName("期限切れが近づいた ID トークンはリフレッシュトークンで更新する")
+    void refreshesTokenNearExpiry() throws Exception {
+        List<String> refreshTokens = new ArrayList<>();
+        MutableClock clock = new MutableClock(NOW);
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(
+                                token -> {
+                                    refreshTokens.add(token);
+                                    return "renewed";
+                                })
+                        .idToken("initial", NOW)
+                        .clock(clock)
+                        .build();
+
+        clock.advance(Duration.ofHours(24).minusMinutes(1));
+
+        assertEquals("renewed", provider.getIdToken());
+        assertEquals(List.of("refresh-token"), refreshTokens);
+        assertEquals(Optional.of(clock.instant()), provider.getIdTokenIssuedAt());
+    }
+
+    @Test
+    @DisplayName("初期トークンがない場合は最初の呼び出しで取得する")
+    void fetchesTokenLazily() throws Exception {
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(token -> "fetched")
+                        .build();
+
+        assertEquals(Optional.empty(), provider.getIdTokenIssuedAt());
+        assertEquals("fetched", provider.getIdToken());
+    }
+
+    @Test
+    @DisplayName("更新に失敗しても期限内のトークンがあればそれを返す")
+    void fallsBackToValidTokenWhenRefreshFails() throws Exception {
+        MutableClock clock = new MutableClock(NOW);
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(
+                                token -> {
+                                    throw new IOException("接続失敗");
+                                })
+                        .idToken("initial", NOW)
+                        .clock(clock)
+                        .build();
+
+        clock.advance(Duration.ofHours(24).minusMinutes(1));
+        assertEquals("initial", provider.getIdToken());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThrows(IOException.class, provider::getIdToken);
+    }
+
+    @Test
+    @DisplayName("同時に期限切れを検知しても更新は 1 回だけ実行される")
+    void refreshesOnceForConcurrentCallers() throws Exception {
+        AtomicInteger refreshCount = new AtomicInteger();
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(
+                                token -> {
+                                    refreshCount.incrementAndGet();
+                                    refreshStarted.countDown();
+                                    releaseRefresh.await();
+                                    return "renewed";
+                                })
+                        .build();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(provider::getIdToken));
+            }
+            refreshStarted.await(5, TimeUnit.SECONDS);
+            releaseRefresh.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("renewed", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, refreshCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("拒否されたトークンが既に更新済みの場合は再度更新せずに新しいトークンを返す")
+    void renewSkipsRefreshWhenAlreadyRenewed() throws Exception {
+        AtomicInteger refreshCount = new AtomicInteger();
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refreshToken("refresh-token")
+                        .refresher(token -> "renewed-" + refreshCount.incrementAndGet())
+                        .idToken("initial", NOW)
+                        .clock(new MutableClock(NOW))
+                        .build();
+
+        assertEquals(Optional.of("renewed-1"), provider.renewIdToken("initial"));
+        assertEquals(Optional.of("renewed-1"), provider.renewIdToken("initial"));
+        assertEquals(1, refreshCount.get());
+        assertEquals(Optional.of("renewed-2"), provider.renewIdToken("renewed-1"));
+    }
+
+    @Test
+    @DisplayName("固定トークンのプロバイダは更新しない")
+    void fixedProviderDoesNotRenew() throws Exception {
+        IdTokenProvider provider = IdTokenProvider.of("fixed");
+
+        assertEquals("fixed", provider.getIdToken());
+        assertEquals(Optional.empty(), provider.renewIdToken("fixed"));
+    }
+
+    @Test
+    @DisplayName("リフレッシュトークンが未指定の場合は IllegalArgumentException を送出する")
+    void rejectsMissingRefreshToken() {
+        RefreshingIdTokenProvider.Builder builder =
+                RefreshingIdTokenProvider.builder().refreshToken(" ").refresher(token -> "x");
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    @DisplayName("保存済みのトークンが有効な場合はログインせずに再利用する")
+    void restoresFromStoreWithoutLogin() throws Exception {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        store.token =
+                storedToken("stored-id", NOW, "stored-refresh", NOW.minus(Duration.ofDays(6)));
+        AtomicInteger loginCount = new AtomicInteger();
+
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refresher(token -> "renewed")
+                        .tokenStore(store)
+                        .clock(new MutableClock(NOW.plus(Duration.ofHours(1))))
+                        .buildFromStore(
+                                () -> {
+                                    loginCount.incrementAndGet();
+                                    return new IdTokenResponse();
+                                });
+
+        assertEquals("stored-id", provider.getIdToken());
+        assertEquals(0, loginCount.get());
+    }
+
+    @Test
+    @DisplayName("保存済みの ID トークンが期限切れの場合は保存済みのリフレッシュトークンで更新して保存する")
+    void refreshesFromStoredRefreshToken() throws Exception {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        Instant refreshIssuedAt = NOW.minus(Duration.ofDays(2));
+        store.token =
+                storedToken(
+                        "stale-id",
+                        NOW.minus(Duration.ofDays(1)),
+                        "stored-refresh",
+                        refreshIssuedAt);
+        List<String> refreshTokens = new ArrayList<>();
+
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refresher(
+                                token -> {
+                                    refreshTokens.add(token);
+                                    return "renewed";
+                                })
+                        .tokenStore(store)
+                        .clock(new MutableClock(NOW))
+                        .buildFromStore(
+                                () -> {
+                                    throw new AssertionError("ログインしない");
+                                });
+
+        assertEquals("renewed", provider.getIdToken());
+        assertEquals(List.of("stored-refresh"), refreshTokens);
+        assertEquals("renewed", store.token.getIdToken());
+        assertEquals(NOW.toEpochMilli(), store.token.getIdTokenIssuedAt());
+        assertEquals(refreshIssuedAt.toEpochMilli(), store.token.getRefreshTokenIssuedAt());
+    }
+
+    @Test
+    @DisplayName("保存済みのリフレッシュトークンが期限切れの場合はログインして保存する")
+    void logsInWhenStoredRefreshTokenExpired() throws Exception {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        store.token = storedToken("old-id", NOW, "old-refresh", NOW.minus(Duration.ofDays(7)));
+        IdTokenResponse loginResponse = new IdTokenResponse();
+        loginResponse.setIdToken("login-id");
+        loginResponse.setRefreshToken("login-refresh");
+
+        RefreshingIdTokenProvider provider =
+                RefreshingIdTokenProvider.builder()
+                        .refresher(token -> "renewed")
+                        .tokenStore(store)
+                        .clock(new MutableClock(NOW))
+                        .buildFromStore(() -> loginResponse);
+
+        assertEquals("login-id", provider.getIdToken());
+        assertEquals("login-refresh", store.token.getRefreshToken());
+        assertEquals(NOW.toEpochMilli(), store.token.getRefreshTokenIssuedAt());
+    }
+
+    private static StoredToken storedToken(
+            String idToken, Instant idIssuedAt, String refreshToken, Instant refreshIssuedAt) {
+        StoredToken token = new StoredToken();
+        token.setIdToken(idToken);
+        token.setIdTokenIssuedAt(idIssuedAt.toEpochMilli());
+        token.setRefreshToken(refreshToken);
+        token.setRefreshTokenIssuedAt(refreshIssuedAt.toEpochMilli());
+        return token;
+    }
+
+    private static final class InMemoryTokenStore implements TokenStore {
+        private StoredToken token;
+
+        @Override
+        public Optional<StoredToken> load() {
+            return Optional.ofNullable(token);
+        }
+
+        @Override
+        public void save(StoredToken token) {
+            this.token = token;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}